@@ -0,0 +1,100 @@
+package com.example.benchmarks;
+
+import com.example.mvcdemo.controller.DemoController;
+import com.example.mvcdemo.converter.ApiResponseHttpMessageConverter;
+import com.example.mvcdemo.model.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * mvc-demo 响应写出基准：Jackson 消息转换器与 ApiResponse 快速序列化
+ * 与控制器一致，每次操作新建 ApiResponse，写入可复用的输出消息，只比较转换器本身的开销
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ApiResponseConverterBenchmark {
+
+    private MappingJackson2HttpMessageConverter jackson;
+    private ApiResponseHttpMessageConverter fast;
+    private ReusableOutputMessage output;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        fast = new ApiResponseHttpMessageConverter(objectMapper, DemoController.HELLO_DATA);
+        output = new ReusableOutputMessage();
+    }
+
+    @Benchmark
+    public int jacksonHello() throws IOException {
+        return write(jackson, ApiResponse.success(DemoController.HELLO_DATA));
+    }
+
+    @Benchmark
+    public int fastHello() throws IOException {
+        return write(fast, ApiResponse.success(DemoController.HELLO_DATA));
+    }
+
+    @Benchmark
+    public int jacksonError() throws IOException {
+        return write(jackson, ApiResponse.error("404", "name not found"));
+    }
+
+    @Benchmark
+    public int fastError() throws IOException {
+        return write(fast, ApiResponse.error("404", "name not found"));
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private int write(HttpMessageConverter converter, ApiResponse<String> response)
+            throws IOException {
+        output.reset();
+        converter.write(response, MediaType.APPLICATION_JSON, output);
+        return output.body.size();
+    }
+
+    private static final class ReusableOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        void reset() {
+            headers.clear();
+            body.reset();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
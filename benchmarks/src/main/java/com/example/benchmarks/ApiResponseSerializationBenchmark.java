@@ -0,0 +1,52 @@
+package com.example.benchmarks;
+
+import com.example.studiodemo.controller.OrchestrationController;
+import com.example.studiodemo.model.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiResponse 序列化基准，ObjectMapper 与 Spring MVC 默认配置一致
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<String> hello;
+    private ApiResponse<OrchestrationController.AggregatedResult> aggregated;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        hello = ApiResponse.success("yy");
+        aggregated = ApiResponse.success(new OrchestrationController.AggregatedResult("yy", "tom"));
+    }
+
+    @Benchmark
+    public byte[] helloResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(hello);
+    }
+
+    @Benchmark
+    public byte[] aggregatedResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(aggregated);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.benchmarks;
+
+import com.example.studiodemo.config.GatewayProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 基准测试数据
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 读取 studio-demo 的 application.yml 绑定为 GatewayProperties，与运行时的路由配置一致
+     */
+    static GatewayProperties gatewayProperties() {
+        try {
+            List<PropertySource<?>> sources = new YamlPropertySourceLoader()
+                    .load("application", new ClassPathResource("application.yml"));
+            return new Binder(ConfigurationPropertySources.from(sources),
+                    new PropertySourcesPlaceholdersResolver(sources))
+                    .bind("gateway", Bindable.ofInstance(new GatewayProperties()))
+                    .get();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 生成约 size 字节的 ApiResponse JSON，data 为对象数组
+     */
+    static String apiResponseJson(int size) {
+        StringBuilder json = new StringBuilder(size + 128);
+        json.append("{\"code\":\"200\",\"msg\":\"success\",\"data\":[");
+        for (int i = 0; json.length() < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"item-").append(i)
+                    .append("\",\"code\":\"nested\",\"tags\":[\"a\",\"b\"]}");
+        }
+        return json.append("]}").toString();
+    }
+}
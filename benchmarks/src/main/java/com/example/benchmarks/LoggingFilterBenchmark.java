@@ -0,0 +1,76 @@
+package com.example.benchmarks;
+
+import com.example.studiodemo.accesslog.AsyncAccessLogger;
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.filter.LoggingFilter;
+import com.example.studiodemo.warmup.WarmUpRequests;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问日志基准：LoggingFilter 在请求线程上的开销（记录写入环形缓冲区），
+ * 格式化与输出在后台线程完成，不计入请求线程耗时
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingFilterBenchmark {
+
+    @Param({"1.0", "0.1"})
+    private double sampleRate;
+
+    private AsyncAccessLogger accessLogger;
+    private LoggingFilter filter;
+    private ServerRequest request;
+    private HandlerFunction<ServerResponse> next;
+
+    @Setup
+    public void setup() {
+        GatewayProperties gatewayProperties = BenchmarkData.gatewayProperties();
+        gatewayProperties.getAccessLog().setSampleRate(sampleRate);
+        accessLogger = new AsyncAccessLogger(gatewayProperties.getAccessLog());
+        accessLogger.start();
+        filter = new LoggingFilter(accessLogger, new WarmUpRequests(), gatewayProperties)
+                .forRoute(gatewayProperties.getRoutes().get(0));
+
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/mvc/demo/hello");
+        servletRequest.addHeader("User-Agent", "jmh");
+        servletRequest.addHeader("X-Request-Id", "0af7651916cd43dd8448eb211c80319c");
+        servletRequest.addHeader("Accept", "application/json");
+        request = ServerRequest.create(servletRequest, List.of());
+
+        ServerResponse response = ServerResponse.ok().build();
+        next = req -> response;
+    }
+
+    @TearDown
+    public void tearDown() {
+        accessLogger.stop();
+        System.out.printf("%naccess log written=%d dropped=%d%n", accessLogger.getWritten(), accessLogger.getDropped());
+    }
+
+    @Benchmark
+    public ServerResponse filter() throws Exception {
+        return filter.filter(request, next);
+    }
+}
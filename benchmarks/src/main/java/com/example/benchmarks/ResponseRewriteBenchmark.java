@@ -0,0 +1,49 @@
+package com.example.benchmarks;
+
+import com.example.studiodemo.filter.ResponseRewriteFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应体重写基准：不同响应体大小下 rewriteResponseBody 的耗时与分配
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseRewriteBenchmark {
+
+    /**
+     * 响应体大致字节数
+     */
+    @Param({"64", "1024", "65536", "1048576"})
+    private int bodySize;
+
+    private ResponseRewriteFilter filter;
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        filter = new ResponseRewriteFilter();
+        body = BenchmarkData.apiResponseJson(bodySize).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] rewriteResponseBody() {
+        return filter.rewriteResponseBody(body);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.benchmarks;
+
+import com.example.studiodemo.route.RouteIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路由匹配基准：RouteIndex 与逐条 PathPattern 匹配在 10 ~ 10000 条路由下的对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteIndexBenchmark {
+
+    private static final int PATHS = 1024;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int routeCount;
+
+    private RouteIndex<String> index;
+    private List<PathPattern> patterns;
+    private String[] paths;
+    private PathContainer[] pathContainers;
+    private int next;
+
+    @Setup
+    public void setup() {
+        index = new RouteIndex<>();
+        patterns = new ArrayList<>(routeCount);
+        PathPatternParser parser = new PathPatternParser();
+        for (int i = 0; i < routeCount; i++) {
+            String pattern = "/svc" + i + "/api/items/{id}";
+            index.add(null, "GET", pattern, "route-" + i);
+            patterns.add(parser.parse(pattern));
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        paths = new String[PATHS];
+        pathContainers = new PathContainer[PATHS];
+        for (int i = 0; i < PATHS; i++) {
+            paths[i] = "/svc" + random.nextInt(routeCount) + "/api/items/" + i;
+            pathContainers[i] = PathContainer.parsePath(paths[i]);
+        }
+    }
+
+    @Benchmark
+    public RouteIndex.Match<String> routeIndex() {
+        return index.lookup(null, HttpMethod.GET, paths[next++ & (PATHS - 1)]);
+    }
+
+    @Benchmark
+    public PathPattern linearPathPatterns() {
+        PathContainer path = pathContainers[next++ & (PATHS - 1)];
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+}
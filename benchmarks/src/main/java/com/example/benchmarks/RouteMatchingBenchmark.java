@@ -0,0 +1,105 @@
+package com.example.benchmarks;
+
+import com.example.studiodemo.accesslog.AsyncAccessLogger;
+import com.example.studiodemo.bulkhead.Bulkheads;
+import com.example.studiodemo.cache.ResponseCaches;
+import com.example.studiodemo.coalesce.RequestCoalescers;
+import com.example.studiodemo.codec.WireFormats;
+import com.example.studiodemo.compression.ResponseCompressors;
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.config.RouteConfig;
+import com.example.studiodemo.filter.LoggingFilter;
+import com.example.studiodemo.filter.ResponseRewriteFilter;
+import com.example.studiodemo.hedge.HedgePolicies;
+import com.example.studiodemo.loadbalancer.LoadBalancers;
+import com.example.studiodemo.metrics.GatewayMetrics;
+import com.example.studiodemo.ratelimit.RateLimiters;
+import com.example.studiodemo.resilience.Protections;
+import com.example.studiodemo.streaming.ResponseStreams;
+import com.example.studiodemo.tracing.Tracer;
+import com.example.studiodemo.upstream.UpstreamConnectionPools;
+import com.example.studiodemo.warmup.WarmUpRequests;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * 路由匹配基准：由 application.yml 中的 GatewayProperties 构建真实的网关 RouterFunction，
+ * 依次匹配各条路由及一个未命中的路径
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteMatchingBenchmark {
+
+    private static final String[] PATHS = {
+            "/mvc/demo/hello",
+            "/mvc/demo/hello/tom",
+            "/api/v1/demo/hello",
+            "/api/v1/demo/hello/jerry",
+            "/not/found",
+    };
+
+    private RouterFunction<ServerResponse> routes;
+    private ServerRequest[] requests;
+    private int next;
+
+    @Setup
+    public void setup() {
+        GatewayProperties gatewayProperties = BenchmarkData.gatewayProperties();
+        WarmUpRequests warmUpRequests = new WarmUpRequests();
+        RouteConfig routeConfig = new RouteConfig(gatewayProperties,
+                new LoggingFilter(new AsyncAccessLogger(gatewayProperties.getAccessLog()), warmUpRequests,
+                        gatewayProperties),
+                new ResponseRewriteFilter(),
+                new GatewayMetrics(new SimpleMeterRegistry(), warmUpRequests),
+                new ResponseCaches(new SimpleMeterRegistry()),
+                new RequestCoalescers(new SimpleMeterRegistry()),
+                new Protections(gatewayProperties, new SimpleMeterRegistry()),
+                new LoadBalancers(new SimpleMeterRegistry(), new UpstreamConnectionPools(gatewayProperties, null, UnaryOperator.identity())),
+                new HedgePolicies(new SimpleMeterRegistry(), new StandardEnvironment()),
+                new ResponseStreams(gatewayProperties, new SimpleMeterRegistry()),
+                new ResponseCompressors(new SimpleMeterRegistry()),
+                new RateLimiters(new SimpleMeterRegistry()),
+                new WireFormats(new SimpleMeterRegistry()),
+                new Tracer(gatewayProperties),
+                new Bulkheads(new SimpleMeterRegistry(), 200, false));
+        routes = routeConfig.gatewayRoutes();
+
+        requests = new ServerRequest[PATHS.length];
+        for (int i = 0; i < PATHS.length; i++) {
+            MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", PATHS[i]);
+            servletRequest.setServerName("localhost");
+            requests[i] = ServerRequest.create(servletRequest, List.of());
+        }
+    }
+
+    @Benchmark
+    public Optional<HandlerFunction<ServerResponse>> route() {
+        ServerRequest request = requests[next];
+        next = next + 1 == requests.length ? 0 : next + 1;
+        return routes.route(request);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.benchmarks;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.tracing.RouteTracingFilter;
+import com.example.studiodemo.tracing.Stage;
+import com.example.studiodemo.tracing.TraceContext;
+import com.example.studiodemo.tracing.TraceparentRequestHeadersFilter;
+import com.example.studiodemo.tracing.Tracer;
+import com.example.studiodemo.tracing.TracingFilter;
+import com.example.studiodemo.warmup.WarmUpRequests;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求追踪基准：一个经过路由、转发的请求在请求线程上的追踪开销
+ * （创建上下文、记录各环节、向上游传播 traceparent、生成 Server-Timing），转发本身以固定响应代替；
+ * 追踪日志在基准中关闭，不计入
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TracingBenchmark {
+
+    @Param({"false", "true"})
+    private boolean sampled;
+
+    private TracingFilter tracingFilter;
+    private MockHttpServletRequest servletRequest;
+    private MockHttpServletResponse servletResponse;
+    private FilterChain chain;
+
+    @Setup
+    public void setup() {
+        GatewayProperties gatewayProperties = BenchmarkData.gatewayProperties();
+        gatewayProperties.getTracing().setSampleRate(sampled ? 1.0 : 0.0);
+        Tracer tracer = new Tracer(gatewayProperties);
+        tracingFilter = new TracingFilter(tracer, new WarmUpRequests());
+        RouteTracingFilter routeFilter = tracer.forRoute(gatewayProperties.getRoutes().get(0));
+        TraceparentRequestHeadersFilter headersFilter = new TraceparentRequestHeadersFilter();
+
+        servletRequest = new MockHttpServletRequest("GET", "/api/v1/demo/hello");
+        servletRequest.addHeader("User-Agent", "jmh");
+        servletRequest.addHeader("Accept", "application/json");
+        servletResponse = new MockHttpServletResponse();
+        ServerRequest request = ServerRequest.create(servletRequest, List.of());
+        HttpHeaders requestHeaders = request.headers().asHttpHeaders();
+
+        ServerResponse response = ServerResponse.ok().build();
+        HandlerFunction<ServerResponse> upstream = routeFilter.upstream(req -> {
+            headersFilter.apply(requestHeaders, req);
+            return response;
+        });
+        chain = (req, res) -> {
+            TraceContext.of(servletRequest).mark(Stage.ROUTED);
+            try {
+                routeFilter.filter(request, upstream);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request() throws Exception {
+        // 复用请求与响应对象，清除上一次的属性与响应头
+        servletRequest.clearAttributes();
+        servletResponse.reset();
+        tracingFilter.doFilter(servletRequest, servletResponse, chain);
+        return servletResponse;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.benchmarks;
+
+import com.example.studiodemo.codec.WireFormat;
+import com.example.studiodemo.filter.JsonFieldRenamingInputStream;
+import com.example.studiodemo.filter.ResponseRewriteFilter;
+import com.example.studiodemo.model.ApiResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 报文格式基准：JSON / Smile / CBOR 的报文大小与解码开销
+ * decode 对应编排 WebClient 解码下游结果，rewriteToJson 对应网关在边缘重写并转为 JSON；
+ * 报文字节数在初始化时打印
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<ApiResponse<List<ApiResponse<String>>>> BATCH_RESPONSE =
+            new TypeReference<>() {
+            };
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private WireFormat format;
+
+    /**
+     * data 中的结果个数：1 为单个 hello-name，64 为一次满批
+     */
+    @Param({"1", "64"})
+    private int results;
+
+    private ObjectMapper objectMapper;
+    private byte[] body;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = switch (format) {
+            case JSON -> Jackson2ObjectMapperBuilder.json().build();
+            case SMILE -> Jackson2ObjectMapperBuilder.smile().build();
+            case CBOR -> Jackson2ObjectMapperBuilder.cbor().build();
+        };
+        List<ApiResponse<String>> data = new ArrayList<>(results);
+        for (int i = 0; i < results; i++) {
+            data.add(ApiResponse.success("name-" + i));
+        }
+        body = objectMapper.writeValueAsBytes(ApiResponse.success(data));
+        System.out.printf("%n%s payload with %d results: %d bytes%n", format, results, body.length);
+    }
+
+    @Benchmark
+    public ApiResponse<List<ApiResponse<String>>> decode() throws IOException {
+        return objectMapper.readValue(body, BATCH_RESPONSE);
+    }
+
+    @Benchmark
+    public byte[] rewriteToJson() throws IOException {
+        try (InputStream in = new JsonFieldRenamingInputStream(format.factory(), WireFormat.JSON.factory(),
+                new ByteArrayInputStream(body), ResponseRewriteFilter.DEFAULT_FIELD_MAPPING)) {
+            return in.readAllBytes();
+        }
+    }
+}
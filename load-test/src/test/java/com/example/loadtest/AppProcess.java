@@ -0,0 +1,114 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以独立 JVM 进程启动被测应用（可执行 jar），监听随机空闲端口，日志写入 log-dir
+ * 进程工作目录为 jar 所在目录，AppCDS 归档等相对路径与构建时的训练运行一致
+ */
+final class AppProcess implements AutoCloseable {
+
+    private final String name;
+    private final int port;
+    private final Process process;
+    private final long startNanos;
+
+    private AppProcess(String name, int port, Process process, long startNanos) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+        this.startNanos = startNanos;
+    }
+
+    static AppProcess start(String name, Path jar, Path logDir, String... args) throws IOException {
+        return start(name, jar, logDir, List.of(), args);
+    }
+
+    /**
+     * @param jvmOptions 放在 -jar 之前的 JVM 参数
+     */
+    static AppProcess start(String name, Path jar, Path logDir, List<String> jvmOptions, String... args)
+            throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Executable jar not found: " + jar + " (run with -Pload-test verify)");
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-jar");
+        command.add(jar.getFileName().toString());
+        command.add("--server.port=" + port);
+        // 压测时关闭请求级 DEBUG 日志，避免控制台输出影响延迟
+        command.add("--logging.level.com.example=INFO");
+        command.add("--logging.level.org.springframework.cloud.gateway=INFO");
+        command.addAll(List.of(args));
+
+        Files.createDirectories(logDir);
+        long startNanos = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(jar.toAbsolutePath().getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve(name + ".log").toFile())
+                .start();
+        return new AppProcess(name, port, process, startNanos);
+    }
+
+    int port() {
+        return port;
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    /**
+     * 等待应用可以响应指定路径，返回从启动进程到首次响应成功的耗时
+     */
+    Duration awaitReady(HttpClient client, String path, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + path)).timeout(Duration.ofSeconds(2)).build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return Duration.ofNanos(System.nanoTime() - startNanos);
+                }
+            } catch (IOException e) {
+                // 尚未启动完成
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException(name + " did not become ready within " + timeout);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 网关压测：启动 mvc-demo 与 studio-demo，对代理路由、路径重写路由与编排接口施加开放模型负载，
+ * P99 或错误率超过阈值时构建失败
+ *
+ * mvn -B verify -Pload-test -Dloadtest.duration=PT10M -Dloadtest.concurrency=10
+ */
+class GatewayLoadIT {
+
+    private static LoadTestSettings settings;
+    private static HttpClient client;
+    private static AppProcess mvcDemo;
+    private static AppProcess studioDemo;
+
+    @BeforeAll
+    static void startApplications() throws Exception {
+        settings = LoadTestSettings.fromSystemProperties();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        mvcDemo = AppProcess.start("mvc-demo", settings.mvcDemoJar(), settings.logDir());
+        mvcDemo.awaitReady(client, "/mvc/demo/hello", Duration.ofSeconds(60));
+
+        List<String> args = new ArrayList<>(settings.studioDemoArgs());
+        args.add("--downstream.mvc-demo.url=" + mvcDemo.baseUrl());
+        studioDemo = AppProcess.start("studio-demo", settings.studioDemoJar(), settings.logDir(),
+                args.toArray(String[]::new));
+        // readiness 在启动预热结束后才变为 UP
+        studioDemo.awaitReady(client, "/actuator/health/readiness", Duration.ofSeconds(120));
+    }
+
+    @AfterAll
+    static void stopApplications() throws Exception {
+        if (studioDemo != null) {
+            studioDemo.close();
+        }
+        if (mvcDemo != null) {
+            mvcDemo.close();
+        }
+    }
+
+    @Test
+    void meetsLatencyAndErrorBudget() throws Exception {
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(client, targets(), settings.concurrency());
+
+        System.out.printf("Warming up for %s at %d req/s%n", settings.warmup(), settings.rate());
+        generator.run(settings.rate(), settings.warmup());
+
+        System.out.printf("Running for %s at %d req/s with %d clients %s%n",
+                settings.duration(), settings.rate(), settings.concurrency(), settings.studioDemoArgs());
+        List<OpenModelLoadGenerator.TargetResult> results = generator.run(settings.rate(), settings.duration());
+
+        Histogram total = new Histogram(3);
+        long requests = 0;
+        long errors = 0;
+        System.out.printf("%n%-28s %9s %7s %9s %9s %9s %9s%n", "target", "requests", "errors", "p50(ms)", "p99(ms)",
+                "p99.9(ms)", "max(ms)");
+        for (OpenModelLoadGenerator.TargetResult result : results) {
+            print(result.target().name(), result.requests(), result.errors(), result.latency());
+            total.add(result.latency());
+            requests += result.requests();
+            errors += result.errors();
+        }
+        print("TOTAL", requests, errors, total);
+
+        double p99Millis = total.getValueAtPercentile(99) / 1_000_000.0;
+        double thresholdMillis = settings.p99Threshold().toNanos() / 1_000_000.0;
+        double errorRate = requests == 0 ? 1 : (double) errors / requests;
+        long finalRequests = requests;
+        assertAll(
+                () -> assertTrue(finalRequests > 0, "no requests were sent"),
+                () -> assertTrue(p99Millis < thresholdMillis,
+                        String.format("p99 %.3fms exceeds threshold %.3fms", p99Millis, thresholdMillis)),
+                () -> assertTrue(errorRate <= settings.maxErrorRate(),
+                        String.format("error rate %.4f%% exceeds %.4f%%", errorRate * 100, settings.maxErrorRate() * 100)));
+    }
+
+    private static List<OpenModelLoadGenerator.Target> targets() {
+        String gateway = studioDemo.baseUrl();
+        Predicate<String> original = body -> body.contains("\"code\":\"200\"");
+        Predicate<String> rewritten = body -> body.contains("\"code_t\":\"200\"");
+        // 编排分支降级（partial）同样计为错误
+        Predicate<String> complete = body -> body.contains("\"code\":\"200\"") && !body.contains("\"partial\"");
+        // {n} 为请求序号：名字与查询参数逐个请求变化，不命中路由响应缓存、编排结果缓存与聚合缓存，压测的是转发、重写与编排本身；
+        // /call/hello 的步骤缓存只有一个固定键，无法绕过，单独标注
+        return List.of(
+                target("proxy /mvc/demo/hello", gateway + "/mvc/demo/hello?n={n}", original),
+                target("proxy /mvc/demo/hello/{name}", gateway + "/mvc/demo/hello/load-{n}", original),
+                target("rewrite /api/v1/demo/hello", gateway + "/api/v1/demo/hello?n={n}", rewritten),
+                target("rewrite /api/v1/.../{name}", gateway + "/api/v1/demo/hello/load-{n}", rewritten),
+                target("orch /call/hello (cached)", gateway + "/orchestration/call/hello", complete),
+                target("orch /call/hello/{name}", gateway + "/orchestration/call/hello/load-{n}", complete),
+                target("orch /aggregate/{name}", gateway + "/orchestration/aggregate/load-{n}", complete));
+    }
+
+    private static OpenModelLoadGenerator.Target target(String name, String uri, Predicate<String> check) {
+        return new OpenModelLoadGenerator.Target(name, uri, check);
+    }
+
+    private static void print(String name, long requests, long errors, Histogram latency) {
+        System.out.printf("%-28s %9d %7d %9.3f %9.3f %9.3f %9.3f%n", name, requests, errors,
+                latency.getValueAtPercentile(50) / 1_000_000.0,
+                latency.getValueAtPercentile(99) / 1_000_000.0,
+                latency.getValueAtPercentile(99.9) / 1_000_000.0,
+                latency.getMaxValue() / 1_000_000.0);
+    }
+}
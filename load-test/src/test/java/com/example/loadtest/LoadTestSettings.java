@@ -0,0 +1,55 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 压测参数，均来自系统属性（由 load-test/pom.xml 传入，可用 -D 覆盖）
+ *
+ * @param studioDemoFastStartupJar fast-startup 构建解压出的 jar，同目录下有 AppCDS 归档 application.jsa
+ * @param rate         目标到达速率（请求 / 秒），按开放模型匀速调度，与响应快慢无关
+ * @param concurrency  并发客户端数
+ * @param warmup       预热时长，不计入统计
+ * @param duration     正式压测时长
+ * @param p99Threshold P99 阈值
+ * @param maxErrorRate 允许的最大错误率
+ * @param studioDemoArgs 追加给网关的启动参数，如 --spring.profiles.active=virtual-threads
+ */
+record LoadTestSettings(Path mvcDemoJar, Path studioDemoJar, Path studioDemoFastStartupJar, Path logDir,
+                        int rate, int concurrency, Duration warmup, Duration duration, Duration p99Threshold,
+                        double maxErrorRate, List<String> studioDemoArgs) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Path.of(required("loadtest.mvc-demo-jar")),
+                Path.of(required("loadtest.studio-demo-jar")),
+                Path.of(required("loadtest.studio-demo-fast-startup-jar")),
+                Path.of(System.getProperty("loadtest.log-dir", "target")),
+                Integer.getInteger("loadtest.rate", 500),
+                Integer.getInteger("loadtest.concurrency", 10),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                parseMillis(System.getProperty("loadtest.p99-threshold", "20ms")),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0")),
+                arguments(System.getProperty("loadtest.studio-demo-args", "")));
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            throw new IllegalStateException("Missing system property " + name);
+        }
+        return value;
+    }
+
+    private static List<String> arguments(String value) {
+        return value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+    }
+
+    private static Duration parseMillis(String value) {
+        String millis = value.toLowerCase(Locale.ROOT).replace("ms", "").trim();
+        return Duration.ofNanos((long) (Double.parseDouble(millis) * 1_000_000));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * 开放模型压测
+ * 请求按固定速率排期（第 i 个请求的计划发送时间 = 开始时间 + i * 间隔），由 concurrency 个客户端线程领取发送；
+ * 延迟从计划发送时间开始计算，客户端被慢响应拖住时的排队时间同样计入，即修正了协同遗漏（coordinated omission）
+ */
+final class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * 压测目标
+     *
+     * @param uri   目标地址，其中的 {n} 替换为请求序号，使每个请求的路径或查询参数不同，不命中网关缓存
+     * @param check 响应体校验，不通过计为错误
+     */
+    record Target(String name, String uri, Predicate<String> check) {
+
+        private static final String SEQUENCE = "{n}";
+
+        boolean varies() {
+            return uri.contains(SEQUENCE);
+        }
+
+        URI uri(long n) {
+            return URI.create(uri.replace(SEQUENCE, Long.toString(n)));
+        }
+    }
+
+    /**
+     * 单个目标的统计结果
+     */
+    record TargetResult(Target target, Histogram latency, long errors) {
+
+        long requests() {
+            return latency.getTotalCount();
+        }
+    }
+
+    private final HttpClient client;
+    private final List<Target> targets;
+    private final int concurrency;
+
+    OpenModelLoadGenerator(HttpClient client, List<Target> targets, int concurrency) {
+        this.client = client;
+        this.targets = List.copyOf(targets);
+        this.concurrency = concurrency;
+    }
+
+    List<TargetResult> run(int rate, Duration duration) throws Exception {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long startTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long endTime = startTime + duration.toNanos();
+        AtomicLong sequence = new AtomicLong();
+        // 每个目标一个 Recorder，各客户端线程无锁写入；直方图不随并发数复制，2000 个客户端时也不会占满堆
+        Recorder[] latencies = new Recorder[targets.size()];
+        LongAdder[] errors = new LongAdder[targets.size()];
+        HttpRequest[] requests = new HttpRequest[targets.size()];
+        for (int t = 0; t < targets.size(); t++) {
+            latencies[t] = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+            errors[t] = new LongAdder();
+            // 地址固定的目标复用同一个请求对象
+            requests[t] = targets.get(t).varies() ? null : request(targets.get(t).uri(0));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "load-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    while (true) {
+                        long n = sequence.getAndIncrement();
+                        long intendedTime = startTime + n * intervalNanos;
+                        if (intendedTime >= endTime) {
+                            return;
+                        }
+                        long wait;
+                        while ((wait = intendedTime - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+
+                        int t = (int) (n % targets.size());
+                        boolean ok;
+                        try {
+                            HttpRequest request = requests[t] != null ? requests[t] : request(targets.get(t).uri(n));
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            ok = response.statusCode() == 200 && targets.get(t).check().test(response.body());
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        latencies[t].recordValue(
+                                Math.min(System.nanoTime() - intendedTime, HIGHEST_TRACKABLE_NANOS));
+                        if (!ok) {
+                            errors[t].increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            List<TargetResult> results = new ArrayList<>();
+            for (int t = 0; t < targets.size(); t++) {
+                results.add(new TargetResult(targets.get(t), latencies[t].getIntervalHistogram(), errors[t].sum()));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static HttpRequest request(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).build();
+    }
+}
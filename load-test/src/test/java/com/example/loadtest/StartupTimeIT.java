@@ -0,0 +1,125 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 启动耗时：分别以普通 jar 与 fast-startup 构建（AOT + AppCDS + 预编译路由表）启动 studio-demo，
+ * 记录到 readiness 为 UP 的耗时（含启动预热）、Spring 报告的启动耗时、预热耗时与首个请求（路径重写 + 报文格式转换）的延迟，
+ * fast-startup 到可响应的耗时不低于普通 jar 时构建失败
+ *
+ * mvn -B verify -Pload-test,fast-startup -Dit.test=StartupTimeIT
+ */
+class StartupTimeIT {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+    private static final Pattern WARMED_UP = Pattern.compile("Warm-up finished in ([0-9]+)ms");
+
+    private static LoadTestSettings settings;
+    private static HttpClient client;
+    private static AppProcess mvcDemo;
+
+    @BeforeAll
+    static void startDownstream() throws Exception {
+        settings = LoadTestSettings.fromSystemProperties();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        mvcDemo = AppProcess.start("mvc-demo", settings.mvcDemoJar(), settings.logDir());
+        mvcDemo.awaitReady(client, "/mvc/demo/hello", Duration.ofSeconds(60));
+    }
+
+    @AfterAll
+    static void stopDownstream() throws Exception {
+        if (mvcDemo != null) {
+            mvcDemo.close();
+        }
+    }
+
+    @Test
+    void fastStartupBuildStartsFaster() throws Exception {
+        assumeTrue(Files.isRegularFile(settings.studioDemoFastStartupJar()),
+                "fast-startup build not found (run with -Pload-test,fast-startup verify)");
+
+        Startup standard = measure("studio-demo-standard", settings.studioDemoJar(), List.of());
+        Startup fast = measure("studio-demo-fast-startup", settings.studioDemoFastStartupJar(),
+                List.of("-XX:SharedArchiveFile=application.jsa", "-Xlog:cds=off", "-Dspring.aot.enabled=true"));
+
+        System.out.printf("%n%-26s %12s %12s %12s %16s%n", "build", "ready(ms)", "started(ms)", "warm-up(ms)",
+                "first req(ms)");
+        print("standard", standard);
+        print("fast-startup", fast);
+
+        assertAll(
+                () -> assertEquals(200, standard.firstStatus(), "standard first request failed"),
+                () -> assertEquals(200, fast.firstStatus(), "fast-startup first request failed"),
+                () -> assertTrue(fast.ready().compareTo(standard.ready()) < 0,
+                        String.format("fast-startup ready in %dms, standard in %dms",
+                                fast.ready().toMillis(), standard.ready().toMillis())));
+    }
+
+    private static Startup measure(String name, Path jar, List<String> jvmOptions) throws Exception {
+        try (AppProcess studioDemo = AppProcess.start(name, jar, settings.logDir(), jvmOptions,
+                "--downstream.mvc-demo.url=" + mvcDemo.baseUrl())) {
+            Duration ready = studioDemo.awaitReady(client, "/actuator/health/readiness", Duration.ofSeconds(180));
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(studioDemo.baseUrl() + "/api/v1/demo/hello/startup"))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+            long start = System.nanoTime();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            Duration firstRequest = Duration.ofNanos(System.nanoTime() - start);
+
+            String log = Files.readString(settings.logDir().resolve(name + ".log"));
+            return new Startup(ready, seconds(STARTED, log), millis(WARMED_UP, log), firstRequest, status);
+        }
+    }
+
+    private static Duration seconds(Pattern pattern, String log) {
+        Matcher matcher = pattern.matcher(log);
+        return matcher.find() ? Duration.ofMillis((long) (Double.parseDouble(matcher.group(1)) * 1000)) : null;
+    }
+
+    private static Duration millis(Pattern pattern, String log) {
+        Matcher matcher = pattern.matcher(log);
+        return matcher.find() ? Duration.ofMillis(Long.parseLong(matcher.group(1))) : null;
+    }
+
+    private static void print(String name, Startup startup) {
+        System.out.printf("%-26s %12d %12s %12s %16.3f%n", name, startup.ready().toMillis(),
+                format(startup.reported()), format(startup.warmUp()), startup.firstRequest().toNanos() / 1_000_000.0);
+    }
+
+    private static String format(Duration duration) {
+        return duration == null ? "-" : String.valueOf(duration.toMillis());
+    }
+
+    /**
+     * @param ready        启动进程到 readiness 为 UP 的耗时
+     * @param reported     日志 "Started ... in X seconds" 报告的上下文启动耗时，不含 JVM 启动
+     * @param warmUp       日志报告的启动预热耗时，未开启预热时为 null
+     * @param firstRequest 就绪后首个业务请求的延迟
+     */
+    private record Startup(Duration ready, Duration reported, Duration warmUp, Duration firstRequest,
+                           int firstStatus) {
+    }
+}
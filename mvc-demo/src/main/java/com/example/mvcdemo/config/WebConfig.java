@@ -0,0 +1,30 @@
+package com.example.mvcdemo.config;
+
+import com.example.mvcdemo.controller.DemoController;
+import com.example.mvcdemo.converter.ApiResponseHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Web MVC 配置
+ * ApiResponse 快速序列化排在 Jackson 之前（只处理 JSON）；
+ * Smile / CBOR 转换器在类路径存在对应 Jackson 模块时由 Spring MVC 默认注册，按 Accept 协商
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ApiResponseHttpMessageConverter(objectMapper, DemoController.HELLO_DATA));
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.mvcdemo.controller;
 
 import com.example.mvcdemo.model.ApiResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Demo REST Controller
@@ -13,12 +20,22 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/mvc/demo")
 public class DemoController {
 
+    /**
+     * 单次批量请求的最大名字数
+     */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * /hello 的固定返回值，响应体由 ApiResponseHttpMessageConverter 预先编码
+     */
+    public static final String HELLO_DATA = "yy";
+
     /**
      * GET /mvc/demo/hello -> 返回 "yy"
      */
     @GetMapping("/hello")
     public ApiResponse<String> hello() {
-        return ApiResponse.success("yy");
+        return ApiResponse.success(HELLO_DATA);
     }
 
     /**
@@ -28,4 +45,20 @@ public class DemoController {
     public ApiResponse<String> helloName(@PathVariable String name) {
         return ApiResponse.success(name);
     }
+
+    /**
+     * POST /mvc/demo/hello/batch -> 按请求顺序返回每个 name 的结果，与逐个调用 /hello/{name} 一致
+     */
+    @PostMapping("/hello/batch")
+    public List<ApiResponse<String>> helloBatch(@RequestBody List<String> names) {
+        if (names.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch size " + names.size() + " exceeds " + MAX_BATCH_SIZE);
+        }
+        List<ApiResponse<String>> responses = new ArrayList<>(names.size());
+        for (String name : names) {
+            responses.add(helloName(name));
+        }
+        return responses;
+    }
 }
@@ -0,0 +1,162 @@
+package com.example.mvcdemo.converter;
+
+import com.example.mvcdemo.model.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ApiResponse 快速序列化
+ * 信封由预先编码的字节片段直接拼出，不经过 Jackson 的反射序列化；构造时登记的常量响应（如 /hello）预先整体编码，
+ * 其余响应按次拼接，不缓存随请求变化的 data。输出与 Jackson 默认配置逐字节一致
+ * （辅助平面字符除外：这里输出标准 4 字节 UTF-8，Jackson 默认按代理对分别编码），data 为其他类型时交给 ObjectMapper
+ */
+public class ApiResponseHttpMessageConverter extends AbstractHttpMessageConverter<ApiResponse<?>> {
+
+    /**
+     * 预编码的 code / msg 数量上限，二者通常只有少数几种取值
+     */
+    static final int MAX_INTERNED_STRINGS = 64;
+
+    private static final byte[] CODE = ascii("{\"code\":");
+    private static final byte[] MSG = ascii(",\"msg\":");
+    private static final byte[] DATA = ascii(",\"data\":");
+    private static final byte[] END = ascii("}");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] SUCCESS_PREFIX = ascii("{\"code\":\"200\",\"msg\":\"success\",\"data\":");
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, byte[]> constantBodies;
+    private final Map<String, byte[]> internedStrings = new ConcurrentHashMap<>();
+
+    /**
+     * @param constantData 常量成功响应的 data，对应响应体在构造时编码
+     */
+    public ApiResponseHttpMessageConverter(ObjectMapper objectMapper, String... constantData) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        Map<String, byte[]> bodies = new HashMap<>();
+        for (String data : constantData) {
+            bodies.put(data, concat(SUCCESS_PREFIX, string(data), END));
+        }
+        this.constantBodies = Map.copyOf(bodies);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ApiResponse<?> readInternal(Class<? extends ApiResponse<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("ApiResponse is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ApiResponse<?> response, HttpOutputMessage outputMessage) throws IOException {
+        Object data = response.getData();
+        if (data != null && !(data instanceof String)) {
+            objectMapper.writeValue(outputMessage.getBody(), response);
+            return;
+        }
+        outputMessage.getBody().write(encode(response.getCode(), response.getMsg(), (String) data));
+    }
+
+    /**
+     * 编码 data 为字符串或 null 的响应
+     */
+    byte[] encode(String code, String msg, String data) {
+        if (data != null && "200".equals(code) && "success".equals(msg)) {
+            byte[] body = constantBodies.get(data);
+            return body != null ? body : concat(SUCCESS_PREFIX, string(data), END);
+        }
+        return concat(CODE, interned(code), MSG, interned(msg), DATA, data != null ? string(data) : NULL, END);
+    }
+
+    private byte[] interned(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] encoded = internedStrings.get(value);
+        if (encoded == null) {
+            encoded = string(value);
+            if (internedStrings.size() < MAX_INTERNED_STRINGS) {
+                internedStrings.putIfAbsent(value, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * JSON 字符串（含引号），转义规则与 Jackson 默认一致：引号、反斜杠与控制字符转义，非 ASCII 字符按 UTF-8 原样输出
+     */
+    static byte[] string(String value) {
+        if (!needsEscape(value)) {
+            return ("\"" + value + "\"").getBytes(StandardCharsets.UTF_8);
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 8).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\b' -> sb.append("\\b");
+                case '\f' -> sb.append("\\f");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean needsEscape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] result = new byte[length];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.mvcdemo.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Server-Timing 过滤器
+ * 网关转发的请求带有 traceparent：trace id 放入 MDC（traceId），日志可与网关的追踪日志关联；
+ * traceparent 带 sampled 标记时，在写出响应体之前添加 Server-Timing: app;dur=处理耗时（毫秒），
+ * 网关据此区分网络与 mvc-demo 自身的耗时
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String TRACEPARENT = "traceparent";
+    static final String SERVER_TIMING = "Server-Timing";
+    static final String TRACE_ID = "traceId";
+
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceparent = request.getHeader(TRACEPARENT);
+        if (traceparent == null || traceparent.length() != TRACEPARENT_LENGTH) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        MDC.put(TRACE_ID, traceparent.substring(3, 35));
+        try {
+            if ((Character.digit(traceparent.charAt(54), 16) & 0x01) == 0) {
+                chain.doFilter(request, response);
+                return;
+            }
+            TimingResponse timingResponse = new TimingResponse(response, System.nanoTime());
+            chain.doFilter(request, timingResponse);
+            // 没有响应体的响应
+            timingResponse.addServerTiming();
+        } finally {
+            MDC.remove(TRACE_ID);
+        }
+    }
+
+    /**
+     * 第一次获取输出流时（响应头写出之前）添加 Server-Timing
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final long startNanos;
+        private boolean added;
+
+        TimingResponse(HttpServletResponse response, long startNanos) {
+            super(response);
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        void addServerTiming() {
+            if (added || isCommitted()) {
+                return;
+            }
+            added = true;
+            long micros = (System.nanoTime() - startNanos) / 1000;
+            addHeader(SERVER_TIMING, String.format("app;dur=%d.%03d", micros / 1000, micros % 1000));
+        }
+    }
+}
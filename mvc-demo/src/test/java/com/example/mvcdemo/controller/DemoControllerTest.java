@@ -1,5 +1,9 @@
 package com.example.mvcdemo.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -7,7 +11,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -45,4 +53,48 @@ class DemoControllerTest {
                 .andExpect(jsonPath("$.code").value("200"))
                 .andExpect(jsonPath("$.data").value("张三"));
     }
+
+    @Test
+    void testHelloBatch() throws Exception {
+        mockMvc.perform(post("/mvc/demo/hello/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"tom\",\"张三\",\"tom\"]")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].data").value("tom"))
+                .andExpect(jsonPath("$[1].code").value("200"))
+                .andExpect(jsonPath("$[1].data").value("张三"))
+                .andExpect(jsonPath("$[2].data").value("tom"));
+    }
+
+    @Test
+    void testHelloWithNameAsSmile() throws Exception {
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+        byte[] body = mockMvc.perform(get("/mvc/demo/hello/张三")
+                .accept(smile, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode response = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertEquals("200", response.get("code").asText());
+        assertEquals("张三", response.get("data").asText());
+    }
+
+    @Test
+    void testHelloBatchAsCbor() throws Exception {
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+        byte[] body = mockMvc.perform(post("/mvc/demo/hello/batch")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .content(cbor.writeValueAsBytes(List.of("tom", "jerry")))
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode responses = cbor.readTree(body);
+        assertEquals(2, responses.size());
+        assertEquals("jerry", responses.get(1).get("data").asText());
+    }
 }
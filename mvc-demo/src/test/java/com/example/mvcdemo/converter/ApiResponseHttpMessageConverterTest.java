@@ -0,0 +1,61 @@
+package com.example.mvcdemo.converter;
+
+import com.example.mvcdemo.model.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ApiResponseHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ApiResponseHttpMessageConverter converter = new ApiResponseHttpMessageConverter(objectMapper, "yy");
+
+    @Test
+    void matchesJacksonOutput() throws Exception {
+        List<ApiResponse<?>> responses = List.of(
+                ApiResponse.success("yy"),
+                ApiResponse.success("张三"),
+                ApiResponse.success("a\"b\\c/d\n\t\u0001\u001f"),
+                ApiResponse.success("partial", "tom"),
+                ApiResponse.error("500", "internal error"),
+                new ApiResponse<>(null, null, null),
+                ApiResponse.success(Map.of("hello", "yy")),
+                ApiResponse.success(42));
+
+        for (ApiResponse<?> response : responses) {
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+            converter.write(response, MediaType.APPLICATION_JSON, output);
+            assertArrayEquals(objectMapper.writeValueAsBytes(response), output.getBodyAsBytes(),
+                    () -> "unexpected body for data " + response.getData());
+        }
+    }
+
+    @Test
+    void writesSupplementaryCharactersAsStandardUtf8() throws Exception {
+        ApiResponse<String> response = ApiResponse.success("tom😀");
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_JSON, output);
+
+        assertEquals("{\"code\":\"200\",\"msg\":\"success\",\"data\":\"tom😀\"}",
+                new String(output.getBodyAsBytes(), StandardCharsets.UTF_8));
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(response)),
+                objectMapper.readTree(output.getBodyAsBytes()));
+    }
+
+    @Test
+    void onlyConstantResponseBodiesAreCached() {
+        assertSame(converter.encode("200", "success", "yy"), converter.encode("200", "success", "yy"));
+        assertNotSame(converter.encode("200", "success", "tom"), converter.encode("200", "success", "tom"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.mvcdemo.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServerTimingFilterTest {
+
+    private static final String SAMPLED = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+    private static final String NOT_SAMPLED = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void reportsProcessingTimeForSampledRequests() throws Exception {
+        mockMvc.perform(get("/mvc/demo/hello/tom").header(ServerTimingFilter.TRACEPARENT, SAMPLED))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING, matchesPattern("app;dur=\\d+\\.\\d{3}")));
+    }
+
+    @Test
+    void omitsServerTimingOtherwise() throws Exception {
+        mockMvc.perform(get("/mvc/demo/hello/tom").header(ServerTimingFilter.TRACEPARENT, NOT_SAMPLED))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTimingFilter.SERVER_TIMING));
+        mockMvc.perform(get("/mvc/demo/hello/tom"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTimingFilter.SERVER_TIMING));
+    }
+}
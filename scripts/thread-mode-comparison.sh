@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# 平台线程 vs 虚拟线程 对比压测
+# 复用 load-test 模块的 GatewayLoadIT（开放模型、修正协同遗漏），每种模式、每个并发数各启动一次两个应用
+# 依赖：JDK 21+（同一个 JDK 用于构建与启动应用）
+# 用法：RATE=50 DURATION=PT60S ./scripts/thread-mode-comparison.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RATE=${RATE:-500}
+WARMUP=${WARMUP:-PT15S}
+DURATION=${DURATION:-PT30S}
+CONCURRENCY_LEVELS=${CONCURRENCY_LEVELS:-"10 200 2000"}
+
+java -version 2>&1 | grep -q 'version "2[1-9]' || { echo "JDK 21+ is required for virtual threads"; exit 1; }
+
+mvn -q -B install -DskipTests
+
+printf "%-16s %6s %9s %7s %9s %9s %9s %9s\n" "mode" "conc" "requests" "errors" "p50(ms)" "p99(ms)" \
+    "p99.9(ms)" "max(ms)"
+for mode in platform virtual-threads; do
+    studio_args=""
+    [ "$mode" = "virtual-threads" ] && studio_args="--spring.profiles.active=virtual-threads"
+
+    for c in $CONCURRENCY_LEVELS; do
+        # 只做对比，不按验收阈值判定失败
+        out=$(mvn -B verify -Pload-test -pl load-test -Dit.test=GatewayLoadIT \
+            -Dloadtest.rate="$RATE" -Dloadtest.concurrency="$c" \
+            -Dloadtest.warmup="$WARMUP" -Dloadtest.duration="$DURATION" \
+            -Dloadtest.p99-threshold=60000ms -Dloadtest.max-error-rate=1 \
+            -Dloadtest.studio-demo-args="$studio_args" 2>&1) || { echo "$out" | tail -40; exit 1; }
+        read -r _ requests errors p50 p99 p999 max <<<"$(echo "$out" | awk '$1 == "TOTAL"')"
+        printf "%-16s %6s %9s %7s %9s %9s %9s %9s\n" "$mode" "$c" "$requests" "$errors" "$p50" "$p99" "$p999" "$max"
+    done
+done
@@ -0,0 +1,36 @@
+package com.example.studiodemo.accesslog;
+
+import java.util.Arrays;
+
+/**
+ * 访问日志记录槽位
+ * 环形缓冲区预先分配，请求线程只写入字段引用与数值，格式化由后台线程完成
+ */
+final class AccessLogRecord {
+
+    /**
+     * 已发布的序号，-1 表示尚未写入；消费者据此判断槽位是否可读
+     */
+    volatile long sequence = -1;
+
+    long timestampMillis;
+    String routeId;
+    String method;
+    String path;
+    int status;
+    long durationNanos;
+    String error;
+    final String[] headerValues;
+
+    AccessLogRecord(int headerCount) {
+        this.headerValues = new String[headerCount];
+    }
+
+    void clear() {
+        routeId = null;
+        method = null;
+        path = null;
+        error = null;
+        Arrays.fill(headerValues, null);
+    }
+}
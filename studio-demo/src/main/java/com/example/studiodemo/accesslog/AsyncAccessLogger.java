@@ -0,0 +1,197 @@
+package com.example.studiodemo.accesslog;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步访问日志
+ * 请求线程将定长记录写入预分配的环形缓冲区（多生产者、单消费者），由后台线程格式化并输出；
+ * 缓冲区满时直接丢弃并计数，日志永远不会阻塞代理路径。
+ * 后台线程空闲时 park，只有在它已 park 时请求线程才 unpark 唤醒它，繁忙时不产生额外的系统调用
+ */
+public class AsyncAccessLogger implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncAccessLogger.class);
+    private static final Logger accessLog = LoggerFactory.getLogger("gateway.access");
+
+    private final AccessLogRecord[] slots;
+    private final int mask;
+    private final String[] headerNames;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean parked;
+    private volatile Thread writerThread;
+
+    public AsyncAccessLogger(GatewayProperties.AccessLogDefinition definition) {
+        int capacity = Integer.highestOneBit(Math.max(2, definition.getBufferSize() - 1)) << 1;
+        List<String> headers = definition.getHeaders();
+        this.headerNames = headers.toArray(new String[0]);
+        this.slots = new AccessLogRecord[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AccessLogRecord(headerNames.length);
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 写入一条访问日志，缓冲区满时丢弃
+     *
+     * @return 是否写入成功
+     */
+    public boolean log(String routeId, HttpServletRequest request, int status, long durationNanos, String error) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        AccessLogRecord record = slots[(int) (sequence & mask)];
+        record.timestampMillis = System.currentTimeMillis();
+        record.routeId = routeId;
+        record.method = request.getMethod();
+        record.path = request.getRequestURI();
+        record.status = status;
+        record.durationNanos = durationNanos;
+        record.error = error;
+        for (int i = 0; i < headerNames.length; i++) {
+            record.headerValues[i] = request.getHeader(headerNames[i]);
+        }
+        record.sequence = sequence;
+        // 先发布 sequence 再读 parked，与后台线程先写 parked 再检查 sequence 配对，不会漏掉唤醒
+        if (parked) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.access-log.dropped", this, AsyncAccessLogger::getDropped)
+                .description("Access log records dropped because the ring buffer was full")
+                .register(registry);
+        FunctionCounter.builder("gateway.access-log.written", this, AsyncAccessLogger::getWritten)
+                .register(registry);
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(256);
+        while (running || head < tail.get()) {
+            if (!drain(line)) {
+                parked = true;
+                if (running && slots[(int) (head & mask)].sequence != head) {
+                    LockSupport.park(this);
+                }
+                parked = false;
+            }
+        }
+    }
+
+    private boolean drain(StringBuilder line) {
+        boolean drained = false;
+        long next = head;
+        AccessLogRecord record = slots[(int) (next & mask)];
+        while (record.sequence == next) {
+            try {
+                write(record, line);
+            } catch (Exception e) {
+                log.warn("Failed to write access log: {}", e.getMessage());
+            }
+            record.clear();
+            head = ++next;
+            written.increment();
+            drained = true;
+            record = slots[(int) (next & mask)];
+        }
+        return drained;
+    }
+
+    private void write(AccessLogRecord record, StringBuilder line) {
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(record.timestampMillis))
+                .append(" [").append(record.routeId).append("] ")
+                .append(record.method).append(' ')
+                .append(record.path).append(' ')
+                .append(record.status).append(' ');
+        appendMillis(line, record.durationNanos);
+        for (int i = 0; i < headerNames.length; i++) {
+            if (record.headerValues[i] != null) {
+                line.append(' ').append(headerNames[i]).append("=\"").append(record.headerValues[i]).append('"');
+            }
+        }
+        if (record.error != null) {
+            line.append(" error=\"").append(record.error).append('"');
+            accessLog.warn(line.toString());
+        } else {
+            accessLog.info(line.toString());
+        }
+    }
+
+    private static void appendMillis(StringBuilder line, long nanos) {
+        long micros = nanos / 1_000;
+        line.append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            line.append('0');
+        }
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction).append("ms");
+    }
+}
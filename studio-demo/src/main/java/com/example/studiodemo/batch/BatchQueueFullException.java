@@ -0,0 +1,13 @@
+package com.example.studiodemo.batch;
+
+/**
+ * 微批等待队列已满，调用被拒绝
+ * 不记录堆栈，过载时快速失败的开销很小；编排步骤按失败处理，使用降级值
+ */
+public class BatchQueueFullException extends RuntimeException {
+
+    public BatchQueueFullException(String name, int maxPending) {
+        super("Batcher " + name + " rejected the call: " + maxPending + " calls are already waiting",
+                null, false, false);
+    }
+}
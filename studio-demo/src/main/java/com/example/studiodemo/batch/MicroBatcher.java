@@ -0,0 +1,128 @@
+package com.example.studiodemo.batch;
+
+import com.example.studiodemo.config.OrchestrationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * 微批处理器
+ * 将并发的单键查询在 max-wait 时间窗内或攒满 max-size 个后合并为一次批量调用，再按键把结果分发给各调用方；
+ * 同一批内重复的键只查询一次。最多 max-concurrency 个批次同时在途，其余调用在有界队列中等待，
+ * 超过 max-pending 时立即以 BatchQueueFullException 失败；已取消（如步骤超时）的调用在发出批次前剔除。
+ * 持有者关闭时调用 dispose 停止处理
+ */
+public final class MicroBatcher<K, V> implements Disposable {
+
+    private final String name;
+    private final int maxPending;
+    private final Function<List<K>, Mono<List<V>>> batchCall;
+    private final DistributionSummary batchSize;
+    private final Counter rejected;
+    private final Sinks.Many<Pending<K, V>> sink;
+    private final Disposable subscription;
+
+    /**
+     * batchCall 按传入键的顺序返回结果
+     */
+    public MicroBatcher(String name, OrchestrationProperties.BatchDefinition definition,
+            Function<List<K>, Mono<List<V>>> batchCall, MeterRegistry registry) {
+        this.name = name;
+        this.maxPending = definition.getMaxPending();
+        this.batchCall = batchCall;
+        this.batchSize = DistributionSummary.builder("gateway.orchestration.batch.size")
+                .description("Distinct keys per batch call")
+                .tag("name", name)
+                .register(registry);
+        this.rejected = Counter.builder("gateway.orchestration.batch.rejected")
+                .description("Calls rejected because the batch queue was full")
+                .tag("name", name)
+                .register(registry);
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(maxPending));
+        this.subscription = sink.asFlux()
+                .bufferTimeout(definition.getMaxSize(), definition.getMaxWait(), true)
+                .flatMap(this::dispatch, definition.getMaxConcurrency())
+                .subscribe();
+    }
+
+    public Mono<V> get(K key) {
+        return Mono.create(result -> {
+            Pending<K, V> pending = new Pending<>(key, result);
+            result.onCancel(() -> pending.cancelled = true);
+            Sinks.EmitResult emitted;
+            // 多个线程同时写入时 Sinks 返回 FAIL_NON_SERIALIZED，另一线程只是在入队，重试即可
+            while ((emitted = sink.tryEmitNext(pending)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                Thread.onSpinWait();
+            }
+            if (emitted == Sinks.EmitResult.FAIL_OVERFLOW) {
+                rejected.increment();
+                result.error(new BatchQueueFullException(name, maxPending));
+            } else if (emitted.isFailure()) {
+                result.error(new IllegalStateException("Batcher " + name + " is not accepting calls: " + emitted));
+            }
+        });
+    }
+
+    @Override
+    public void dispose() {
+        subscription.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return subscription.isDisposed();
+    }
+
+    private Mono<Void> dispatch(List<Pending<K, V>> batch) {
+        Map<K, List<MonoSink<V>>> waiters = new LinkedHashMap<>();
+        for (Pending<K, V> pending : batch) {
+            if (!pending.cancelled) {
+                waiters.computeIfAbsent(pending.key, key -> new ArrayList<>(1)).add(pending.result);
+            }
+        }
+        if (waiters.isEmpty()) {
+            return Mono.empty();
+        }
+        List<K> keys = new ArrayList<>(waiters.keySet());
+        batchSize.record(keys.size());
+
+        return Mono.defer(() -> batchCall.apply(keys))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Batch call returned no results")))
+                .doOnNext(results -> {
+                    if (results.size() != keys.size()) {
+                        throw new IllegalStateException(
+                                "Batch call returned " + results.size() + " results for " + keys.size() + " keys");
+                    }
+                    for (int i = 0; i < keys.size(); i++) {
+                        V value = results.get(i);
+                        waiters.get(keys.get(i)).forEach(waiter -> waiter.success(value));
+                    }
+                })
+                .doOnError(e -> waiters.values().forEach(list -> list.forEach(waiter -> waiter.error(e))))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private static final class Pending<K, V> {
+
+        private final K key;
+        private final MonoSink<V> result;
+        private volatile boolean cancelled;
+
+        Pending(K key, MonoSink<V> result) {
+            this.key = key;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.studiodemo.bulkhead;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 信号量舱壁
+ * 最多 max-concurrent 个请求同时持有许可；许可用完时最多 max-queue 个请求在请求线程上等待（公平排队），
+ * 等待超过 max-wait 或排队数已满时拒绝。一条路由因此最多占用 max-concurrent + max-queue 个请求线程，
+ * 其余线程留给其他路由；虚拟线程模式下等待只挂起虚拟线程
+ */
+public class Bulkhead {
+
+    private final String scope;
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+    private final Timer waitTimer;
+
+    Bulkhead(String scope, String name, GatewayProperties.BulkheadDefinition definition,
+            Counter queueFullRejections, Counter timeoutRejections, Timer waitTimer) {
+        this.scope = scope;
+        this.name = name;
+        this.maxConcurrent = Math.max(1, definition.getMaxConcurrent());
+        this.maxQueue = Math.max(0, definition.getMaxQueue());
+        this.maxWaitNanos = definition.getMaxWait().toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.queueFullRejections = queueFullRejections;
+        this.timeoutRejections = timeoutRejections;
+        this.waitTimer = waitTimer;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    /**
+     * 正在处理的请求数
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * 正在排队的请求数
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * 申请许可，被拒绝时抛出 BulkheadFullException；成功后必须调用 release()
+     */
+    public void acquire() {
+        // 有空闲许可时直接获取（不经过排队），不记录等待时间
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            queueFullRejections.increment();
+            throw new BulkheadFullException(this, BulkheadFullException.Reason.QUEUE_FULL);
+        }
+        long startTime = System.nanoTime();
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queued.decrementAndGet();
+            waitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            timeoutRejections.increment();
+            throw new BulkheadFullException(this, BulkheadFullException.Reason.TIMEOUT);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.studiodemo.bulkhead;
+
+/**
+ * 舱壁已满，请求被拒绝
+ * 不记录堆栈，过载时快速拒绝的开销很小
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public enum Reason {
+        QUEUE_FULL("queue is full"),
+        TIMEOUT("timed out waiting for a permit");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+    }
+
+    private final Reason reason;
+
+    public BulkheadFullException(Bulkhead bulkhead, Reason reason) {
+        super(bulkhead.getScope() + " " + bulkhead.getName() + " bulkhead rejected the request: "
+                + reason.description, null, false, false);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.studiodemo.bulkhead;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 舱壁工厂
+ * 为路由与编排接口创建舱壁，并注册占用、排队、等待时间与拒绝次数指标；
+ * 单个舱壁可占满全部 Tomcat 工作线程时给出警告，此时它无法保护其他路由（虚拟线程模式下线程数不受限，不检查）
+ */
+@Component
+public class Bulkheads {
+
+    private static final Logger log = LoggerFactory.getLogger(Bulkheads.class);
+
+    private final MeterRegistry registry;
+    private final int workerThreads;
+
+    public Bulkheads(MeterRegistry registry, @Value("${server.tomcat.threads.max:200}") int workerThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.registry = registry;
+        this.workerThreads = virtualThreads ? Integer.MAX_VALUE : workerThreads;
+    }
+
+    /**
+     * 为路由创建舱壁过滤器，路由未配置 bulkhead 时返回 null
+     */
+    public RouteBulkheadFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        Bulkhead bulkhead = create("route", routeDef.getId(), routeDef.getBulkhead());
+        return bulkhead != null ? new RouteBulkheadFilter(bulkhead) : null;
+    }
+
+    /**
+     * 为编排接口创建舱壁，未配置时返回 null
+     */
+    public Bulkhead forEndpoint(String endpoint, GatewayProperties.BulkheadDefinition definition) {
+        return create("endpoint", endpoint, definition);
+    }
+
+    private Bulkhead create(String scope, String name, GatewayProperties.BulkheadDefinition definition) {
+        if (definition == null) {
+            return null;
+        }
+        Bulkhead bulkhead = new Bulkhead(scope, name, definition,
+                rejections(scope, name, "queue_full"), rejections(scope, name, "timeout"),
+                Timer.builder("gateway.bulkhead.wait")
+                        .description("Time spent queueing for a bulkhead permit")
+                        .tags("scope", scope, "name", name)
+                        .register(registry));
+
+        Gauge.builder("gateway.bulkhead.max-concurrent", bulkhead, Bulkhead::getMaxConcurrent)
+                .tags("scope", scope, "name", name)
+                .register(registry);
+        Gauge.builder("gateway.bulkhead.active", bulkhead, Bulkhead::getActive)
+                .description("Requests holding a bulkhead permit")
+                .tags("scope", scope, "name", name)
+                .register(registry);
+        Gauge.builder("gateway.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                .description("Requests waiting for a bulkhead permit")
+                .tags("scope", scope, "name", name)
+                .register(registry);
+
+        if (bulkhead.getMaxConcurrent() + bulkhead.getMaxQueue() >= workerThreads) {
+            log.warn("Bulkhead {} {} admits {} concurrent + {} queued requests, "
+                            + "which can occupy all {} worker threads",
+                    scope, name, bulkhead.getMaxConcurrent(), bulkhead.getMaxQueue(), workerThreads);
+        }
+        return bulkhead;
+    }
+
+    private Counter rejections(String scope, String name, String reason) {
+        return Counter.builder("gateway.bulkhead.rejected")
+                .tags("scope", scope, "name", name, "reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.studiodemo.bulkhead;
+
+import com.example.studiodemo.model.ApiResponse;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+
+/**
+ * 路由舱壁过滤器
+ * 申请许可后才继续处理，被拒绝时直接返回 503 ApiResponse；
+ * 响应体在 writeTo 中由请求线程从上游流拷贝（流式透传、压缩），许可在响应体写完后才归还，
+ * 内层处理出错时立即归还
+ */
+public class RouteBulkheadFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final Bulkhead bulkhead;
+
+    RouteBulkheadFilter(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        try {
+            bulkhead.acquire();
+        } catch (BulkheadFullException e) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ApiResponse.error("503", e.getMessage()));
+        }
+        ServerResponse response;
+        try {
+            response = next.handle(request);
+        } catch (Exception | Error e) {
+            bulkhead.release();
+            throw e;
+        }
+        return new PermitHoldingResponse(response, bulkhead);
+    }
+
+    /**
+     * 持有舱壁许可直到写出完成的响应，状态码与响应头直接委托，外层过滤器的修改同样生效
+     */
+    private static final class PermitHoldingResponse implements ServerResponse {
+
+        private final ServerResponse delegate;
+        private final Bulkhead bulkhead;
+        private boolean released;
+
+        PermitHoldingResponse(ServerResponse delegate, Bulkhead bulkhead) {
+            this.delegate = delegate;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public HttpStatusCode statusCode() {
+            return delegate.statusCode();
+        }
+
+        // Spring 6.2 中仍是抽象方法，必须实现；抑制弃用告警，保持构建无告警
+        @Override
+        @Deprecated
+        @SuppressWarnings("removal")
+        public int rawStatusCode() {
+            return delegate.statusCode().value();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return delegate.headers();
+        }
+
+        @Override
+        public MultiValueMap<String, Cookie> cookies() {
+            return delegate.cookies();
+        }
+
+        @Override
+        public ModelAndView writeTo(HttpServletRequest request, HttpServletResponse response, Context context)
+                throws ServletException, IOException {
+            try {
+                return delegate.writeTo(request, response, context);
+            } finally {
+                if (!released) {
+                    released = true;
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+}
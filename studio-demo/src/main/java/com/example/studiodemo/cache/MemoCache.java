@@ -0,0 +1,94 @@
+package com.example.studiodemo.cache;
+
+import com.example.studiodemo.config.OrchestrationProperties;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 编排结果缓存
+ * 缓存已解码的对象，命中时既不访问下游也不做 JSON 解析；同一个键的并发请求共享一次加载。
+ * 写入超过 refresh-after 后的首次访问立即返回旧值并在后台刷新，刷新失败或结果不可缓存时保留旧值；
+ * 超过 ttl 未刷新的条目过期，条目数量不超过 max-entries
+ */
+public final class MemoCache<K, V> {
+
+    private final AsyncLoadingCache<K, V> cache;
+    private final Function<K, Mono<V>> loader;
+    private final Predicate<V> cacheable;
+
+    private MemoCache(AsyncLoadingCache<K, V> cache, Function<K, Mono<V>> loader, Predicate<V> cacheable) {
+        this.cache = cache;
+        this.loader = loader;
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * 创建缓存，cacheable 为 false 的结果（如降级结果）返回给本次请求但不保存
+     */
+    public static <K, V> MemoCache<K, V> create(String name, OrchestrationProperties.MemoDefinition definition,
+            Function<K, Mono<V>> loader, Predicate<V> cacheable, MeterRegistry registry) {
+        return create(name, definition, loader, cacheable, registry, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    static <K, V> MemoCache<K, V> create(String name, OrchestrationProperties.MemoDefinition definition,
+            Function<K, Mono<V>> loader, Predicate<V> cacheable, MeterRegistry registry, Ticker ticker,
+            Executor executor) {
+        AsyncCacheLoader<K, V> cacheLoader = new AsyncCacheLoader<>() {
+            @Override
+            public CompletableFuture<? extends V> asyncLoad(K key, Executor executor) {
+                return loader.apply(key).toFuture();
+            }
+
+            @Override
+            public CompletableFuture<? extends V> asyncReload(K key, V oldValue, Executor executor) {
+                return loader.apply(key).toFuture()
+                        .thenApply(value -> value != null && cacheable.test(value) ? value : oldValue);
+            }
+        };
+        AsyncLoadingCache<K, V> cache = Caffeine.newBuilder()
+                .expireAfterWrite(definition.getTtl())
+                .refreshAfterWrite(definition.refreshAfter())
+                .maximumSize(definition.getMaxEntries())
+                .recordStats()
+                .ticker(ticker)
+                .executor(executor)
+                .buildAsync(cacheLoader);
+        CaffeineCacheMetrics.monitor(registry, cache, "gateway.orchestration.cache", "name", name);
+        return new MemoCache<>(cache, loader, cacheable);
+    }
+
+    /**
+     * 清空缓存，进行中的后台刷新结果被丢弃
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * 订阅时读取或加载；取消订阅（如步骤超时）不会取消共享的加载。
+     * 未命中时加载带上触发加载的订阅者的 Reactor Context（如追踪上下文），后台刷新不带
+     */
+    public Mono<V> get(K key) {
+        return Mono.deferContextual(context -> {
+            CompletableFuture<V> future = cache.get(key,
+                    (k, executor) -> loader.apply(k).contextWrite(context).toFuture());
+            return Mono.fromFuture(future, true)
+                    .doOnNext(value -> {
+                        if (!cacheable.test(value)) {
+                            cache.asMap().remove(key, future);
+                        }
+                    });
+        });
+    }
+}
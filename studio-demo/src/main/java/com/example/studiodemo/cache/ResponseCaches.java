@@ -0,0 +1,66 @@
+package com.example.studiodemo.cache;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.support.BufferedResponse;
+import com.example.studiodemo.support.RequestKey;
+import com.example.studiodemo.warmup.WarmUpFinishedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 路由响应缓存工厂
+ * 为配置了 cache 的路由创建独立的 Caffeine 缓存（W-TinyLFU 淘汰），并注册命中 / 未命中 / 淘汰指标
+ */
+@Component
+public class ResponseCaches {
+
+    private final MeterRegistry registry;
+    private final List<Cache<String, BufferedResponse>> caches = new CopyOnWriteArrayList<>();
+
+    public ResponseCaches(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 为路由创建缓存过滤器，路由未配置 cache 时返回 null
+     */
+    public RouteResponseCache forRoute(GatewayProperties.RouteDefinition routeDef) {
+        GatewayProperties.CacheDefinition definition = routeDef.getCache();
+        if (definition == null) {
+            return null;
+        }
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(definition.getTtl())
+                .recordStats();
+        if (definition.getMaxBytes() != null) {
+            builder.maximumWeight(definition.getMaxBytes().toBytes())
+                    .weigher((String key, BufferedResponse response) ->
+                            key.length() + response.size() + RouteResponseCache.ENTRY_OVERHEAD_BYTES);
+        } else {
+            builder.maximumSize(definition.getMaxEntries());
+        }
+        Cache<String, BufferedResponse> cache = builder.build();
+        // 与编排结果缓存（MemoCache）使用相同的标签键，Prometheus 要求同名指标的标签键一致
+        CaffeineCacheMetrics.monitor(registry, cache, "gateway.route.cache", "name", routeDef.getId());
+        caches.add(cache);
+        return new RouteResponseCache(cache, RequestKey.headers(definition.getKeyHeaders(), routeDef.isBinaryWireFormat()));
+    }
+
+    /**
+     * 替身上游预热结束后丢弃缓存的替身响应
+     */
+    @EventListener
+    public void onWarmUpFinished(WarmUpFinishedEvent event) {
+        if (event.stubbedUpstream()) {
+            caches.forEach(Cache::invalidateAll);
+        }
+    }
+}
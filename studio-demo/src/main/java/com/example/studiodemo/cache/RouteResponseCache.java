@@ -0,0 +1,81 @@
+package com.example.studiodemo.cache;
+
+import com.example.studiodemo.support.BufferedResponse;
+import com.example.studiodemo.support.RequestKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * 路由响应缓存过滤器
+ * 仅缓存 GET 的 200 响应，缓存键为 请求路径 + 查询参数 + 配置的请求头；
+ * 位于响应体重写之后，缓存的是重写后的字节，命中时不访问上游也不再重写
+ */
+public class RouteResponseCache implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    /**
+     * 单条缓存响应体的上限，超过时直接透传不缓存
+     */
+    static final int MAX_ENTRY_BYTES = 1024 * 1024;
+
+    static final String CACHE_HEADER = "X-Cache";
+
+    /**
+     * 按字节限制容量时，每条缓存在响应体之外估算的开销（响应头、对象头等）
+     */
+    static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<String, BufferedResponse> cache;
+    private final String[] keyHeaders;
+
+    RouteResponseCache(Cache<String, BufferedResponse> cache, String[] keyHeaders) {
+        this.cache = cache;
+        this.keyHeaders = keyHeaders;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        if (request.method() != HttpMethod.GET) {
+            return next.handle(request);
+        }
+
+        String key = RequestKey.of(request.servletRequest(), keyHeaders);
+        BufferedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            request.attributes().put(BufferedResponse.ATTRIBUTE, cached);
+            return cached.toServerResponse(CACHE_HEADER, "HIT");
+        }
+
+        ServerResponse response = next.handle(request);
+        if (response.statusCode().value() != 200 || !isStorable(response.headers())) {
+            return response;
+        }
+
+        BufferedResponse buffered = BufferedResponse.capture(request, response, MAX_ENTRY_BYTES);
+        if (buffered == null) {
+            return response;
+        }
+        cache.put(key, buffered);
+        request.attributes().put(BufferedResponse.ATTRIBUTE, buffered);
+        return buffered.toServerResponse(CACHE_HEADER, "MISS");
+    }
+
+    /**
+     * 上游声明 no-store / private 或设置了 Cookie 的响应不缓存
+     */
+    private static boolean isStorable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null
+                || !(cacheControl.contains(CacheControl.noStore().getHeaderValue())
+                || cacheControl.contains("private"));
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.example.studiodemo.coalesce;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.support.RequestKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 请求合并工厂
+ * 为配置了 coalesce 的路由创建合并过滤器并注册指标
+ */
+@Component
+public class RequestCoalescers {
+
+    private static final String METER_NAME = "gateway.route.coalesce";
+
+    private final MeterRegistry registry;
+
+    public RequestCoalescers(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 为路由创建合并过滤器，路由未配置 coalesce 时返回 null
+     */
+    public RouteRequestCoalescer forRoute(GatewayProperties.RouteDefinition routeDef) {
+        GatewayProperties.CoalesceDefinition definition = routeDef.getCoalesce();
+        if (definition == null) {
+            return null;
+        }
+        return new RouteRequestCoalescer(definition,
+                RequestKey.headers(definition.getKeyHeaders(), routeDef.isBinaryWireFormat()),
+                counter(routeDef, "leader"), counter(routeDef, "shared"), counter(routeDef, "fallback"));
+    }
+
+    private Counter counter(GatewayProperties.RouteDefinition routeDef, String result) {
+        return Counter.builder(METER_NAME)
+                .description("Coalesced upstream requests by result: leader (called upstream), "
+                        + "shared (reused the leader's response), fallback (called upstream independently)")
+                .tags("route", routeDef.getId(), "result", result)
+                .register(registry);
+    }
+}
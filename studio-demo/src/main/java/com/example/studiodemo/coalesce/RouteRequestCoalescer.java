@@ -0,0 +1,99 @@
+package com.example.studiodemo.coalesce;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.support.BufferedResponse;
+import com.example.studiodemo.support.RequestKey;
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 请求合并（single-flight）过滤器
+ * 相同的并发 GET（路径 + 查询参数 + 配置的请求头）只有第一个请求访问上游，其余请求等待并复用其响应副本；
+ * 等待超过 max-wait、首个请求失败或响应过大无法缓冲时，等待者各自独立访问上游
+ */
+public class RouteRequestCoalescer implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteRequestCoalescer.class);
+
+    /**
+     * 可共享的响应体上限，超过时等待者独立访问上游
+     */
+    static final int MAX_SHARED_BYTES = 1024 * 1024;
+
+    private final ConcurrentMap<String, CompletableFuture<BufferedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final String[] keyHeaders;
+    private final long maxWaitNanos;
+    private final Counter leaderCounter;
+    private final Counter sharedCounter;
+    private final Counter fallbackCounter;
+
+    RouteRequestCoalescer(GatewayProperties.CoalesceDefinition definition, String[] keyHeaders,
+            Counter leaderCounter, Counter sharedCounter, Counter fallbackCounter) {
+        this.keyHeaders = keyHeaders;
+        this.maxWaitNanos = definition.getMaxWait().toNanos();
+        this.leaderCounter = leaderCounter;
+        this.sharedCounter = sharedCounter;
+        this.fallbackCounter = fallbackCounter;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        if (request.method() != HttpMethod.GET) {
+            return next.handle(request);
+        }
+
+        String key = RequestKey.of(request.servletRequest(), keyHeaders);
+        CompletableFuture<BufferedResponse> call = new CompletableFuture<>();
+        CompletableFuture<BufferedResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing == null) {
+            return lead(request, next, key, call);
+        }
+
+        try {
+            BufferedResponse shared = existing.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            if (shared != null) {
+                sharedCounter.increment();
+                request.attributes().put(BufferedResponse.ATTRIBUTE, shared);
+                return shared.toServerResponse(null, null);
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            log.debug("Coalesced request {} falls back to an independent call: {}", key, e.toString());
+        }
+        fallbackCounter.increment();
+        return next.handle(request);
+    }
+
+    private ServerResponse lead(ServerRequest request, HandlerFunction<ServerResponse> next, String key,
+            CompletableFuture<BufferedResponse> call) throws Exception {
+        leaderCounter.increment();
+        try {
+            ServerResponse response = next.handle(request);
+            BufferedResponse buffered = BufferedResponse.capture(request, response, MAX_SHARED_BYTES);
+            // 响应过大时以 null 通知等待者独立请求
+            call.complete(buffered);
+            if (buffered == null) {
+                return response;
+            }
+            request.attributes().put(BufferedResponse.ATTRIBUTE, buffered);
+            return buffered.toServerResponse(null, null);
+        } catch (Exception e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+}
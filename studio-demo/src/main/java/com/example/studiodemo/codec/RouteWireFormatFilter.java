@@ -0,0 +1,63 @@
+package com.example.studiodemo.codec;
+
+import com.example.studiodemo.filter.JsonFieldRenamingInputStream;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * 二进制报文格式过滤器
+ * 向上游请求 Smile / CBOR；客户端明确接受该格式时原样透传，否则在写出时逐 token 转为 JSON。
+ * 位于响应体重写之外：配置了重写的路由由重写过滤器一并完成转码，这里只处理未被转码的响应
+ */
+public class RouteWireFormatFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final WireFormat wireFormat;
+    private final Counter passthrough;
+    private final Counter transcoded;
+
+    RouteWireFormatFilter(WireFormat wireFormat, Counter passthrough, Counter transcoded) {
+        this.wireFormat = wireFormat;
+        this.passthrough = passthrough;
+        this.transcoded = transcoded;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        boolean binaryClient = wireFormat.isAcceptedBy(request.headers().accept());
+        WireFormat responseFormat = binaryClient ? wireFormat : WireFormat.JSON;
+        (binaryClient ? passthrough : transcoded).increment();
+
+        // 先写入网关属性再复制请求，内层过滤器与转发共享同一属性表
+        MvcUtils.putAttribute(request, WireFormat.RESPONSE_FORMAT_ATTRIBUTE, responseFormat);
+        ServerRequest upstreamRequest = ServerRequest.from(request)
+                .headers(headers -> headers.setAccept(wireFormat.accept()))
+                .build();
+        ServerResponse response = next.handle(upstreamRequest);
+
+        InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+        if (body == null) {
+            return response;
+        }
+        HttpHeaders headers = response.headers();
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        WireFormat format = headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                ? null : WireFormat.of(headers.getContentType());
+        if (format == null || !format.isBinary() || format == responseFormat) {
+            return response;
+        }
+
+        MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                new JsonFieldRenamingInputStream(format.factory(), responseFormat.factory(), body, Map.of()));
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.setContentType(responseFormat.mediaType());
+        return response;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.studiodemo.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * 网关与 mvc-demo 之间的报文格式
+ * 三种格式共用 Jackson 的流式 token 模型，可逐 token 互相转换而不构建对象
+ */
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON, new JsonFactory()),
+    SMILE(new MediaType("application", "x-jackson-smile"), new SmileFactory()),
+    CBOR(MediaType.APPLICATION_CBOR, new CBORFactory());
+
+    /**
+     * 请求属性：写给客户端的响应格式，由 RouteWireFormatFilter 协商后写入
+     */
+    public static final String RESPONSE_FORMAT_ATTRIBUTE = WireFormat.class.getName() + ".responseFormat";
+
+    private static final MediaType JSON_FALLBACK = MediaType.parseMediaType("application/json;q=0.9");
+
+    private final MediaType mediaType;
+    private final JsonFactory factory;
+
+    WireFormat(MediaType mediaType, JsonFactory factory) {
+        this.mediaType = mediaType;
+        this.factory = factory;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public JsonFactory factory() {
+        return factory;
+    }
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+
+    /**
+     * 向上游请求该格式时的 Accept：优先该格式，上游不支持时退回 JSON
+     */
+    public List<MediaType> accept() {
+        if (!isBinary()) {
+            return List.of(mediaType);
+        }
+        return List.of(mediaType, JSON_FALLBACK);
+    }
+
+    /**
+     * 客户端是否明确接受该格式：子类型为通配符的媒体类型不算，避免给只认 JSON 的客户端返回二进制
+     */
+    public boolean isAcceptedBy(List<MediaType> accept) {
+        for (MediaType candidate : accept) {
+            if (!candidate.isWildcardSubtype() && candidate.includes(mediaType) && candidate.getQualityValue() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按响应的 Content-Type 识别格式；未声明时视为 JSON，无法识别时返回 null
+     */
+    public static WireFormat of(MediaType contentType) {
+        if (contentType == null) {
+            return JSON;
+        }
+        for (WireFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        String subtype = contentType.getSubtype();
+        return subtype != null && subtype.endsWith("+json") ? JSON : null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.studiodemo.codec;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * 报文格式过滤器工厂
+ * 路由配置了二进制 wire-format（smile / cbor）时创建，json 或未配置时返回 null
+ */
+@Component
+public class WireFormats {
+
+    static final String METER_NAME = "gateway.wire.responses";
+
+    private final MeterRegistry registry;
+
+    public WireFormats(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public RouteWireFormatFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        if (!routeDef.isBinaryWireFormat()) {
+            return null;
+        }
+        WireFormat wireFormat = routeDef.getWireFormat();
+        return new RouteWireFormatFilter(wireFormat,
+                counter(routeDef, wireFormat), counter(routeDef, WireFormat.JSON));
+    }
+
+    private Counter counter(GatewayProperties.RouteDefinition routeDef, WireFormat format) {
+        return Counter.builder(METER_NAME)
+                .description("Responses of binary wire format routes by the format written to the client")
+                .tags("route", routeDef.getId(), "format", format.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+    }
+}
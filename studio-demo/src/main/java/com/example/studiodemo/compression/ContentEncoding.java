@@ -0,0 +1,76 @@
+package com.example.studiodemo.compression;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * 网关支持的响应压缩编码
+ */
+public enum ContentEncoding {
+
+    GZIP("gzip", true),
+    DEFLATE("deflate", false);
+
+    private final String token;
+    private final boolean nowrap;
+
+    ContentEncoding(String token, boolean nowrap) {
+        this.token = token;
+        this.nowrap = nowrap;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * gzip 自行写出头尾，Deflater 只输出裸 deflate 数据；HTTP 的 deflate 为 zlib 格式
+     */
+    boolean nowrap() {
+        return nowrap;
+    }
+
+    /**
+     * 按 Accept-Encoding 协商编码：取 q 值较大者，相同时 gzip 优先；未列出的编码使用 * 的 q 值，q=0 表示拒绝。
+     * 客户端不接受任何支持的编码时返回 null
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String coding = (semicolon < 0 ? part : part.substring(0, semicolon)).trim();
+            double q = semicolon < 0 ? 1 : quality(part.substring(semicolon + 1));
+            if (coding.equalsIgnoreCase(GZIP.token)) {
+                gzip = q;
+            } else if (coding.equalsIgnoreCase(DEFLATE.token)) {
+                deflate = q;
+            } else if (coding.equals("*")) {
+                wildcard = q;
+            }
+        }
+        gzip = gzip < 0 ? wildcard : gzip;
+        deflate = deflate < 0 ? wildcard : deflate;
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    private static double quality(String params) {
+        for (String param : params.split(";")) {
+            String p = param.trim();
+            if (p.startsWith("q=") || p.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(p.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
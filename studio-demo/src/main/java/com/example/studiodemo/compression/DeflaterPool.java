@@ -0,0 +1,47 @@
+package com.example.studiodemo.compression;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * Deflater 对象池
+ * Deflater 持有约数百 KB 的本地内存，逐响应创建与 end() 代价高；归还时 reset() 复用，池满时 end() 释放
+ */
+final class DeflaterPool {
+
+    private final int level;
+    private final boolean nowrap;
+    private final int maxPooled;
+    private final ConcurrentLinkedDeque<Deflater> deflaters = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    DeflaterPool(int level, boolean nowrap, int maxPooled) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.maxPooled = maxPooled;
+    }
+
+    Deflater acquire() {
+        Deflater deflater = deflaters.pollFirst();
+        if (deflater != null) {
+            pooled.decrementAndGet();
+            return deflater;
+        }
+        return new Deflater(level, nowrap);
+    }
+
+    void release(Deflater deflater) {
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            deflater.end();
+            return;
+        }
+        deflater.reset();
+        deflaters.offerFirst(deflater);
+    }
+
+    int getPooled() {
+        return pooled.get();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.studiodemo.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * 使用外部（池化）Deflater 的压缩输出流
+ * GZIPOutputStream 不接受外部 Deflater，gzip 的 10 字节头与 CRC32 / 长度尾部在此自行写出。
+ * flush() 为 SYNC_FLUSH，上游 chunk 边界的 flush 会把已压缩数据送达客户端；
+ * 写完后调用 finish()，不关闭下层输出流，也不 end() Deflater
+ */
+final class EncodingOutputStream extends DeflaterOutputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final CRC32 crc;
+    private boolean finished;
+
+    EncodingOutputStream(OutputStream out, ContentEncoding encoding, Deflater deflater) throws IOException {
+        super(out, deflater, BUFFER_SIZE, true);
+        if (encoding == ContentEncoding.GZIP) {
+            this.crc = new CRC32();
+            out.write(GZIP_HEADER);
+        } else {
+            this.crc = null;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        super.write(b, off, len);
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        super.finish();
+        if (crc != null) {
+            writeIntLE((int) crc.getValue());
+            writeIntLE((int) def.getBytesRead());
+        }
+    }
+
+    private void writeIntLE(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+}
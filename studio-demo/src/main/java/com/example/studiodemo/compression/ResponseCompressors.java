@@ -0,0 +1,85 @@
+package com.example.studiodemo.compression;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 路由响应压缩工厂
+ * 相同编码与压缩级别的路由共用一个 Deflater 池
+ */
+@Component
+public class ResponseCompressors {
+
+    /**
+     * 每个池保留的空闲 Deflater 上限
+     */
+    static final int MAX_POOLED_DEFLATERS = 64;
+
+    private final MeterRegistry registry;
+    private final Map<String, DeflaterPool> pools = new ConcurrentHashMap<>();
+
+    public ResponseCompressors(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 为路由创建压缩过滤器，路由未配置 compression 时返回 null
+     */
+    public RouteCompressionFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        GatewayProperties.CompressionDefinition definition = routeDef.getCompression();
+        if (definition == null) {
+            return null;
+        }
+
+        Map<ContentEncoding, DeflaterPool> routePools = new EnumMap<>(ContentEncoding.class);
+        Map<ContentEncoding, Counter> compressed = new EnumMap<>(ContentEncoding.class);
+        Map<ContentEncoding, Counter> reused = new EnumMap<>(ContentEncoding.class);
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            routePools.put(encoding, pool(encoding, definition.getLevel()));
+            compressed.put(encoding, responses(routeDef, encoding, "compressed"));
+            reused.put(encoding, responses(routeDef, encoding, "cached"));
+        }
+        List<MediaType> mimeTypes = definition.getMimeTypes().stream().map(MediaType::parseMediaType).toList();
+
+        return new RouteCompressionFilter(routePools, (int) definition.getMinSize().toBytes(), mimeTypes,
+                compressed, reused, bytes(routeDef, "in"), bytes(routeDef, "out"));
+    }
+
+    private DeflaterPool pool(ContentEncoding encoding, int level) {
+        return pools.computeIfAbsent(encoding.token() + ":" + level, name -> {
+            DeflaterPool pool = new DeflaterPool(level, encoding.nowrap(), MAX_POOLED_DEFLATERS);
+            Gauge.builder("gateway.compression.deflaters.pooled", pool, DeflaterPool::getPooled)
+                    .tag("encoding", encoding.token())
+                    .tag("level", String.valueOf(level))
+                    .register(registry);
+            return pool;
+        });
+    }
+
+    private Counter responses(GatewayProperties.RouteDefinition routeDef, ContentEncoding encoding, String source) {
+        return Counter.builder("gateway.compression.responses")
+                .description("Compressed responses, source=cached when a stored compressed variant was reused")
+                .tag("route", routeDef.getId())
+                .tag("encoding", encoding.token())
+                .tag("source", source)
+                .register(registry);
+    }
+
+    private Counter bytes(GatewayProperties.RouteDefinition routeDef, String direction) {
+        return Counter.builder("gateway.compression.bytes")
+                .description("Bytes fed into / produced by the compressor")
+                .baseUnit("bytes")
+                .tag("route", routeDef.getId())
+                .tag("direction", direction)
+                .register(registry);
+    }
+}
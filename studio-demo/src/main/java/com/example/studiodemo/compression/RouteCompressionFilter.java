@@ -0,0 +1,182 @@
+package com.example.studiodemo.compression;
+
+import com.example.studiodemo.support.BufferedResponse;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.cloud.gateway.server.mvc.handler.GatewayServerResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * 路由响应压缩过滤器
+ * 按 Accept-Encoding 协商 gzip / deflate，只压缩配置的内容类型且不小于 min-size 的响应。
+ * 位于响应缓存之外：缓存 / 合并返回的已缓冲响应，压缩结果作为变体随缓存条目保存，热点响应只压缩一次；
+ * 其余响应在写出时流式压缩，不缓冲响应体
+ */
+public class RouteCompressionFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final Map<ContentEncoding, DeflaterPool> pools;
+    private final int minSize;
+    private final List<MediaType> mimeTypes;
+    private final Map<ContentEncoding, Counter> compressed;
+    private final Map<ContentEncoding, Counter> reused;
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+
+    RouteCompressionFilter(Map<ContentEncoding, DeflaterPool> pools, int minSize, List<MediaType> mimeTypes,
+            Map<ContentEncoding, Counter> compressed, Map<ContentEncoding, Counter> reused,
+            Counter bytesIn, Counter bytesOut) {
+        this.pools = pools;
+        this.minSize = minSize;
+        this.mimeTypes = mimeTypes;
+        this.compressed = compressed;
+        this.reused = reused;
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        ContentEncoding encoding = request.method() == HttpMethod.HEAD
+                ? null : ContentEncoding.negotiate(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING));
+        ServerResponse response = next.handle(request);
+        if (encoding == null || !isCompressible(response)) {
+            return response;
+        }
+
+        Object buffered = request.attributes().get(BufferedResponse.ATTRIBUTE);
+        if (buffered instanceof BufferedResponse bufferedResponse) {
+            return fromBuffered(response, bufferedResponse, encoding);
+        }
+        return streaming(request, response, encoding);
+    }
+
+    /**
+     * 已缓冲的响应：复用或生成压缩变体
+     */
+    private ServerResponse fromBuffered(ServerResponse response, BufferedResponse buffered, ContentEncoding encoding) {
+        if (buffered.size() < minSize) {
+            return response;
+        }
+        byte[] body = buffered.variant(encoding.token());
+        if (body != null) {
+            reused.get(encoding).increment();
+        } else {
+            body = buffered.variant(encoding.token(), identity -> compress(identity, encoding));
+        }
+        byte[] encoded = body;
+        return encodedResponse(response, encoding, encoded.length)
+                .build((servletRequest, servletResponse) -> {
+                    servletResponse.getOutputStream().write(encoded);
+                    return null;
+                });
+    }
+
+    /**
+     * 代理响应：写出时从上游响应流边读边压缩；长度未知时先读取 min-size 字节判断是否值得压缩
+     */
+    private ServerResponse streaming(ServerRequest request, ServerResponse response, ContentEncoding encoding)
+            throws IOException {
+        InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+        if (body == null) {
+            return response;
+        }
+        long contentLength = response.headers().getContentLength();
+        if (contentLength >= 0 && contentLength < minSize) {
+            return response;
+        }
+        byte[] prefix = new byte[0];
+        if (contentLength < 0) {
+            prefix = body.readNBytes(minSize);
+            if (prefix.length < minSize) {
+                body.close();
+                MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                        new ByteArrayInputStream(prefix));
+                return response;
+            }
+        }
+
+        byte[] head = prefix;
+        return encodedResponse(response, encoding, -1)
+                .build((servletRequest, servletResponse) -> {
+                    InputStream rest = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+                    try (rest) {
+                        encode(servletResponse.getOutputStream(), encoding, head, rest);
+                    }
+                    return null;
+                });
+    }
+
+    private GatewayServerResponse.HeadersBuilder<?> encodedResponse(ServerResponse response, ContentEncoding encoding,
+            long contentLength) {
+        return GatewayServerResponse.status(response.statusCode())
+                .headers(headers -> {
+                    headers.addAll(response.headers());
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    headers.set(HttpHeaders.CONTENT_ENCODING, encoding.token());
+                    headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                    String etag = headers.getETag();
+                    if (etag != null && !etag.startsWith("W/")) {
+                        headers.setETag("W/" + etag);
+                    }
+                    if (contentLength >= 0) {
+                        headers.setContentLength(contentLength);
+                    }
+                })
+                .cookies(cookies -> cookies.addAll(response.cookies()));
+    }
+
+    private boolean isCompressible(ServerResponse response) {
+        int status = response.statusCode().value();
+        if (status < 200 || status == 204 || status == 206 || status == 304) {
+            return false;
+        }
+        HttpHeaders headers = response.headers();
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        return contentType != null && mimeTypes.stream().anyMatch(type -> type.includes(contentType));
+    }
+
+    private byte[] compress(byte[] identity, ContentEncoding encoding) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, identity.length / 4));
+        try {
+            encode(out, encoding, identity, InputStream.nullInputStream());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compress response", e);
+        }
+        return out.toByteArray();
+    }
+
+    private void encode(OutputStream target, ContentEncoding encoding, byte[] head, InputStream rest)
+            throws IOException {
+        DeflaterPool pool = pools.get(encoding);
+        Deflater deflater = pool.acquire();
+        try {
+            EncodingOutputStream out = new EncodingOutputStream(target, encoding, deflater);
+            out.write(head);
+            rest.transferTo(out);
+            out.finish();
+            compressed.get(encoding).increment();
+            bytesIn.increment(deflater.getBytesRead());
+            bytesOut.increment(deflater.getBytesWritten());
+        } finally {
+            pool.release(deflater);
+        }
+    }
+}
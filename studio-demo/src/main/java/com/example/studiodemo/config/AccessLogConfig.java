@@ -0,0 +1,17 @@
+package com.example.studiodemo.config;
+
+import com.example.studiodemo.accesslog.AsyncAccessLogger;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 访问日志配置
+ */
+@Configuration
+public class AccessLogConfig {
+
+    @Bean
+    public AsyncAccessLogger asyncAccessLogger(GatewayProperties gatewayProperties) {
+        return new AsyncAccessLogger(gatewayProperties.getAccessLog());
+    }
+}
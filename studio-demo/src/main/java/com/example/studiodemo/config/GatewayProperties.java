@@ -1,20 +1,27 @@
 package com.example.studiodemo.config;
 
-import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.stereotype.Component;
+import com.example.studiodemo.codec.WireFormat;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * 网关路由配置属性
- * 从 application.yml 读取路由配置
+ * 从 application.yml 读取路由配置，由 GatewayPropertiesConfig 按 gateway 前缀绑定或使用构建期预编译的结果
  */
-@Component
-@ConfigurationProperties(prefix = "gateway")
 public class GatewayProperties {
 
     private List<RouteDefinition> routes = new ArrayList<>();
+    private ConnectionPoolDefinition httpClient = ConnectionPoolDefinition.defaults();
+    private AccessLogDefinition accessLog = new AccessLogDefinition();
+    private StreamingDefinition streaming = new StreamingDefinition();
+    private WarmUpDefinition warmUp = new WarmUpDefinition();
+    private TracingDefinition tracing = new TracingDefinition();
 
     public List<RouteDefinition> getRoutes() {
         return routes;
@@ -24,6 +31,46 @@ public class GatewayProperties {
         this.routes = routes;
     }
 
+    public ConnectionPoolDefinition getHttpClient() {
+        return httpClient;
+    }
+
+    public void setHttpClient(ConnectionPoolDefinition httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public AccessLogDefinition getAccessLog() {
+        return accessLog;
+    }
+
+    public void setAccessLog(AccessLogDefinition accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    public StreamingDefinition getStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(StreamingDefinition streaming) {
+        this.streaming = streaming;
+    }
+
+    public WarmUpDefinition getWarmUp() {
+        return warmUp;
+    }
+
+    public void setWarmUp(WarmUpDefinition warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    public TracingDefinition getTracing() {
+        return tracing;
+    }
+
+    public void setTracing(TracingDefinition tracing) {
+        this.tracing = tracing;
+    }
+
     /**
      * 路由定义
      */
@@ -31,8 +78,22 @@ public class GatewayProperties {
         private String id;
         private String name;
         private String uri;
+        private List<TargetDefinition> targets;
+        private LoadBalancerDefinition loadBalancer = new LoadBalancerDefinition();
         private PredicateDefinition predicates;
         private RewriteDefinition rewrite;
+        private ResponseRewriteDefinition responseRewrite;
+        private ConnectionPoolDefinition connection;
+        private Double accessLogSampleRate;
+        private CacheDefinition cache;
+        private CoalesceDefinition coalesce;
+        private ProtectionDefinition protection;
+        private HedgeDefinition hedge;
+        private Boolean streaming;
+        private CompressionDefinition compression;
+        private RateLimitDefinition rateLimit;
+        private BulkheadDefinition bulkhead;
+        private WireFormat wireFormat;
 
         public String getId() {
             return id;
@@ -58,6 +119,39 @@ public class GatewayProperties {
             this.uri = uri;
         }
 
+        public List<TargetDefinition> getTargets() {
+            return targets;
+        }
+
+        public void setTargets(List<TargetDefinition> targets) {
+            this.targets = targets;
+        }
+
+        public LoadBalancerDefinition getLoadBalancer() {
+            return loadBalancer;
+        }
+
+        public void setLoadBalancer(LoadBalancerDefinition loadBalancer) {
+            this.loadBalancer = loadBalancer;
+        }
+
+        /**
+         * 路由的全部上游地址：配置了 targets 时为各目标地址，否则为 uri
+         */
+        public List<String> targetUris() {
+            if (targets == null || targets.isEmpty()) {
+                return uri != null ? List.of(uri) : List.of();
+            }
+            return targets.stream().map(TargetDefinition::getUri).toList();
+        }
+
+        /**
+         * 是否在多个目标间负载均衡
+         */
+        public boolean isLoadBalanced() {
+            return targets != null && targets.size() > 1;
+        }
+
         public PredicateDefinition getPredicates() {
             return predicates;
         }
@@ -74,6 +168,112 @@ public class GatewayProperties {
             this.rewrite = rewrite;
         }
 
+        public ResponseRewriteDefinition getResponseRewrite() {
+            return responseRewrite;
+        }
+
+        public void setResponseRewrite(ResponseRewriteDefinition responseRewrite) {
+            this.responseRewrite = responseRewrite;
+        }
+
+        public ConnectionPoolDefinition getConnection() {
+            return connection;
+        }
+
+        public void setConnection(ConnectionPoolDefinition connection) {
+            this.connection = connection;
+        }
+
+        public Double getAccessLogSampleRate() {
+            return accessLogSampleRate;
+        }
+
+        public void setAccessLogSampleRate(Double accessLogSampleRate) {
+            this.accessLogSampleRate = accessLogSampleRate;
+        }
+
+        public CacheDefinition getCache() {
+            return cache;
+        }
+
+        public void setCache(CacheDefinition cache) {
+            this.cache = cache;
+        }
+
+        public CoalesceDefinition getCoalesce() {
+            return coalesce;
+        }
+
+        public void setCoalesce(CoalesceDefinition coalesce) {
+            this.coalesce = coalesce;
+        }
+
+        public ProtectionDefinition getProtection() {
+            return protection;
+        }
+
+        public void setProtection(ProtectionDefinition protection) {
+            this.protection = protection;
+        }
+
+        public HedgeDefinition getHedge() {
+            return hedge;
+        }
+
+        public void setHedge(HedgeDefinition hedge) {
+            this.hedge = hedge;
+        }
+
+        public Boolean getStreaming() {
+            return streaming;
+        }
+
+        public void setStreaming(Boolean streaming) {
+            this.streaming = streaming;
+        }
+
+        public CompressionDefinition getCompression() {
+            return compression;
+        }
+
+        public void setCompression(CompressionDefinition compression) {
+            this.compression = compression;
+        }
+
+        public RateLimitDefinition getRateLimit() {
+            return rateLimit;
+        }
+
+        public void setRateLimit(RateLimitDefinition rateLimit) {
+            this.rateLimit = rateLimit;
+        }
+
+        public BulkheadDefinition getBulkhead() {
+            return bulkhead;
+        }
+
+        public void setBulkhead(BulkheadDefinition bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        /**
+         * 与上游之间的报文格式（json / smile / cbor），未配置时不改写 Accept
+         */
+        public WireFormat getWireFormat() {
+            return wireFormat;
+        }
+
+        public void setWireFormat(WireFormat wireFormat) {
+            this.wireFormat = wireFormat;
+        }
+
+        /**
+         * 是否与上游使用二进制报文格式（响应格式随客户端 Accept 协商）
+         */
+        public boolean isBinaryWireFormat() {
+            return wireFormat != null && wireFormat.isBinary();
+        }
+
         @Override
         public String toString() {
             return "RouteDefinition{id='" + id + "', name='" + name + "', path='" +
@@ -83,11 +283,21 @@ public class GatewayProperties {
 
     /**
      * 路由断言定义
+     * host: 域名或 IP（可选，不配置时匹配任意域名）
      */
     public static class PredicateDefinition {
+        private String host;
         private String path;
         private String method;
 
+        public String getHost() {
+            return host;
+        }
+
+        public void setHost(String host) {
+            this.host = host;
+        }
+
         public String getPath() {
             return path;
         }
@@ -128,4 +338,868 @@ public class GatewayProperties {
             this.to = to;
         }
     }
+
+    /**
+     * 响应体重写定义
+     * fields: 顶层字段映射表，原字段名 -> 新字段名
+     */
+    public static class ResponseRewriteDefinition {
+        private Map<String, String> fields = new LinkedHashMap<>();
+
+        public Map<String, String> getFields() {
+            return fields;
+        }
+
+        public void setFields(Map<String, String> fields) {
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * 上游连接池定义
+     * gateway.http-client 为全局默认值，路由上的 connection 只需配置需要覆盖的项；
+     * 连接池按上游地址共享，同一上游以第一个配置了 connection 的路由为准，其他路由的配置不同时启动日志会给出警告
+     */
+    public static class ConnectionPoolDefinition {
+        private Integer maxConnections;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Duration acquireTimeout;
+        private Duration idleTimeout;
+        private Duration timeToLive;
+        private Boolean http2;
+
+        public static ConnectionPoolDefinition defaults() {
+            ConnectionPoolDefinition defaults = new ConnectionPoolDefinition();
+            defaults.setMaxConnections(200);
+            defaults.setConnectTimeout(Duration.ofSeconds(1));
+            defaults.setReadTimeout(Duration.ofSeconds(10));
+            defaults.setAcquireTimeout(Duration.ofSeconds(1));
+            defaults.setIdleTimeout(Duration.ofSeconds(30));
+            defaults.setTimeToLive(Duration.ofMinutes(5));
+            defaults.setHttp2(false);
+            return defaults;
+        }
+
+        /**
+         * 以 defaults 补全未配置的项
+         */
+        public ConnectionPoolDefinition mergedWith(ConnectionPoolDefinition defaults) {
+            ConnectionPoolDefinition merged = new ConnectionPoolDefinition();
+            merged.setMaxConnections(maxConnections != null ? maxConnections : defaults.getMaxConnections());
+            merged.setConnectTimeout(connectTimeout != null ? connectTimeout : defaults.getConnectTimeout());
+            merged.setReadTimeout(readTimeout != null ? readTimeout : defaults.getReadTimeout());
+            merged.setAcquireTimeout(acquireTimeout != null ? acquireTimeout : defaults.getAcquireTimeout());
+            merged.setIdleTimeout(idleTimeout != null ? idleTimeout : defaults.getIdleTimeout());
+            merged.setTimeToLive(timeToLive != null ? timeToLive : defaults.getTimeToLive());
+            merged.setHttp2(http2 != null ? http2 : defaults.getHttp2());
+            return merged;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConnectionPoolDefinition that)) {
+                return false;
+            }
+            return Objects.equals(maxConnections, that.maxConnections)
+                    && Objects.equals(connectTimeout, that.connectTimeout)
+                    && Objects.equals(readTimeout, that.readTimeout)
+                    && Objects.equals(acquireTimeout, that.acquireTimeout)
+                    && Objects.equals(idleTimeout, that.idleTimeout)
+                    && Objects.equals(timeToLive, that.timeToLive)
+                    && Objects.equals(http2, that.http2);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(maxConnections, connectTimeout, readTimeout, acquireTimeout, idleTimeout, timeToLive,
+                    http2);
+        }
+
+        @Override
+        public String toString() {
+            return "{maxConnections=" + maxConnections + ", connectTimeout=" + connectTimeout
+                    + ", readTimeout=" + readTimeout + ", acquireTimeout=" + acquireTimeout
+                    + ", idleTimeout=" + idleTimeout + ", timeToLive=" + timeToLive + ", http2=" + http2 + "}";
+        }
+
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Boolean getHttp2() {
+            return http2;
+        }
+
+        public void setHttp2(Boolean http2) {
+            this.http2 = http2;
+        }
+    }
+
+    /**
+     * 响应缓存定义
+     * 仅缓存 GET 的 200 响应；max-bytes 配置后按响应体字节数限制容量，否则按条目数；
+     * key-headers 为参与缓存键的请求头（如 Accept-Language）
+     */
+    public static class CacheDefinition {
+        private Duration ttl = Duration.ofSeconds(10);
+        private long maxEntries = 1000;
+        private DataSize maxBytes;
+        private List<String> keyHeaders = new ArrayList<>();
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public DataSize getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(DataSize maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public List<String> getKeyHeaders() {
+            return keyHeaders;
+        }
+
+        public void setKeyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+        }
+    }
+
+    /**
+     * 请求合并定义
+     * 相同的并发 GET（路径 + 查询参数 + key-headers）共享一次上游调用；
+     * max-wait 为等待共享结果的上限，超时后独立请求上游
+     */
+    public static class CoalesceDefinition {
+        private Duration maxWait = Duration.ofSeconds(1);
+        private List<String> keyHeaders = new ArrayList<>();
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public List<String> getKeyHeaders() {
+            return keyHeaders;
+        }
+
+        public void setKeyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+        }
+    }
+
+    /**
+     * 负载均衡目标
+     */
+    public static class TargetDefinition {
+        private String uri;
+        private int weight = 1;
+
+        public String getUri() {
+            return uri;
+        }
+
+        public void setUri(String uri) {
+            this.uri = uri;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 负载均衡定义
+     * 按权重随机取两个目标，选择 EWMA 延迟 × (在途请求数 + 1) 较小者；
+     * decay-time 为 EWMA 的时间衰减常数
+     */
+    public static class LoadBalancerDefinition {
+        private Duration decayTime = Duration.ofSeconds(10);
+        private OutlierDetectionDefinition outlierDetection = new OutlierDetectionDefinition();
+        private HealthCheckDefinition healthCheck;
+
+        public Duration getDecayTime() {
+            return decayTime;
+        }
+
+        public void setDecayTime(Duration decayTime) {
+            this.decayTime = decayTime;
+        }
+
+        public OutlierDetectionDefinition getOutlierDetection() {
+            return outlierDetection;
+        }
+
+        public void setOutlierDetection(OutlierDetectionDefinition outlierDetection) {
+            this.outlierDetection = outlierDetection;
+        }
+
+        public HealthCheckDefinition getHealthCheck() {
+            return healthCheck;
+        }
+
+        public void setHealthCheck(HealthCheckDefinition healthCheck) {
+            this.healthCheck = healthCheck;
+        }
+    }
+
+    /**
+     * 被动异常剔除：连续失败（异常或 5xx）达到 consecutive-failures 后剔除 ejection-duration，
+     * 同时被剔除的目标不超过 max-ejection-percent
+     */
+    public static class OutlierDetectionDefinition {
+        private int consecutiveFailures = 5;
+        private Duration ejectionDuration = Duration.ofSeconds(30);
+        private int maxEjectionPercent = 50;
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public void setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+        }
+
+        public Duration getEjectionDuration() {
+            return ejectionDuration;
+        }
+
+        public void setEjectionDuration(Duration ejectionDuration) {
+            this.ejectionDuration = ejectionDuration;
+        }
+
+        public int getMaxEjectionPercent() {
+            return maxEjectionPercent;
+        }
+
+        public void setMaxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+        }
+    }
+
+    /**
+     * 主动健康检查：每隔 interval 对各目标 GET path，非 2xx 或超时视为不健康
+     */
+    public static class HealthCheckDefinition {
+        private String path;
+        private Duration interval = Duration.ofSeconds(5);
+        private Duration timeout = Duration.ofSeconds(1);
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * 对冲定义（仅对 GET / HEAD 生效）
+     * 请求超过上游延迟的 percentile 分位数（限定在 [min-delay, max-delay]，样本不足时为 max-delay）仍未返回时发出对冲请求；
+     * budget-percent 为对冲请求占总请求数的上限（%）
+     */
+    public static class HedgeDefinition {
+        private double percentile = 95;
+        private Duration minDelay = Duration.ofMillis(5);
+        private Duration maxDelay = Duration.ofMillis(200);
+        private int budgetPercent = 10;
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(int budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+    }
+
+    /**
+     * 保护定义：熔断器与自适应并发限制，未配置的一项不启用
+     * 同时作用于路由本身与路由的上游（上游以第一个配置了 protection 的路由为准）
+     */
+    public static class ProtectionDefinition {
+        private CircuitBreakerDefinition circuitBreaker;
+        private ConcurrencyLimitDefinition concurrencyLimit;
+
+        public CircuitBreakerDefinition getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        public void setCircuitBreaker(CircuitBreakerDefinition circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        public ConcurrencyLimitDefinition getConcurrencyLimit() {
+            return concurrencyLimit;
+        }
+
+        public void setConcurrencyLimit(ConcurrencyLimitDefinition concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+        }
+    }
+
+    /**
+     * 熔断器定义
+     * window 内调用数达到 minimum-calls 且失败率（%）或慢调用率（%）超过阈值时打开，
+     * 打开 open-duration 后放行 half-open-calls 个探测请求
+     */
+    public static class CircuitBreakerDefinition {
+        private Duration window = Duration.ofSeconds(10);
+        private int minimumCalls = 20;
+        private int failureRateThreshold = 50;
+        private Duration slowCallDuration = Duration.ofSeconds(1);
+        private int slowCallRateThreshold = 80;
+        private Duration openDuration = Duration.ofSeconds(5);
+        private int halfOpenCalls = 5;
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getSlowCallDuration() {
+            return slowCallDuration;
+        }
+
+        public void setSlowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+        }
+
+        public int getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+
+    /**
+     * 自适应并发限制定义（AIMD）
+     * 成功且并发接近上限时上限 +1，失败或耗时超过 latency-threshold 时上限乘以 backoff-ratio
+     */
+    public static class ConcurrencyLimitDefinition {
+        private int initialLimit = 50;
+        private int minLimit = 5;
+        private int maxLimit = 500;
+        private double backoffRatio = 0.9;
+        private Duration latencyThreshold = Duration.ofMillis(200);
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+
+    /**
+     * 限流定义
+     * algorithm: token-bucket（每 period 补充 limit 个令牌，容量 burst，默认等于 limit）或 sliding-window（任意 period 内不超过 limit）；
+     * key: route（整条路由共用）、ip（客户端地址）或 header（指定请求头的值）；
+     * 按客户端区分时最多跟踪 max-keys 个键，空闲超过 idle-timeout 的键被淘汰
+     */
+    public static class RateLimitDefinition {
+
+        public enum Algorithm {
+            TOKEN_BUCKET, SLIDING_WINDOW
+        }
+
+        public enum KeyType {
+            ROUTE, IP, HEADER
+        }
+
+        private Algorithm algorithm = Algorithm.TOKEN_BUCKET;
+        private long limit = 100;
+        private Duration period = Duration.ofSeconds(1);
+        private Long burst;
+        private KeyType key = KeyType.IP;
+        private String header;
+        private long maxKeys = 100_000;
+        private Duration idleTimeout = Duration.ofMinutes(5);
+
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(Algorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public long getLimit() {
+            return limit;
+        }
+
+        public void setLimit(long limit) {
+            this.limit = limit;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+
+        public Long getBurst() {
+            return burst;
+        }
+
+        public void setBurst(Long burst) {
+            this.burst = burst;
+        }
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public void setHeader(String header) {
+            this.header = header;
+        }
+
+        public long getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(long maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
+    /**
+     * 舱壁定义：限制一条路由（或一个编排接口）同时占用的请求线程
+     * max-concurrent: 同时处理的请求上限；超过时最多 max-queue 个请求排队，等待超过 max-wait 或队列已满时返回 503
+     */
+    public static class BulkheadDefinition {
+        private int maxConcurrent = 50;
+        private int maxQueue = 50;
+        private Duration maxWait = Duration.ofMillis(100);
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    /**
+     * 响应压缩定义
+     * 按 Accept-Encoding 协商 gzip / deflate，只压缩 mime-types 内且不小于 min-size 的响应，level 为 Deflater 压缩级别
+     */
+    public static class CompressionDefinition {
+        private DataSize minSize = DataSize.ofKilobytes(1);
+        private int level = 6;
+        private List<String> mimeTypes = new ArrayList<>(List.of(
+                "application/json", "application/*+json", "application/xml", "application/javascript",
+                "text/html", "text/plain", "text/css", "text/xml"));
+
+        public DataSize getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(DataSize minSize) {
+            this.minSize = minSize;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public void setLevel(int level) {
+            this.level = level;
+        }
+
+        public List<String> getMimeTypes() {
+            return mimeTypes;
+        }
+
+        public void setMimeTypes(List<String> mimeTypes) {
+            this.mimeTypes = mimeTypes;
+        }
+    }
+
+    /**
+     * 流式透传定义
+     * 响应体经池化缓冲区（buffer-size，最多保留 max-pooled-buffers 个）边读边写，并在上游 chunk 边界 flush
+     */
+    public static class StreamingDefinition {
+        private boolean enabled = true;
+        private DataSize bufferSize = DataSize.ofKilobytes(16);
+        private int maxPooledBuffers = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(DataSize bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getMaxPooledBuffers() {
+            return maxPooledBuffers;
+        }
+
+        public void setMaxPooledBuffers(int maxPooledBuffers) {
+            this.maxPooledBuffers = maxPooledBuffers;
+        }
+    }
+
+    /**
+     * 访问日志定义
+     * sample-rate 为全局采样率（0~1），路由上的 access-log-sample-rate 可单独覆盖；
+     * 失败请求不参与采样，始终记录
+     */
+    public static class AccessLogDefinition {
+        private boolean enabled = true;
+        private double sampleRate = 1.0;
+        private int bufferSize = 8192;
+        private List<String> headers = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public List<String> getHeaders() {
+            return headers;
+        }
+
+        public void setHeaders(List<String> headers) {
+            this.headers = headers;
+        }
+    }
+
+    /**
+     * 启动预热定义
+     * 就绪之前向每条 GET 路由与编排接口发送 iterations 轮合成请求（最长 max-duration），使热点代码完成 JIT 编译；
+     * upstream 为 stub 时上游调用由进程内的替身服务应答，为 real 时访问真实下游
+     */
+    public static class WarmUpDefinition {
+
+        public enum Upstream {
+            STUB, REAL
+        }
+
+        private boolean enabled = false;
+        private Upstream upstream = Upstream.STUB;
+        private int iterations = 1000;
+        private int concurrency = 2;
+        private Duration maxDuration = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Upstream getUpstream() {
+            return upstream;
+        }
+
+        public void setUpstream(Upstream upstream) {
+            this.upstream = upstream;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Duration getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+    }
+
+    /**
+     * 请求追踪定义
+     * 每个请求携带 traceparent 访问上游；被采样的请求记录各环节耗时，以 Server-Timing 响应头返回并输出一行追踪日志。
+     * 请求带有 sampled 标记的 traceparent 时沿用其采样决定，否则按 sample-rate 采样；
+     * max-spans 为单个请求可记录的编排分支数，超出的分支不记录
+     */
+    public static class TracingDefinition {
+        private boolean enabled = true;
+        private double sampleRate = 0.01;
+        private int maxSpans = 16;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getMaxSpans() {
+            return maxSpans;
+        }
+
+        public void setMaxSpans(int maxSpans) {
+            this.maxSpans = maxSpans;
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package com.example.studiodemo.config;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * 网关配置属性
+ * fast-startup 构建生成的预编译路由表可用时直接以 setter 调用构建，否则由 Binder 按 gateway 前缀绑定；
+ * 不使用 @ConfigurationProperties，否则预编译的实例仍会被重新绑定一遍
+ */
+@Configuration
+public class GatewayPropertiesConfig {
+
+    static final String PREFIX = "gateway";
+
+    @Bean
+    public GatewayProperties gatewayProperties(ConfigurableEnvironment environment) {
+        GatewayProperties precompiled = PrecompiledRoutes.load(environment);
+        if (precompiled != null) {
+            return precompiled;
+        }
+        return Binder.get(environment).bindOrCreate(PREFIX, GatewayProperties.class);
+    }
+}
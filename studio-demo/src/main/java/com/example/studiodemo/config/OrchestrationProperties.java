@@ -0,0 +1,231 @@
+package com.example.studiodemo.config;
+
+import com.example.studiodemo.codec.WireFormat;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 编排配置属性
+ * 按编排步骤配置超时、降级值与结果缓存，按编排接口（call-hello / call-hello-name / aggregate）配置限流与舱壁
+ */
+@Component
+@ConfigurationProperties(prefix = "orchestration")
+public class OrchestrationProperties {
+
+    private Duration defaultTimeout = Duration.ofSeconds(1);
+    private Map<String, StepDefinition> steps = new LinkedHashMap<>();
+    private Map<String, GatewayProperties.RateLimitDefinition> rateLimits = new LinkedHashMap<>();
+    private Map<String, GatewayProperties.BulkheadDefinition> bulkheads = new LinkedHashMap<>();
+    private MemoDefinition aggregateCache;
+    private WireFormat wireFormat = WireFormat.JSON;
+
+    /**
+     * 获取步骤配置，未配置的步骤使用默认超时、无降级值
+     */
+    public StepDefinition getStep(String name) {
+        StepDefinition step = steps.get(name);
+        if (step == null) {
+            step = new StepDefinition();
+        }
+        if (step.getTimeout() == null) {
+            step.setTimeout(defaultTimeout);
+        }
+        return step;
+    }
+
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public void setDefaultTimeout(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public Map<String, StepDefinition> getSteps() {
+        return steps;
+    }
+
+    public void setSteps(Map<String, StepDefinition> steps) {
+        this.steps = steps;
+    }
+
+    public Map<String, GatewayProperties.RateLimitDefinition> getRateLimits() {
+        return rateLimits;
+    }
+
+    public void setRateLimits(Map<String, GatewayProperties.RateLimitDefinition> rateLimits) {
+        this.rateLimits = rateLimits;
+    }
+
+    public Map<String, GatewayProperties.BulkheadDefinition> getBulkheads() {
+        return bulkheads;
+    }
+
+    public void setBulkheads(Map<String, GatewayProperties.BulkheadDefinition> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    public MemoDefinition getAggregateCache() {
+        return aggregateCache;
+    }
+
+    public void setAggregateCache(MemoDefinition aggregateCache) {
+        this.aggregateCache = aggregateCache;
+    }
+
+    /**
+     * 编排 WebClient 与 mvc-demo 之间的报文格式
+     */
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    public void setWireFormat(WireFormat wireFormat) {
+        this.wireFormat = wireFormat;
+    }
+
+    /**
+     * 编排步骤定义
+     * timeout: 单个下游调用的超时；fallback: 超时或失败时使用的数据；hedge: 下游调用的对冲策略；
+     * cache: 已解码下游结果的缓存；batch: 将并发的单个调用合并为批量调用（目前支持 hello-name）
+     */
+    public static class StepDefinition {
+        private Duration timeout;
+        private String fallback;
+        private GatewayProperties.HedgeDefinition hedge;
+        private MemoDefinition cache;
+        private BatchDefinition batch;
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public String getFallback() {
+            return fallback;
+        }
+
+        public void setFallback(String fallback) {
+            this.fallback = fallback;
+        }
+
+        public GatewayProperties.HedgeDefinition getHedge() {
+            return hedge;
+        }
+
+        public void setHedge(GatewayProperties.HedgeDefinition hedge) {
+            this.hedge = hedge;
+        }
+
+        public MemoDefinition getCache() {
+            return cache;
+        }
+
+        public void setCache(MemoDefinition cache) {
+            this.cache = cache;
+        }
+
+        public BatchDefinition getBatch() {
+            return batch;
+        }
+
+        public void setBatch(BatchDefinition batch) {
+            this.batch = batch;
+        }
+    }
+
+    /**
+     * 微批定义
+     * max-size: 每批最多的调用数；max-wait: 攒批的最长等待时间；max-concurrency: 同时在途的批次上限；
+     * max-pending: 等待攒批与排队的调用上限，超过时立即失败并使用步骤降级值
+     */
+    public static class BatchDefinition {
+        private int maxSize = 64;
+        private Duration maxWait = Duration.ofMillis(2);
+        private int maxConcurrency = 16;
+        private int maxPending = 1024;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public int getMaxPending() {
+            return maxPending;
+        }
+
+        public void setMaxPending(int maxPending) {
+            this.maxPending = maxPending;
+        }
+    }
+
+    /**
+     * 编排结果缓存定义
+     * ttl: 写入后的过期时间；refresh-after: 写入后多久在访问时后台刷新（默认 ttl 的一半）；max-entries: 最大条目数
+     */
+    public static class MemoDefinition {
+        private Duration ttl = Duration.ofMinutes(1);
+        private Duration refreshAfter;
+        private long maxEntries = 10_000;
+
+        /**
+         * 实际的刷新间隔，必须小于 ttl，否则条目总在刷新前过期
+         */
+        public Duration refreshAfter() {
+            if (refreshAfter == null || refreshAfter.compareTo(ttl) >= 0) {
+                return ttl.dividedBy(2);
+            }
+            return refreshAfter;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getRefreshAfter() {
+            return refreshAfter;
+        }
+
+        public void setRefreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+}
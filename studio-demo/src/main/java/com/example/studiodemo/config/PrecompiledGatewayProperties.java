@@ -0,0 +1,19 @@
+package com.example.studiodemo.config;
+
+import org.springframework.core.env.PropertyResolver;
+
+/**
+ * 构建期由 application.yml 生成的网关配置（见 RouteTableGenerator）
+ */
+public interface PrecompiledGatewayProperties {
+
+    /**
+     * 生成时 application.yml 的 SHA-256，与运行时不一致说明配置已修改但未重新生成
+     */
+    String sourceDigest();
+
+    /**
+     * 构建配置，占位符由 resolver 在运行时解析
+     */
+    GatewayProperties create(PropertyResolver resolver);
+}
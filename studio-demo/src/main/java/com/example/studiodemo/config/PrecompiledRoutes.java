@@ -0,0 +1,104 @@
+package com.example.studiodemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 预编译路由表的加载
+ * 生成类存在、application.yml 与生成时一致、且 gateway.* 没有其他配置源（命令行、环境变量、profile 配置等）时才使用，
+ * 任一条件不满足都回退到绑定
+ */
+final class PrecompiledRoutes {
+
+    private static final Logger log = LoggerFactory.getLogger(PrecompiledRoutes.class);
+
+    static final String GENERATED_CLASS = "com.example.studiodemo.config.GeneratedGatewayProperties";
+    static final String SOURCE = "application.yml";
+
+    private static final String SOURCE_NAME = "class path resource [" + SOURCE + "]";
+
+    private PrecompiledRoutes() {
+    }
+
+    /**
+     * 加载预编译的配置，不可用时返回 null
+     */
+    static GatewayProperties load(ConfigurableEnvironment environment) {
+        ClassLoader classLoader = PrecompiledRoutes.class.getClassLoader();
+        if (!ClassUtils.isPresent(GENERATED_CLASS, classLoader)) {
+            return null;
+        }
+        String overridingSource = overridingSource(environment);
+        if (overridingSource != null) {
+            log.info("Gateway properties are overridden by {}, binding instead of using precompiled routes",
+                    overridingSource);
+            return null;
+        }
+
+        PrecompiledGatewayProperties precompiled = (PrecompiledGatewayProperties)
+                BeanUtils.instantiateClass(ClassUtils.resolveClassName(GENERATED_CLASS, classLoader));
+        String digest;
+        try {
+            digest = digest(new ClassPathResource(SOURCE, classLoader).getContentAsByteArray());
+        } catch (IOException e) {
+            log.warn("Failed to read {}, binding instead of using precompiled routes: {}", SOURCE, e.getMessage());
+            return null;
+        }
+        if (!precompiled.sourceDigest().equals(digest)) {
+            log.warn("{} changed after routes were precompiled, binding instead", SOURCE);
+            return null;
+        }
+
+        GatewayProperties properties = precompiled.create(environment);
+        log.info("Using precompiled gateway routes ({} routes)", properties.getRoutes().size());
+        return properties;
+    }
+
+    static String digest(byte[] source) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(source));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 打包的 application.yml 之外定义了 gateway.* 的配置源名称
+     */
+    private static String overridingSource(ConfigurableEnvironment environment) {
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            if (!(source instanceof EnumerablePropertySource<?> enumerable) || source.getName().contains(SOURCE_NAME)) {
+                continue;
+            }
+            for (String name : enumerable.getPropertyNames()) {
+                if (isGatewayProperty(name)) {
+                    return source.getName();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * gateway.xxx、gateway[...] 以及环境变量形式的 GATEWAY_XXX
+     */
+    private static boolean isGatewayProperty(String name) {
+        int length = GatewayPropertiesConfig.PREFIX.length();
+        if (name.length() <= length || !name.regionMatches(true, 0, GatewayPropertiesConfig.PREFIX, 0, length)) {
+            return false;
+        }
+        char next = name.charAt(length);
+        return next == '.' || next == '_' || next == '[';
+    }
+}
@@ -1,29 +1,49 @@
 package com.example.studiodemo.config;
 
+import com.example.studiodemo.bulkhead.Bulkheads;
+import com.example.studiodemo.bulkhead.RouteBulkheadFilter;
+import com.example.studiodemo.cache.ResponseCaches;
+import com.example.studiodemo.cache.RouteResponseCache;
+import com.example.studiodemo.coalesce.RequestCoalescers;
+import com.example.studiodemo.coalesce.RouteRequestCoalescer;
+import com.example.studiodemo.codec.RouteWireFormatFilter;
+import com.example.studiodemo.codec.WireFormats;
+import com.example.studiodemo.compression.ResponseCompressors;
+import com.example.studiodemo.compression.RouteCompressionFilter;
 import com.example.studiodemo.filter.LoggingFilter;
 import com.example.studiodemo.filter.ResponseRewriteFilter;
+import com.example.studiodemo.hedge.HedgePolicies;
+import com.example.studiodemo.hedge.RouteHedgingFilter;
+import com.example.studiodemo.loadbalancer.LoadBalancedRoute;
+import com.example.studiodemo.loadbalancer.LoadBalancers;
+import com.example.studiodemo.metrics.GatewayMetrics;
+import com.example.studiodemo.metrics.RouteMetrics;
+import com.example.studiodemo.ratelimit.RateLimiters;
+import com.example.studiodemo.ratelimit.RouteRateLimitFilter;
+import com.example.studiodemo.resilience.Protections;
+import com.example.studiodemo.resilience.RouteProtectionFilter;
+import com.example.studiodemo.route.CompiledRoute;
+import com.example.studiodemo.route.IndexedRouterFunction;
+import com.example.studiodemo.route.RouteIndex;
+import com.example.studiodemo.streaming.ResponseStreams;
+import com.example.studiodemo.streaming.RouteStreamingFilter;
+import com.example.studiodemo.tracing.RouteTracingFilter;
+import com.example.studiodemo.tracing.Tracer;
 import jakarta.annotation.PostConstruct;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletRequestWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.server.mvc.handler.HandlerFunctions;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
-import org.springframework.web.servlet.function.RequestPredicate;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
 import org.springframework.web.servlet.function.RouterFunction;
-import org.springframework.web.servlet.function.RouterFunctions;
 import org.springframework.web.servlet.function.ServerRequest;
 import org.springframework.web.servlet.function.ServerResponse;
 
-import java.net.URI;
-import java.util.List;
+import java.util.function.Function;
 
 import static org.springframework.cloud.gateway.server.mvc.filter.BeforeFilterFunctions.rewritePath;
-import static org.springframework.cloud.gateway.server.mvc.handler.GatewayRouterFunctions.route;
-import static org.springframework.cloud.gateway.server.mvc.predicate.GatewayRequestPredicates.path;
-import static org.springframework.web.servlet.function.RequestPredicates.*;
 
 /**
  * Gateway 路由配置
@@ -37,135 +57,175 @@ public class RouteConfig {
     private final GatewayProperties gatewayProperties;
     private final LoggingFilter loggingFilter;
     private final ResponseRewriteFilter responseRewriteFilter;
+    private final GatewayMetrics gatewayMetrics;
+    private final ResponseCaches responseCaches;
+    private final RequestCoalescers requestCoalescers;
+    private final Protections protections;
+    private final LoadBalancers loadBalancers;
+    private final HedgePolicies hedgePolicies;
+    private final ResponseStreams responseStreams;
+    private final ResponseCompressors responseCompressors;
+    private final RateLimiters rateLimiters;
+    private final WireFormats wireFormats;
+    private final Tracer tracer;
+    private final Bulkheads bulkheads;
 
     public RouteConfig(GatewayProperties gatewayProperties, LoggingFilter loggingFilter,
-            ResponseRewriteFilter responseRewriteFilter) {
+            ResponseRewriteFilter responseRewriteFilter, GatewayMetrics gatewayMetrics,
+            ResponseCaches responseCaches, RequestCoalescers requestCoalescers, Protections protections,
+            LoadBalancers loadBalancers, HedgePolicies hedgePolicies, ResponseStreams responseStreams,
+            ResponseCompressors responseCompressors, RateLimiters rateLimiters, WireFormats wireFormats,
+            Tracer tracer, Bulkheads bulkheads) {
         this.gatewayProperties = gatewayProperties;
         this.loggingFilter = loggingFilter;
         this.responseRewriteFilter = responseRewriteFilter;
+        this.gatewayMetrics = gatewayMetrics;
+        this.responseCaches = responseCaches;
+        this.requestCoalescers = requestCoalescers;
+        this.protections = protections;
+        this.loadBalancers = loadBalancers;
+        this.hedgePolicies = hedgePolicies;
+        this.responseStreams = responseStreams;
+        this.responseCompressors = responseCompressors;
+        this.rateLimiters = rateLimiters;
+        this.wireFormats = wireFormats;
+        this.tracer = tracer;
+        this.bulkheads = bulkheads;
     }
 
     @PostConstruct
     public void init() {
         log.info("========== Gateway Routes Loaded ==========");
         for (GatewayProperties.RouteDefinition routeDef : gatewayProperties.getRoutes()) {
-            log.info("Route: {} - {} [{}] -> {}",
+            log.info("Route: {} - {} [{}{}] -> {}",
                     routeDef.getId(),
                     routeDef.getName(),
+                    routeDef.getPredicates() != null && routeDef.getPredicates().getHost() != null
+                            ? routeDef.getPredicates().getHost() : "",
                     routeDef.getPredicates() != null ? routeDef.getPredicates().getPath() : "N/A",
-                    routeDef.getUri());
+                    routeDef.isLoadBalanced() ? routeDef.targetUris() : routeDef.getUri());
         }
         log.info("============================================");
     }
 
     /**
-     * 动态路由配置 - 简单路由（无路径重写）
+     * 动态路由配置
+     * 所有路由在启动时编译为 RouteIndex，请求只做一次索引查找
      */
     @Bean
-    public RouterFunction<ServerResponse> simpleRoutes() {
-        List<GatewayProperties.RouteDefinition> routes = gatewayProperties.getRoutes();
+    public RouterFunction<ServerResponse> gatewayRoutes() {
+        return new IndexedRouterFunction(compileRoutes());
+    }
 
-        RouterFunctions.Builder builder = RouterFunctions.route();
+    /**
+     * 将路由定义编译为 域名 -> 方法 -> 路径前缀树 索引
+     */
+    RouteIndex<CompiledRoute> compileRoutes() {
+        RouteIndex<CompiledRoute> index = new RouteIndex<>();
 
-        for (GatewayProperties.RouteDefinition routeDef : routes) {
-            // 只处理没有 rewrite 配置的路由
-            if (routeDef.getRewrite() == null || routeDef.getRewrite().getFrom() == null) {
-                addSimpleRoute(builder, routeDef);
+        for (GatewayProperties.RouteDefinition routeDef : gatewayProperties.getRoutes()) {
+            if (routeDef.getPredicates() == null || routeDef.getPredicates().getPath() == null) {
+                continue;
+            }
+
+            GatewayProperties.PredicateDefinition pred = routeDef.getPredicates();
+            CompiledRoute route = new CompiledRoute(routeDef, buildHandler(routeDef));
+            if (!index.add(pred.getHost(), pred.getMethod(), pred.getPath(), route)) {
+                log.warn("Duplicate route {} ignored: {} {} {}",
+                        routeDef.getId(), pred.getHost(), pred.getMethod(), pred.getPath());
             }
         }
 
-        return builder.build();
+        log.debug("Compiled {} routes", index.size());
+        return index;
     }
 
     /**
-     * 动态路由配置 - 路径重写路由
-     * 使用 Spring Cloud Gateway MVC 的 rewritePath 功能
+     * 组装路由的处理函数
+     * [追踪] -> 指标 -> [rewritePath] -> 日志 -> [限流] -> [舱壁] -> [压缩] -> [响应缓存] -> [请求合并] -> [熔断/限流] -> [流式透传] -> [报文格式] -> [响应体重写] -> [对冲] -> [目标选择] -> 转发，方括号内为按配置启用的环节
      */
-    @Bean
-    public RouterFunction<ServerResponse> rewriteRoutes() {
-        List<GatewayProperties.RouteDefinition> routes = gatewayProperties.getRoutes();
-
-        RouterFunction<ServerResponse> combined = null;
-
-        for (GatewayProperties.RouteDefinition routeDef : routes) {
-            // 只处理有 rewrite 配置的路由
-            if (routeDef.getRewrite() != null && routeDef.getRewrite().getFrom() != null) {
-                RouterFunction<ServerResponse> routeFunc = createRewriteRoute(routeDef);
-                if (combined == null) {
-                    combined = routeFunc;
-                } else {
-                    combined = combined.and(routeFunc);
-                }
+    private HandlerFunction<ServerResponse> buildHandler(GatewayProperties.RouteDefinition routeDef) {
+        RouteMetrics routeMetrics = gatewayMetrics.forRoute(routeDef);
+        boolean rewrite = routeDef.getRewrite() != null && routeDef.getRewrite().getFrom() != null;
+
+        // 追踪位于最外层，Server-Timing 覆盖指标在内的全部过滤器
+        RouteTracingFilter tracing = tracer.forRoute(routeDef);
+        HandlerFilterFunction<ServerResponse, ServerResponse> chain =
+                tracing != null ? tracing.andThen(routeMetrics) : routeMetrics;
+        if (rewrite) {
+            String rewriteFrom = routeDef.getRewrite().getFrom();
+            String rewriteTo = routeDef.getRewrite().getTo();
+            log.debug("Creating rewrite route: {} with pattern {} -> rewrite {} to {}",
+                    routeDef.getId(), routeDef.getPredicates().getPath(), rewriteFrom, rewriteTo);
+            Function<ServerRequest, ServerRequest> rewriter = rewritePath(rewriteFrom, rewriteTo);
+            if (tracing != null) {
+                rewriter = tracing.rewritten(rewriter);
             }
+            chain = chain.andThen(HandlerFilterFunction.ofRequestProcessor(rewriter));
         }
+        chain = chain.andThen(loggingFilter.forRoute(routeDef));
 
-        return combined != null ? combined : RouterFunctions.route().build();
-    }
-
-    private void addSimpleRoute(RouterFunctions.Builder builder, GatewayProperties.RouteDefinition routeDef) {
-        if (routeDef.getPredicates() == null || routeDef.getPredicates().getPath() == null) {
-            return;
+        // 限流最先执行，被拒绝的请求不占用缓存、保护许可与上游
+        RouteRateLimitFilter rateLimit = rateLimiters.forRoute(routeDef);
+        if (rateLimit != null) {
+            chain = chain.andThen(rateLimit);
         }
-
-        RequestPredicate predicate = buildPredicate(routeDef);
-
-        builder.route(predicate, request -> {
-            logRequest(routeDef, request);
-            long startTime = System.currentTimeMillis();
-
-            try {
-                ServerResponse response = HandlerFunctions.http(routeDef.getUri()).handle(request);
-                logResponse(routeDef, startTime);
-                return response;
-            } catch (Exception e) {
-                log.error("Route {} failed: {}", routeDef.getId(), e.getMessage());
-                throw e;
-            }
-        });
-
-        log.debug("Added simple route: {}", routeDef.getId());
-    }
-
-    private RouterFunction<ServerResponse> createRewriteRoute(GatewayProperties.RouteDefinition routeDef) {
-        String pathPattern = routeDef.getPredicates().getPath();
-        String rewriteFrom = routeDef.getRewrite().getFrom();
-        String rewriteTo = routeDef.getRewrite().getTo();
-
-        log.debug("Creating rewrite route: {} with pattern {} -> rewrite {} to {}",
-                routeDef.getId(), pathPattern, rewriteFrom, rewriteTo);
-
-        return route(routeDef.getId())
-                .route(path(pathPattern), HandlerFunctions.http(routeDef.getUri()))
-                .before(rewritePath(rewriteFrom, rewriteTo))
-                .filter(loggingFilter)
-                .filter(responseRewriteFilter)
-                .build();
-    }
-
-    private RequestPredicate buildPredicate(GatewayProperties.RouteDefinition routeDef) {
-        GatewayProperties.PredicateDefinition pred = routeDef.getPredicates();
-
-        String pathPattern = pred.getPath();
-        RequestPredicate predicate = path(pathPattern);
-
-        if (pred.getMethod() != null) {
-            HttpMethod httpMethod = HttpMethod.valueOf(pred.getMethod().toUpperCase());
-            predicate = predicate.and(method(httpMethod));
+        // 舱壁位于缓存与合并之外，排队等待合并结果的请求同样占用请求线程
+        RouteBulkheadFilter bulkhead = bulkheads.forRoute(routeDef);
+        if (bulkhead != null) {
+            chain = chain.andThen(bulkhead);
+        }
+        // 压缩位于缓存之外，缓存条目保存未压缩响应，压缩结果作为其变体复用
+        RouteCompressionFilter compression = responseCompressors.forRoute(routeDef);
+        if (compression != null) {
+            chain = chain.andThen(compression);
+        }
+        // 缓存位于响应体重写之后（外层），缓存的是重写后的响应
+        RouteResponseCache responseCache = responseCaches.forRoute(routeDef);
+        if (responseCache != null) {
+            chain = chain.andThen(responseCache);
+        }
+        RouteRequestCoalescer coalescer = requestCoalescers.forRoute(routeDef);
+        if (coalescer != null) {
+            chain = chain.andThen(coalescer);
+        }
+        // 缓存命中与合并共享的请求不访问上游，不占用保护许可
+        RouteProtectionFilter protection = protections.forRoute(routeDef);
+        if (protection != null) {
+            chain = chain.andThen(protection);
+        }
+        // 流式透传位于响应体重写之外，包装的是重写后的响应流
+        RouteStreamingFilter streaming = responseStreams.forRoute(routeDef);
+        if (streaming != null) {
+            chain = chain.andThen(streaming);
+        }
+        // 报文格式位于响应体重写之外，重写过滤器直接解析上游的二进制响应并写成协商的格式
+        RouteWireFormatFilter wireFormat = wireFormats.forRoute(routeDef);
+        if (wireFormat != null) {
+            chain = chain.andThen(wireFormat);
+        }
+        if (rewrite) {
+            chain = chain.andThen(responseRewriteFilter.forRoute(routeDef));
+        }
+        // 对冲在目标选择之前，对冲请求可以发往另一个目标
+        RouteHedgingFilter hedging = hedgePolicies.forRoute(routeDef);
+        if (hedging != null) {
+            chain = chain.andThen(hedging);
         }
 
-        return predicate;
-    }
-
-    private void logRequest(GatewayProperties.RouteDefinition routeDef, ServerRequest request) {
-        log.info("[{}] {} {} -> {}",
-                routeDef.getId(),
-                request.method(),
-                request.path(),
-                routeDef.getUri());
+        // 目标选择紧挨转发，在途请求数与 EWMA 只统计真正发往上游的调用
+        LoadBalancedRoute loadBalancer = loadBalancers.forRoute(routeDef);
+        if (loadBalancer != null) {
+            return chain.andThen(loadBalancer).apply(upstream(routeMetrics, tracing, HandlerFunctions.http()));
+        }
+        return chain.apply(upstream(routeMetrics, tracing, HandlerFunctions.http(routeDef.targetUris().get(0))));
     }
 
-    private void logResponse(GatewayProperties.RouteDefinition routeDef, long startTime) {
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("[{}] Response in {}ms", routeDef.getId(), duration);
+    /**
+     * 转发处理函数：上游指标 -> [追踪] -> 转发
+     */
+    private static HandlerFunction<ServerResponse> upstream(RouteMetrics routeMetrics, RouteTracingFilter tracing,
+            HandlerFunction<ServerResponse> http) {
+        return routeMetrics.upstream(tracing != null ? tracing.upstream(http) : http);
     }
 }
@@ -0,0 +1,266 @@
+package com.example.studiodemo.config;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 路由表预编译
+ * fast-startup 构建在 process-classes 阶段执行：读取 application.yml 的 gateway 配置，生成 GeneratedGatewayProperties 源码，
+ * 运行时以普通 setter 调用构建 GatewayProperties，不再经过 Binder 的反射绑定。
+ * 占位符（如 ${downstream.mvc-demo.url}）原样保留到运行时解析；只输出与默认值不同的属性
+ *
+ * 用法：RouteTableGenerator &lt;生成源码目录&gt;
+ */
+public final class RouteTableGenerator {
+
+    /**
+     * 每个生成方法添加的列表元素数，避免上万条路由时单个方法超过 64KB 字节码限制
+     */
+    static final int ELEMENTS_PER_METHOD = 256;
+
+    private static final String INDENT = "        ";
+
+    private final StringBuilder methods = new StringBuilder();
+    private int methodCount;
+
+    private RouteTableGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: RouteTableGenerator <output-directory>");
+        }
+        byte[] source = new ClassPathResource(PrecompiledRoutes.SOURCE).getContentAsByteArray();
+        Path file = Path.of(args[0]).resolve(PrecompiledRoutes.GENERATED_CLASS.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, generate(source));
+        System.out.println("Generated " + file);
+    }
+
+    /**
+     * 由 application.yml 内容生成源码
+     */
+    static String generate(byte[] source) throws IOException {
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader()
+                .load(PrecompiledRoutes.SOURCE, new ByteArrayResource(source));
+        // 不传 PlaceholdersResolver，占位符保留为原始字符串
+        GatewayProperties properties = new Binder(ConfigurationPropertySources.from(sources))
+                .bindOrCreate(GatewayPropertiesConfig.PREFIX, GatewayProperties.class);
+        return generate(properties, PrecompiledRoutes.digest(source));
+    }
+
+    static String generate(GatewayProperties properties, String digest) {
+        RouteTableGenerator generator = new RouteTableGenerator();
+        StringBuilder body = new StringBuilder();
+        String root = generator.bean(properties, body, new Locals());
+
+        String className = PrecompiledRoutes.GENERATED_CLASS;
+        int lastDot = className.lastIndexOf('.');
+        return """
+                package %s;
+
+                import org.springframework.core.env.PropertyResolver;
+
+                /**
+                 * 由 RouteTableGenerator 根据 application.yml 生成，请勿修改
+                 */
+                public final class %s implements PrecompiledGatewayProperties {
+
+                    @Override
+                    public String sourceDigest() {
+                        return "%s";
+                    }
+
+                    @Override
+                    public GatewayProperties create(PropertyResolver resolver) {
+                %s        return %s;
+                    }
+                %s}
+                """.formatted(className.substring(0, lastDot), className.substring(lastDot + 1), digest,
+                body, root, generator.methods);
+    }
+
+    /**
+     * 在 body 中创建并填充对象，返回局部变量名
+     */
+    private String bean(Object bean, StringBuilder body, Locals locals) {
+        Class<?> type = bean.getClass();
+        String var = locals.next();
+        body.append(INDENT).append(typeName(type)).append(' ').append(var)
+                .append(" = new ").append(typeName(type)).append("();\n");
+
+        BeanWrapper values = new BeanWrapperImpl(bean);
+        BeanWrapper defaults = new BeanWrapperImpl(BeanUtils.instantiateClass(type));
+        for (PropertyDescriptor property : values.getPropertyDescriptors()) {
+            if (property.getReadMethod() == null || property.getWriteMethod() == null) {
+                continue;
+            }
+            Object value = values.getPropertyValue(property.getName());
+            if (Objects.equals(value, defaults.getPropertyValue(property.getName()))) {
+                continue;
+            }
+            String expression = value == null ? "null"
+                    : expression(value, ResolvableType.forMethodReturnType(property.getReadMethod()), body, locals);
+            body.append(INDENT).append(var).append('.').append(property.getWriteMethod().getName())
+                    .append('(').append(expression).append(");\n");
+        }
+        return var;
+    }
+
+    private String expression(Object value, ResolvableType type, StringBuilder body, Locals locals) {
+        if (value instanceof String string) {
+            return string.contains("${") ? "resolver.resolveRequiredPlaceholders(" + literal(string) + ")" : literal(string);
+        }
+        if (value instanceof Integer || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof Long) {
+            return value + "L";
+        }
+        if (value instanceof Double) {
+            return value + "d";
+        }
+        if (value instanceof Duration duration) {
+            return "java.time.Duration.ofNanos(" + duration.toNanos() + "L)";
+        }
+        if (value instanceof DataSize size) {
+            return "org.springframework.util.unit.DataSize.ofBytes(" + size.toBytes() + "L)";
+        }
+        if (value instanceof Enum<?> constant) {
+            return typeName(constant.getDeclaringClass()) + "." + constant.name();
+        }
+        if (value instanceof List<?> list) {
+            return list(list, type.asCollection().getGeneric(0).toClass(), body, locals);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return map(map, type.asMap(), body, locals);
+        }
+        if (isBean(value.getClass())) {
+            return bean(value, body, locals);
+        }
+        throw new IllegalArgumentException("Unsupported property type " + value.getClass().getName());
+    }
+
+    /**
+     * 对象元素（路由、目标等）各自生成一个方法，并按 ELEMENTS_PER_METHOD 分组添加
+     */
+    private String list(List<?> list, Class<?> elementType, StringBuilder body, Locals locals) {
+        String var = locals.next();
+        body.append(INDENT).append("java.util.List<").append(typeName(elementType)).append("> ").append(var)
+                .append(" = new java.util.ArrayList<>(").append(list.size()).append(");\n");
+        if (!isBean(elementType)) {
+            for (Object element : list) {
+                body.append(INDENT).append(var).append(".add(")
+                        .append(expression(element, ResolvableType.forClass(elementType), body, locals)).append(");\n");
+            }
+            return var;
+        }
+
+        for (int from = 0; from < list.size(); from += ELEMENTS_PER_METHOD) {
+            StringBuilder adds = new StringBuilder();
+            for (Object element : list.subList(from, Math.min(list.size(), from + ELEMENTS_PER_METHOD))) {
+                adds.append(INDENT).append("list.add(").append(method(element)).append(");\n");
+            }
+            String name = "add" + elementType.getSimpleName() + "s" + methodCount++;
+            methods.append("\n    private static void ").append(name).append("(java.util.List<")
+                    .append(typeName(elementType)).append("> list, PropertyResolver resolver) {\n")
+                    .append(adds).append("    }\n");
+            body.append(INDENT).append(name).append('(').append(var).append(", resolver);\n");
+        }
+        return var;
+    }
+
+    private String map(Map<?, ?> map, ResolvableType type, StringBuilder body, Locals locals) {
+        ResolvableType keyType = type.getGeneric(0);
+        ResolvableType valueType = type.getGeneric(1);
+        String var = locals.next();
+        body.append(INDENT).append("java.util.Map<").append(typeName(keyType.toClass())).append(", ")
+                .append(typeName(valueType.toClass())).append("> ").append(var)
+                .append(" = new java.util.LinkedHashMap<>();\n");
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String key = expression(entry.getKey(), keyType, body, locals);
+            String value = expression(entry.getValue(), valueType, body, locals);
+            body.append(INDENT).append(var).append(".put(").append(key).append(", ").append(value).append(");\n");
+        }
+        return var;
+    }
+
+    /**
+     * 为对象生成独立的构建方法，返回调用表达式
+     */
+    private String method(Object bean) {
+        String name = StringUtils.uncapitalize(bean.getClass().getSimpleName()) + methodCount++;
+        StringBuilder body = new StringBuilder();
+        String var = bean(bean, body, new Locals());
+        methods.append("\n    private static ").append(typeName(bean.getClass())).append(' ').append(name)
+                .append("(PropertyResolver resolver) {\n")
+                .append(body)
+                .append(INDENT).append("return ").append(var).append(";\n")
+                .append("    }\n");
+        return name + "(resolver)";
+    }
+
+    private static boolean isBean(Class<?> type) {
+        return !type.isEnum() && type.getPackageName().equals(GatewayProperties.class.getPackageName());
+    }
+
+    private static String typeName(Class<?> type) {
+        return type.getCanonicalName();
+    }
+
+    /**
+     * Java 字符串字面量，非 ASCII 字符转义为 \\uXXXX
+     */
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    /**
+     * 方法内的局部变量命名
+     */
+    private static final class Locals {
+        private int count;
+
+        String next() {
+            return "v" + count++;
+        }
+    }
+}
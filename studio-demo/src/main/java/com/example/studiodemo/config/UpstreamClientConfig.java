@@ -0,0 +1,32 @@
+package com.example.studiodemo.config;
+
+import com.example.studiodemo.upstream.UpstreamConnectionPools;
+import com.example.studiodemo.upstream.UpstreamPoolsEndpoint;
+import com.example.studiodemo.warmup.WarmUpUpstream;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * 上游连接配置
+ * 提供给 Gateway 代理使用的按上游划分连接池的 ClientHttpRequestFactory
+ */
+@Configuration
+public class UpstreamClientConfig {
+
+    @Bean
+    public UpstreamConnectionPools upstreamConnectionPools(GatewayProperties gatewayProperties,
+            Environment environment, WarmUpUpstream warmUpUpstream) {
+        // 虚拟线程模式下 h2c 客户端的异步任务也运行在虚拟线程上
+        return new UpstreamConnectionPools(gatewayProperties,
+                Threading.VIRTUAL.isActive(environment) ? new VirtualThreadTaskExecutor("upstream-h2c-") : null,
+                warmUpUpstream::resolve);
+    }
+
+    @Bean
+    public UpstreamPoolsEndpoint upstreamPoolsEndpoint(UpstreamConnectionPools upstreamConnectionPools) {
+        return new UpstreamPoolsEndpoint(upstreamConnectionPools);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.studiodemo.config;
+
+import com.example.studiodemo.support.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 虚拟线程执行模式（Java 21+，spring.threads.virtual.enabled=true 时生效）
+ *
+ * Tomcat 请求处理由 Spring Boot 切换到虚拟线程，网关代理与编排调用在请求线程上阻塞时只挂起虚拟线程；
+ * h2c 上游客户端见 UpstreamClientConfig；此处额外启用钉住监控
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${gateway.virtual-threads.pinned-threshold:20ms}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(threshold, meterRegistry);
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.studiodemo.config;
 
+import com.example.studiodemo.codec.WireFormat;
+import com.example.studiodemo.resilience.Protections;
+import com.example.studiodemo.tracing.Tracer;
+import com.example.studiodemo.warmup.WarmUpUpstream;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
@@ -14,10 +20,26 @@ public class WebClientConfig {
     @Value("${downstream.mvc-demo.url:http://localhost:8081}")
     private String mvcDemoUrl;
 
+    /**
+     * 访问下游时应用与网关路由共享的上游保护（熔断 + 并发限制）
+     * 按 orchestration.wire-format 请求 Smile / CBOR，响应直接由二进制解码（Smile 编解码器默认注册，CBOR 需手动注册）；
+     * 预热的地址替换位于上游保护之内，替身上游的调用同样经过熔断与并发限制；
+     * 订阅上下文中有追踪上下文的调用携带 traceparent
+     */
     @Bean
-    public WebClient mvcDemoWebClient() {
+    public WebClient mvcDemoWebClient(Protections protections, OrchestrationProperties orchestrationProperties,
+            WarmUpUpstream warmUpUpstream, Tracer tracer) {
+        WireFormat wireFormat = orchestrationProperties.getWireFormat();
         return WebClient.builder()
                 .baseUrl(mvcDemoUrl)
+                .codecs(codecs -> {
+                    codecs.customCodecs().register(new Jackson2CborDecoder());
+                    codecs.customCodecs().register(new Jackson2CborEncoder());
+                })
+                .defaultHeaders(headers -> headers.setAccept(wireFormat.accept()))
+                .filter(protections.exchangeFilter())
+                .filter(warmUpUpstream.exchangeFilter())
+                .filter(tracer.exchangeFilter())
                 .build();
     }
 }
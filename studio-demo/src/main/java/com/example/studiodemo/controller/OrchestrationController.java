@@ -1,15 +1,50 @@
 package com.example.studiodemo.controller;
 
+import com.example.studiodemo.batch.MicroBatcher;
+import com.example.studiodemo.bulkhead.Bulkhead;
+import com.example.studiodemo.bulkhead.BulkheadFullException;
+import com.example.studiodemo.bulkhead.Bulkheads;
+import com.example.studiodemo.cache.MemoCache;
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.config.OrchestrationProperties;
+import com.example.studiodemo.hedge.HedgePolicy;
 import com.example.studiodemo.model.ApiResponse;
+import com.example.studiodemo.ratelimit.KeyedRateLimiter;
+import com.example.studiodemo.ratelimit.RateLimitedException;
+import com.example.studiodemo.ratelimit.RateLimiters;
+import com.example.studiodemo.resilience.CallRejectedException;
+import com.example.studiodemo.tracing.TraceContext;
+import com.example.studiodemo.warmup.WarmUpFinishedEvent;
+import com.example.studiodemo.warmup.WarmUpRequests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * 编排控制器
@@ -17,34 +52,98 @@ import org.springframework.web.reactive.function.client.WebClient;
  */
 @RestController
 @RequestMapping("/orchestration")
-public class OrchestrationController {
+public class OrchestrationController implements DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(OrchestrationController.class);
 
+    static final String STEP_HELLO = "hello";
+    static final String STEP_HELLO_NAME = "hello-name";
+
+    static final String ENDPOINT_CALL_HELLO = "call-hello";
+    static final String ENDPOINT_CALL_HELLO_NAME = "call-hello-name";
+    static final String ENDPOINT_AGGREGATE = "aggregate";
+
+    private static final ParameterizedTypeReference<ApiResponse<String>> STRING_RESPONSE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<List<ApiResponse<String>>> STRING_RESPONSES =
+            new ParameterizedTypeReference<>() {
+            };
+
     private final WebClient mvcDemoWebClient;
+    private final OrchestrationProperties orchestrationProperties;
+    private final WarmUpRequests warmUpRequests;
+
+    private final Timer callHelloTimer;
+    private final Timer callHelloWithNameTimer;
+    private final Timer aggregateTimer;
+    private final Map<String, StepTimers> stepTimers;
+    private final Map<String, HedgePolicy> hedgePolicies = new HashMap<>();
+    private final Map<String, KeyedRateLimiter> rateLimiters = new HashMap<>();
+    private final Map<String, Bulkhead> bulkheads = new HashMap<>();
+    private final MemoCache<String, ApiResponse<String>> helloCache;
+    private final MemoCache<String, ApiResponse<String>> helloWithNameCache;
+    private final MemoCache<String, ApiResponse<AggregatedResult>> aggregateCache;
+    private final MicroBatcher<String, ApiResponse<String>> helloWithNameBatcher;
 
-    public OrchestrationController(WebClient mvcDemoWebClient) {
+    public OrchestrationController(WebClient mvcDemoWebClient, OrchestrationProperties orchestrationProperties,
+            MeterRegistry meterRegistry, RateLimiters rateLimiters, Bulkheads bulkheads,
+            WarmUpRequests warmUpRequests) {
         this.mvcDemoWebClient = mvcDemoWebClient;
+        this.orchestrationProperties = orchestrationProperties;
+        this.warmUpRequests = warmUpRequests;
+        this.callHelloTimer = endpointTimer(meterRegistry, ENDPOINT_CALL_HELLO);
+        this.callHelloWithNameTimer = endpointTimer(meterRegistry, ENDPOINT_CALL_HELLO_NAME);
+        this.aggregateTimer = endpointTimer(meterRegistry, ENDPOINT_AGGREGATE);
+        this.stepTimers = Map.of(
+                STEP_HELLO, StepTimers.register(meterRegistry, STEP_HELLO),
+                STEP_HELLO_NAME, StepTimers.register(meterRegistry, STEP_HELLO_NAME));
+        for (String step : List.of(STEP_HELLO, STEP_HELLO_NAME)) {
+            GatewayProperties.HedgeDefinition hedge = orchestrationProperties.getStep(step).getHedge();
+            if (hedge != null) {
+                hedgePolicies.put(step, new HedgePolicy("step", step, hedge, meterRegistry));
+            }
+        }
+        for (String endpoint : List.of(ENDPOINT_CALL_HELLO, ENDPOINT_CALL_HELLO_NAME, ENDPOINT_AGGREGATE)) {
+            KeyedRateLimiter limiter = rateLimiters.forEndpoint(endpoint,
+                    orchestrationProperties.getRateLimits().get(endpoint));
+            if (limiter != null) {
+                this.rateLimiters.put(endpoint, limiter);
+            }
+            Bulkhead bulkhead = bulkheads.forEndpoint(endpoint, orchestrationProperties.getBulkheads().get(endpoint));
+            if (bulkhead != null) {
+                this.bulkheads.put(endpoint, bulkhead);
+            }
+        }
+
+        OrchestrationProperties.BatchDefinition batch = orchestrationProperties.getStep(STEP_HELLO_NAME).getBatch();
+        this.helloWithNameBatcher = batch != null
+                ? new MicroBatcher<>(STEP_HELLO_NAME, batch, this::loadHelloBatch, meterRegistry) : null;
+        this.helloCache = memo(meterRegistry, STEP_HELLO, orchestrationProperties.getStep(STEP_HELLO).getCache(),
+                key -> loadHello(), response -> true);
+        this.helloWithNameCache = memo(meterRegistry, STEP_HELLO_NAME,
+                orchestrationProperties.getStep(STEP_HELLO_NAME).getCache(), this::loadHelloWithName,
+                response -> true);
+        // 含降级分支的部分结果不缓存
+        this.aggregateCache = memo(meterRegistry, ENDPOINT_AGGREGATE, orchestrationProperties.getAggregateCache(),
+                this::aggregate, response -> "success".equals(response.getMsg()));
     }
 
     /**
      * 编排调用示例：调用 mvc-demo 的 /mvc/demo/hello 接口
      */
     @GetMapping("/call/hello")
-    public ApiResponse<String> callHello() {
+    public ApiResponse<String> callHello(HttpServletRequest request) {
+        admit(ENDPOINT_CALL_HELLO, request);
         log.info("[Orchestration] Calling mvc-demo /mvc/demo/hello");
 
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
-        ApiResponse<String> response = mvcDemoWebClient.get()
-                .uri("/mvc/demo/hello")
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<ApiResponse<String>>() {
-                })
-                .block();
+        ApiResponse<String> response = isolated(ENDPOINT_CALL_HELLO, () -> traced(fetchHello(), request).block());
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("[Orchestration] Response received in {}ms: {}", duration, response);
+        long duration = System.nanoTime() - startTime;
+        record(callHelloTimer, request, duration);
+        log.info("[Orchestration] Response received in {}ms: {}", TimeUnit.NANOSECONDS.toMillis(duration), response);
 
         return response;
     }
@@ -53,58 +152,283 @@ public class OrchestrationController {
      * 编排调用示例：调用 mvc-demo 的 /mvc/demo/hello/{name} 接口
      */
     @GetMapping("/call/hello/{name}")
-    public ApiResponse<String> callHelloWithName(@PathVariable String name) {
+    public ApiResponse<String> callHelloWithName(@PathVariable String name, HttpServletRequest request) {
+        admit(ENDPOINT_CALL_HELLO_NAME, request);
         log.info("[Orchestration] Calling mvc-demo /mvc/demo/hello/{}", name);
 
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
-        ApiResponse<String> response = mvcDemoWebClient.get()
-                .uri("/mvc/demo/hello/{name}", name)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<ApiResponse<String>>() {
-                })
-                .block();
+        ApiResponse<String> response = isolated(ENDPOINT_CALL_HELLO_NAME,
+                () -> traced(fetchHelloWithName(name), request).block());
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("[Orchestration] Response received in {}ms: {}", duration, response);
+        long duration = System.nanoTime() - startTime;
+        record(callHelloWithNameTimer, request, duration);
+        log.info("[Orchestration] Response received in {}ms: {}", TimeUnit.NANOSECONDS.toMillis(duration), response);
 
         return response;
     }
 
     /**
-     * 多服务编排示例：顺序调用多个接口并聚合结果
+     * 多服务编排示例：并发调用多个接口并聚合结果
+     * 每个分支独立超时与降级，任一分支降级时返回部分结果（msg 为 partial）；
+     * 返回 Mono，等待下游期间不占用请求线程
      */
     @GetMapping("/aggregate/{name}")
-    public ApiResponse<AggregatedResult> aggregateCall(@PathVariable String name) {
+    public Mono<ApiResponse<AggregatedResult>> aggregateCall(@PathVariable String name,
+            HttpServletRequest request) {
+        admit(ENDPOINT_AGGREGATE, request);
         log.info("[Orchestration] Aggregating calls for name: {}", name);
 
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
+        Mono<ApiResponse<AggregatedResult>> result =
+                aggregateCache != null ? aggregateCache.get(name) : aggregate(name);
+        return isolated(ENDPOINT_AGGREGATE, traced(result, request)).doOnNext(response ->
+                record(aggregateTimer, request, System.nanoTime() - startTime));
+    }
+
+    /**
+     * 记录接口耗时，预热请求不计入
+     */
+    private void record(Timer timer, HttpServletRequest request, long nanos) {
+        if (!warmUpRequests.isWarmUp(request)) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Mono<ApiResponse<AggregatedResult>> aggregate(String name) {
+        return Mono.defer(() -> {
+            long startTime = System.nanoTime();
+            return Mono.zip(
+                            step(STEP_HELLO, fetchHello()),
+                            step(STEP_HELLO_NAME, fetchHelloWithName(name)))
+                    .map(results -> {
+                        // 聚合结果
+                        AggregatedResult result = new AggregatedResult(results.getT1().data(), results.getT2().data());
+                        boolean partial = results.getT1().fallback() || results.getT2().fallback();
+
+                        log.info("[Orchestration] Aggregated response in {}ms{}",
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                                partial ? " (partial)" : "");
+
+                        return partial ? ApiResponse.success("partial", result) : ApiResponse.success(result);
+                    });
+        });
+    }
+
+    /**
+     * 接口配置了限流时申请许可，超过额度抛出 RateLimitedException，在发起下游调用之前拒绝
+     */
+    private void admit(String endpoint, HttpServletRequest request) {
+        KeyedRateLimiter limiter = rateLimiters.get(endpoint);
+        if (limiter != null) {
+            limiter.acquire(request);
+        }
+    }
+
+    /**
+     * 接口配置了舱壁时在持有许可期间执行阻塞调用，舱壁已满时抛出 BulkheadFullException
+     */
+    private <T> T isolated(String endpoint, Supplier<T> call) {
+        Bulkhead bulkhead = bulkheads.get(endpoint);
+        if (bulkhead == null) {
+            return call.get();
+        }
+        bulkhead.acquire();
+        try {
+            return call.get();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * 接口配置了舱壁时在请求线程上申请许可，Mono 结束、出错或被取消（异步请求超时）时归还；
+     * 许可在结束信号传给下游之前归还，订阅者拿到结果时许可已可用。
+     * 异步接口应配置 max-queue: 0，否则许可用完时请求线程会在此排队等待
+     */
+    private <T> Mono<T> isolated(String endpoint, Mono<T> call) {
+        Bulkhead bulkhead = bulkheads.get(endpoint);
+        if (bulkhead == null) {
+            return call;
+        }
+        bulkhead.acquire();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        };
+        return call.doOnTerminate(release).doOnCancel(release);
+    }
+
+    /**
+     * 下游调用与编排分支关联到请求的追踪上下文；缓存未命中的加载同样关联，微批调用由多个请求共享，不关联。
+     * 预热请求在 Reactor Context 中带上标记，分支耗时不计入指标
+     */
+    private <T> Mono<T> traced(Mono<T> call, HttpServletRequest request) {
+        TraceContext trace = TraceContext.of(request);
+        return (trace != null ? trace.propagate(call) : call)
+                .contextWrite(context -> warmUpRequests.propagate(request, context));
+    }
+
+    /**
+     * 步骤配置了 cache 时读取已解码的缓存结果
+     */
+    private Mono<ApiResponse<String>> fetchHello() {
+        return helloCache != null ? helloCache.get("") : loadHello();
+    }
+
+    private Mono<ApiResponse<String>> fetchHelloWithName(String name) {
+        return helloWithNameCache != null ? helloWithNameCache.get(name) : loadHelloWithName(name);
+    }
 
-        // 调用第一个接口
-        ApiResponse<String> helloResponse = mvcDemoWebClient.get()
+    private Mono<ApiResponse<String>> loadHello() {
+        return hedged(STEP_HELLO, mvcDemoWebClient.get()
                 .uri("/mvc/demo/hello")
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<ApiResponse<String>>() {
-                })
-                .block();
+                .bodyToMono(STRING_RESPONSE));
+    }
 
-        // 调用第二个接口
-        ApiResponse<String> nameResponse = mvcDemoWebClient.get()
+    /**
+     * 配置了 batch 时由微批处理器合并为批量调用
+     */
+    private Mono<ApiResponse<String>> loadHelloWithName(String name) {
+        if (helloWithNameBatcher != null) {
+            return helloWithNameBatcher.get(name);
+        }
+        return hedged(STEP_HELLO_NAME, mvcDemoWebClient.get()
                 .uri("/mvc/demo/hello/{name}", name)
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<ApiResponse<String>>() {
-                })
-                .block();
+                .bodyToMono(STRING_RESPONSE));
+    }
+
+    private Mono<List<ApiResponse<String>>> loadHelloBatch(List<String> names) {
+        return hedged(STEP_HELLO_NAME, mvcDemoWebClient.post()
+                .uri("/mvc/demo/hello/batch")
+                .contentType(orchestrationProperties.getWireFormat().mediaType())
+                .bodyValue(names)
+                .retrieve()
+                .bodyToMono(STRING_RESPONSES));
+    }
+
+    /**
+     * 步骤配置了 hedge 时对下游调用做对冲（WebClient 的 Mono 每次订阅都会发出新请求）
+     */
+    private <T> Mono<T> hedged(String stepName, Mono<T> call) {
+        HedgePolicy policy = hedgePolicies.get(stepName);
+        return policy != null ? policy.hedge(call) : call;
+    }
+
+    /**
+     * 为编排分支加上步骤超时与降级，请求被采样时记录分支的起止时间
+     */
+    private Mono<StepResult> step(String stepName, Mono<ApiResponse<String>> call) {
+        OrchestrationProperties.StepDefinition step = orchestrationProperties.getStep(stepName);
+        StepTimers timers = stepTimers.get(stepName);
+        return Mono.deferContextual(context -> {
+            long startTime = System.nanoTime();
+            TraceContext trace = TraceContext.of(context);
+            return call
+                    .map(response -> new StepResult(response.getData(), false))
+                    .timeout(step.getTimeout())
+                    .onErrorResume(e -> {
+                        log.warn("[Orchestration] Step {} failed, using fallback: {}", stepName, e.toString());
+                        return Mono.just(new StepResult(step.getFallback(), true));
+                    })
+                    .defaultIfEmpty(new StepResult(step.getFallback(), true))
+                    .doOnNext(result -> {
+                        if (!WarmUpRequests.isWarmUp(context)) {
+                            (result.fallback() ? timers.fallback() : timers.success())
+                                    .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                        }
+                        if (trace != null) {
+                            trace.span(stepName, startTime, result.fallback());
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 预热结束后丢弃步骤对冲的预热延迟样本；替身上游时还要丢弃缓存的替身结果
+     */
+    @EventListener
+    public void onWarmUpFinished(WarmUpFinishedEvent event) {
+        hedgePolicies.values().forEach(HedgePolicy::reset);
+        if (event.stubbedUpstream()) {
+            Stream.of(helloCache, helloWithNameCache, aggregateCache)
+                    .filter(Objects::nonNull)
+                    .forEach(MemoCache::invalidateAll);
+        }
+    }
+
+    /**
+     * 关闭时停止微批处理
+     */
+    @Override
+    public void destroy() {
+        if (helloWithNameBatcher != null) {
+            helloWithNameBatcher.dispose();
+        }
+    }
+
+    /**
+     * 下游过载保护拒绝调用时快速失败，返回 503
+     */
+    @ExceptionHandler(CallRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRejected(CallRejectedException e) {
+        log.warn("[Orchestration] {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.error("503", e.getMessage()));
+    }
+
+    /**
+     * 接口舱壁已满时快速失败，返回 503
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBulkheadFull(BulkheadFullException e) {
+        log.warn("[Orchestration] {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.error("503", e.getMessage()));
+    }
+
+    /**
+     * 超过限流额度时返回 429 与 Retry-After
+     */
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRateLimited(RateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error("429", e.getMessage()));
+    }
+
+    private static <V> MemoCache<String, V> memo(MeterRegistry registry, String name,
+            OrchestrationProperties.MemoDefinition definition, Function<String, Mono<V>> loader,
+            Predicate<V> cacheable) {
+        return definition != null ? MemoCache.create(name, definition, loader, cacheable, registry) : null;
+    }
+
+    private static Timer endpointTimer(MeterRegistry registry, String endpoint) {
+        return Timer.builder("gateway.orchestration.requests")
+                .tag("endpoint", endpoint)
+                .register(registry);
+    }
 
-        // 聚合结果
-        AggregatedResult result = new AggregatedResult(
-                helloResponse != null ? helloResponse.getData() : null,
-                nameResponse != null ? nameResponse.getData() : null);
+    /**
+     * 编排步骤计时器，按结果（成功 / 降级）区分
+     */
+    private record StepTimers(Timer success, Timer fallback) {
 
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("[Orchestration] Aggregated response in {}ms", duration);
+        static StepTimers register(MeterRegistry registry, String step) {
+            return new StepTimers(
+                    Timer.builder("gateway.orchestration.step").tags("step", step, "outcome", "success")
+                            .register(registry),
+                    Timer.builder("gateway.orchestration.step").tags("step", step, "outcome", "fallback")
+                            .register(registry));
+        }
+    }
 
-        return ApiResponse.success(result);
+    /**
+     * 编排分支结果
+     */
+    private record StepResult(String data, boolean fallback) {
     }
 
     /**
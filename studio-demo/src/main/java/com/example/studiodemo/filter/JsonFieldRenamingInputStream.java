@@ -0,0 +1,181 @@
+package com.example.studiodemo.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 流式 JSON 字段重命名输入流
+ * 逐个 token 从上游字节流读取并写入 JsonGenerator，只重命名顶层字段，嵌套值原样拷贝
+ * 非 JSON 对象（首个非空白字符不是 '{'）的响应体原样透传
+ *
+ * 解析与生成可使用不同的格式（Smile / CBOR -> JSON），转码与重命名在同一遍 token 拷贝中完成；
+ * 二进制输入不做首字节判断，始终逐 token 拷贝
+ */
+public final class JsonFieldRenamingInputStream extends InputStream {
+
+    private static final int TOKENS_PER_PUMP = 512;
+
+    private final JsonFactory parserFactory;
+    private final JsonFactory generatorFactory;
+    private final PushbackInputStream source;
+    private final Map<String, String> fieldMapping;
+    private final ChunkBuffer buffer = new ChunkBuffer();
+    private final byte[] single = new byte[1];
+
+    private JsonParser parser;
+    private JsonGenerator generator;
+    private Boolean passthrough;
+    private boolean finished;
+    private int pos;
+
+    JsonFieldRenamingInputStream(JsonFactory jsonFactory, InputStream source, Map<String, String> fieldMapping) {
+        this(jsonFactory, jsonFactory, source, fieldMapping);
+    }
+
+    public JsonFieldRenamingInputStream(JsonFactory parserFactory, JsonFactory generatorFactory,
+            InputStream source, Map<String, String> fieldMapping) {
+        this.parserFactory = parserFactory;
+        this.generatorFactory = generatorFactory;
+        this.source = new PushbackInputStream(source, 1);
+        this.fieldMapping = fieldMapping;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (passthrough == null) {
+            passthrough = !startsWithObject();
+        }
+        if (pos < buffer.size()) {
+            int n = Math.min(len, buffer.size() - pos);
+            System.arraycopy(buffer.array(), pos, b, off, n);
+            pos += n;
+            return n;
+        }
+        if (passthrough) {
+            return source.read(b, off, len);
+        }
+        while (pos >= buffer.size()) {
+            if (finished) {
+                return -1;
+            }
+            pump();
+        }
+        int n = Math.min(len, buffer.size() - pos);
+        System.arraycopy(buffer.array(), pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (parser != null) {
+            parser.close();
+        }
+        source.close();
+    }
+
+    /**
+     * 跳过前导空白并判断响应体是否为 JSON 对象；透传时已读取的字节会保存在缓冲区中
+     */
+    private boolean startsWithObject() throws IOException {
+        if (parserFactory.canHandleBinaryNatively()) {
+            parser = parserFactory.createParser(source);
+            generator = generatorFactory.createGenerator(buffer);
+            return true;
+        }
+        int c;
+        while ((c = source.read()) != -1) {
+            if (c == '{') {
+                source.unread(c);
+                parser = parserFactory.createParser(source);
+                generator = generatorFactory.createGenerator(buffer);
+                return true;
+            }
+            buffer.write(c);
+            if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void pump() throws IOException {
+        buffer.reset();
+        pos = 0;
+        for (int i = 0; i < TOKENS_PER_PUMP; i++) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                generator.close();
+                parser.close();
+                finished = true;
+                return;
+            }
+            if (token == JsonToken.FIELD_NAME && parser.getParsingContext().getParent().inRoot()) {
+                String name = parser.currentName();
+                generator.writeFieldName(fieldMapping.getOrDefault(name, name));
+            } else {
+                generator.copyCurrentEventExact(parser);
+            }
+        }
+        generator.flush();
+    }
+
+    /**
+     * 可复用的输出缓冲区，直接暴露底层数组避免 toByteArray 拷贝；
+     * 不使用 ByteArrayOutputStream，避免其 synchronized 方法在虚拟线程上产生监视器开销
+     */
+    private static final class ChunkBuffer extends OutputStream {
+
+        private byte[] buf = new byte[8192];
+        private int count;
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        int size() {
+            return count;
+        }
+
+        void reset() {
+            count = 0;
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(capacity, buf.length * 2));
+            }
+        }
+    }
+}
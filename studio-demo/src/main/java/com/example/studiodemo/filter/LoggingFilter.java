@@ -1,70 +1,76 @@
 package com.example.studiodemo.filter;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.studiodemo.accesslog.AsyncAccessLogger;
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.warmup.WarmUpRequests;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.function.HandlerFilterFunction;
 import org.springframework.web.servlet.function.HandlerFunction;
 import org.springframework.web.servlet.function.ServerRequest;
 import org.springframework.web.servlet.function.ServerResponse;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * 日志过滤器
- * 打印请求和返回报文，统计耗时时间
+ * 按采样率记录访问日志（路由、方法、原始路径、状态码、耗时、白名单请求头），
+ * 请求线程只写入环形缓冲区，格式化与输出由 AsyncAccessLogger 后台线程完成；失败请求始终记录，预热请求不记录
  */
 @Component
 public class LoggingFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
 
-    private static final Logger log = LoggerFactory.getLogger(LoggingFilter.class);
+    private final AsyncAccessLogger accessLogger;
+    private final WarmUpRequests warmUpRequests;
+    private final boolean enabled;
+    private final String routeId;
+    private final double sampleRate;
+
+    @Autowired
+    public LoggingFilter(AsyncAccessLogger accessLogger, WarmUpRequests warmUpRequests,
+            GatewayProperties gatewayProperties) {
+        this(accessLogger, warmUpRequests, gatewayProperties.getAccessLog().isEnabled(), null,
+                gatewayProperties.getAccessLog().getSampleRate());
+    }
+
+    private LoggingFilter(AsyncAccessLogger accessLogger, WarmUpRequests warmUpRequests, boolean enabled,
+            String routeId, double sampleRate) {
+        this.accessLogger = accessLogger;
+        this.warmUpRequests = warmUpRequests;
+        this.enabled = enabled;
+        this.routeId = routeId;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * 按路由生成过滤器，绑定路由 ID 并使用路由上配置的采样率
+     */
+    public LoggingFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        double rate = routeDef.getAccessLogSampleRate() != null ? routeDef.getAccessLogSampleRate() : sampleRate;
+        return new LoggingFilter(accessLogger, warmUpRequests, enabled, routeDef.getId(), rate);
+    }
 
     @Override
     public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
-        long startTime = System.currentTimeMillis();
+        if (!enabled || warmUpRequests.isWarmUp(request.servletRequest())) {
+            return next.handle(request);
+        }
 
-        // 记录请求信息
-        logRequest(request);
+        boolean sampled = sampleRate >= 1.0
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        long startTime = System.nanoTime();
 
         try {
-            // 执行请求
             ServerResponse response = next.handle(request);
-
-            // 记录响应信息和耗时
-            long duration = System.currentTimeMillis() - startTime;
-            logResponse(request, response, duration);
-
+            if (sampled) {
+                accessLogger.log(routeId, request.servletRequest(), response.statusCode().value(),
+                        System.nanoTime() - startTime, null);
+            }
             return response;
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            log.error("[Gateway] Request failed - URI: {} - Duration: {}ms - Error: {}",
-                    request.uri(), duration, e.getMessage());
+            accessLogger.log(routeId, request.servletRequest(), 0, System.nanoTime() - startTime,
+                    e.getClass().getSimpleName() + ": " + e.getMessage());
             throw e;
         }
     }
-
-    private void logRequest(ServerRequest request) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n========== Gateway Request ==========\n");
-        sb.append("Method: ").append(request.method()).append("\n");
-        sb.append("URI: ").append(request.uri()).append("\n");
-        sb.append("Path: ").append(request.path()).append("\n");
-
-        // 打印请求头
-        sb.append("Headers:\n");
-        request.headers().asHttpHeaders().forEach((name, values) -> {
-            sb.append("  ").append(name).append(": ").append(String.join(", ", values)).append("\n");
-        });
-
-        sb.append("======================================");
-        log.info(sb.toString());
-    }
-
-    private void logResponse(ServerRequest request, ServerResponse response, long duration) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n========== Gateway Response ==========\n");
-        sb.append("URI: ").append(request.uri()).append("\n");
-        sb.append("Status: ").append(response.statusCode()).append("\n");
-        sb.append("Duration: ").append(duration).append("ms\n");
-        sb.append("=======================================");
-        log.info(sb.toString());
-    }
 }
@@ -1,90 +1,116 @@
 package com.example.studiodemo.filter;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.studiodemo.codec.WireFormat;
+import com.example.studiodemo.config.GatewayProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cloud.gateway.server.mvc.filter.AfterFilterFunctions;
-import org.springframework.http.MediaType;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.function.HandlerFilterFunction;
 import org.springframework.web.servlet.function.HandlerFunction;
 import org.springframework.web.servlet.function.ServerRequest;
 import org.springframework.web.servlet.function.ServerResponse;
 
-import java.util.LinkedHashMap;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 /**
  * 响应体重写过滤器
- * 将返回报文中的 code, msg, data 字段重写为 code_t, msg_t, data_t
- * 
- * 使用 Spring Cloud Gateway MVC 的 modifyResponseBody 功能
+ * 将返回报文中的顶层字段按路由配置的映射表重命名，默认 code, msg, data -> code_t, msg_t, data_t
+ *
+ * 以流式方式处理：上游响应流被替换为逐 token 重写的输入流，
+ * 响应体不会被整体读入内存，也不会反序列化为对象
+ *
+ * 上游返回 Smile / CBOR 时直接解析二进制 token，并按协商结果（WireFormat.RESPONSE_FORMAT_ATTRIBUTE）
+ * 写成客户端需要的格式，重命名与转码在同一遍中完成
  */
 @Component
 public class ResponseRewriteFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
 
     private static final Logger log = LoggerFactory.getLogger(ResponseRewriteFilter.class);
-    private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @Override
-    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
-        // 使用 Spring Cloud Gateway MVC 提供的 modifyResponseBody after filter
-        // 返回类型是 BiFunction<ServerRequest, ServerResponse, ServerResponse>
-        var afterFilter = AfterFilterFunctions.modifyResponseBody(
-                String.class,
-                String.class,
-                null, // 不改变 Content-Type
-                (serverRequest, serverResponse, body) -> rewriteResponseBody(body));
+    /**
+     * 默认字段映射
+     */
+    public static final Map<String, String> DEFAULT_FIELD_MAPPING = Map.of(
+            "code", "code_t",
+            "msg", "msg_t",
+            "data", "data_t");
 
-        // 执行下游请求获取原始响应
-        ServerResponse originalResponse = next.handle(request);
+    private final Map<String, String> fieldMapping;
+
+    public ResponseRewriteFilter() {
+        this(DEFAULT_FIELD_MAPPING);
+    }
 
-        // 应用 after filter 修改响应体
-        return afterFilter.apply(request, originalResponse);
+    private ResponseRewriteFilter(Map<String, String> fieldMapping) {
+        this.fieldMapping = fieldMapping;
     }
 
     /**
-     * 重写响应体，将 code/msg/data 转换为 code_t/msg_t/data_t
+     * 按路由定义的字段映射创建过滤器，未配置时使用默认映射
      */
-    private String rewriteResponseBody(String body) {
-        if (body == null || body.isEmpty()) {
-            return body;
+    public ResponseRewriteFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        GatewayProperties.ResponseRewriteDefinition responseRewrite = routeDef.getResponseRewrite();
+        if (responseRewrite == null || responseRewrite.getFields().isEmpty()) {
+            return this;
         }
+        return new ResponseRewriteFilter(Map.copyOf(responseRewrite.getFields()));
+    }
 
-        try {
-            log.debug("Original response body: {}", body);
-
-            // 解析 JSON
-            Map<String, Object> originalMap = objectMapper.readValue(
-                    body, new TypeReference<Map<String, Object>>() {
-                    });
-
-            // 创建新的 Map，保持字段顺序
-            Map<String, Object> rewrittenMap = new LinkedHashMap<>();
-
-            for (Map.Entry<String, Object> entry : originalMap.entrySet()) {
-                String key = entry.getKey();
-                Object value = entry.getValue();
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        // 执行下游请求获取原始响应
+        ServerResponse response = next.handle(request);
 
-                // 重写字段名
-                String newKey = switch (key) {
-                    case "code" -> "code_t";
-                    case "msg" -> "msg_t";
-                    case "data" -> "data_t";
-                    default -> key;
-                };
+        InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+        WireFormat format = body != null ? rewritableFormat(response.headers()) : null;
+        if (format == null) {
+            return response;
+        }
+        WireFormat responseFormat = format;
+        if (format.isBinary()) {
+            WireFormat negotiated = MvcUtils.getAttribute(request, WireFormat.RESPONSE_FORMAT_ATTRIBUTE);
+            responseFormat = negotiated != null ? negotiated : format;
+        }
 
-                rewrittenMap.put(newKey, value);
-            }
+        // 替换上游响应流，写出响应时边读边重写
+        MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                new JsonFieldRenamingInputStream(format.factory(), responseFormat.factory(), body, fieldMapping));
+        response.headers().remove(HttpHeaders.CONTENT_LENGTH);
+        if (responseFormat != format) {
+            response.headers().setContentType(responseFormat.mediaType());
+        }
+        return response;
+    }
 
-            String rewrittenBody = objectMapper.writeValueAsString(rewrittenMap);
-            log.debug("Rewritten response body: {}", rewrittenBody);
+    /**
+     * 重写完整响应体，重写失败时返回原始内容
+     */
+    public byte[] rewriteResponseBody(byte[] body) {
+        if (body == null || body.length == 0) {
+            return body;
+        }
 
-            return rewrittenBody;
-        } catch (Exception e) {
+        try (InputStream in = new JsonFieldRenamingInputStream(
+                WireFormat.JSON.factory(), new ByteArrayInputStream(body), fieldMapping)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
             log.warn("Failed to rewrite response body, returning original: {}", e.getMessage());
             return body;
         }
     }
+
+    /**
+     * 可重写的响应格式（JSON、Smile、CBOR），已压缩或无法识别时返回 null
+     */
+    private WireFormat rewritableFormat(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return null;
+        }
+        return WireFormat.of(headers.getContentType());
+    }
 }
@@ -0,0 +1,43 @@
+package com.example.studiodemo.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对冲预算（令牌桶）
+ * 每个请求存入 budget-percent% 个令牌，每次对冲消耗 1 个，限制对冲带来的额外负载；
+ * 令牌以千分之一为单位存为整数，最多积累 MAX_TOKENS 个以限制突发
+ */
+final class HedgeBudget {
+
+    private static final long SCALE = 1000;
+    private static final long MAX_TOKENS = 10 * SCALE;
+
+    private final long depositPerRequest;
+    private final AtomicLong tokens = new AtomicLong(MAX_TOKENS);
+
+    HedgeBudget(int budgetPercent) {
+        this.depositPerRequest = budgetPercent * SCALE / 100;
+    }
+
+    void deposit() {
+        long current = tokens.get();
+        if (current < MAX_TOKENS) {
+            tokens.compareAndSet(current, Math.min(MAX_TOKENS, current + depositPerRequest));
+        }
+    }
+
+    boolean tryAcquire() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    void reset() {
+        tokens.set(MAX_TOKENS);
+    }
+}
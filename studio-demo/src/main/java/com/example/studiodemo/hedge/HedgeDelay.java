@@ -0,0 +1,85 @@
+package com.example.studiodemo.hedge;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于延迟分位数的对冲延迟
+ * 写入使用 HdrHistogram Recorder（无锁），最近 10 秒的样本按秒滚动；
+ * 每秒最多由一个请求线程顺带重新计算分位数，其余请求只读取 volatile 值。样本不足时使用 max-delay
+ */
+final class HedgeDelay {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final int WINDOW_SECONDS = 10;
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_SAMPLES = 100;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+
+    private final Recorder recorder = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram[] intervals = new Histogram[WINDOW_SECONDS];
+    private final Histogram window = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private final AtomicLong nextRefresh = new AtomicLong(System.nanoTime() + REFRESH_NANOS);
+    private int nextInterval;
+    private Histogram recycled;
+    private volatile long delayNanos;
+
+    HedgeDelay(double percentile, long minDelayNanos, long maxDelayNanos) {
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.delayNanos = maxDelayNanos;
+    }
+
+    void record(long nanos) {
+        recorder.recordValue(Math.min(HIGHEST_MICROS, Math.max(0, nanos / 1000)));
+    }
+
+    long delayNanos() {
+        long now = System.nanoTime();
+        long due = nextRefresh.get();
+        if (now - due >= 0 && nextRefresh.compareAndSet(due, now + REFRESH_NANOS)) {
+            refresh();
+        }
+        return delayNanos;
+    }
+
+    /**
+     * 丢弃全部样本，回到样本不足时的 max-delay
+     */
+    synchronized void reset() {
+        recorder.reset();
+        Arrays.fill(intervals, null);
+        nextInterval = 0;
+        delayNanos = maxDelayNanos;
+        nextRefresh.set(System.nanoTime() + REFRESH_NANOS);
+    }
+
+    private synchronized void refresh() {
+        Histogram interval = recorder.getIntervalHistogram(recycled);
+        recycled = intervals[nextInterval];
+        intervals[nextInterval] = interval;
+        nextInterval = (nextInterval + 1) % intervals.length;
+
+        window.reset();
+        for (Histogram histogram : intervals) {
+            if (histogram != null) {
+                window.add(histogram);
+            }
+        }
+        if (window.getTotalCount() < MIN_SAMPLES) {
+            delayNanos = maxDelayNanos;
+            return;
+        }
+        long nanos = TimeUnit.MICROSECONDS.toNanos(window.getValueAtPercentile(percentile));
+        delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, nanos));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.studiodemo.hedge;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.warmup.WarmUpFinishedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 对冲策略工厂
+ * 为配置了 hedge 的路由创建对冲过滤器；对冲分支在虚拟线程模式下运行在虚拟线程上，否则使用可伸缩的守护线程池
+ */
+@Component
+public class HedgePolicies implements DisposableBean {
+
+    static final String SCOPE_ROUTE = "route";
+
+    private final MeterRegistry registry;
+    private final ExecutorService platformExecutor;
+    private final AsyncTaskExecutor executor;
+    private final List<HedgePolicy> policies = new CopyOnWriteArrayList<>();
+
+    public HedgePolicies(MeterRegistry registry, Environment environment) {
+        this.registry = registry;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            this.platformExecutor = null;
+            this.executor = new VirtualThreadTaskExecutor("route-hedge-");
+        } else {
+            this.platformExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "route-hedge");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = new TaskExecutorAdapter(platformExecutor);
+        }
+    }
+
+    /**
+     * 路由的对冲过滤器，路由未配置 hedge 时返回 null
+     */
+    public RouteHedgingFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        GatewayProperties.HedgeDefinition definition = routeDef.getHedge();
+        if (definition == null) {
+            return null;
+        }
+        HedgePolicy policy = new HedgePolicy(SCOPE_ROUTE, routeDef.getId(), definition, registry);
+        policies.add(policy);
+        return new RouteHedgingFilter(policy, executor);
+    }
+
+    /**
+     * 预热请求的延迟（替身上游时不到 1ms）不代表真实上游，留在窗口中会把对冲延迟压到 min-delay，
+     * 预热结束后丢弃
+     */
+    @EventListener
+    public void onWarmUpFinished(WarmUpFinishedEvent event) {
+        policies.forEach(HedgePolicy::reset);
+    }
+
+    @Override
+    public void destroy() {
+        if (platformExecutor != null) {
+            platformExecutor.shutdownNow();
+        }
+    }
+}
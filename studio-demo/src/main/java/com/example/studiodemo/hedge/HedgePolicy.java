@@ -0,0 +1,133 @@
+package com.example.studiodemo.hedge;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 对冲策略：对冲延迟、预算与指标
+ * 请求在 delay（上游延迟的 percentile 分位数，限定在 [min-delay, max-delay]）内未返回且预算允许时，
+ * 再发出一个相同的请求，先返回者胜出，另一个被取消
+ */
+public class HedgePolicy {
+
+    /**
+     * Reactor Context 键：对冲调用各分支共享的 AtomicBoolean，一方返回值后置为 true，
+     * 之后到达的取消信号来自落败分支，下游过滤器（上游保护）据此与超时等取消区分
+     */
+    private static final String DECIDED_KEY = HedgePolicy.class.getName() + ".decided";
+
+    private final HedgeDelay delay;
+    private final HedgeBudget budget;
+    private final Counter fired;
+    private final Counter won;
+    private final Counter budgetExhausted;
+
+    public HedgePolicy(String scope, String name, GatewayProperties.HedgeDefinition definition,
+            MeterRegistry registry) {
+        this.delay = new HedgeDelay(definition.getPercentile(),
+                definition.getMinDelay().toNanos(), definition.getMaxDelay().toNanos());
+        this.budget = new HedgeBudget(definition.getBudgetPercent());
+        this.fired = counter(registry, scope, name, "fired");
+        this.won = counter(registry, scope, name, "won");
+        this.budgetExhausted = counter(registry, scope, name, "budget_exhausted");
+        Gauge.builder("gateway.hedge.delay", delay, d -> d.delayNanos() / 1e9)
+                .description("Current hedging delay")
+                .baseUnit("seconds")
+                .tags("scope", scope, "name", name)
+                .register(registry);
+    }
+
+    long delayNanos() {
+        return delay.delayNanos();
+    }
+
+    void recordLatency(long nanos) {
+        delay.record(nanos);
+    }
+
+    /**
+     * 丢弃预热流量积累的延迟样本并补满预算
+     */
+    public void reset() {
+        delay.reset();
+        budget.reset();
+    }
+
+    void onRequest() {
+        budget.deposit();
+    }
+
+    /**
+     * 是否发出对冲请求（消耗预算）
+     */
+    boolean tryHedge() {
+        if (budget.tryAcquire()) {
+            fired.increment();
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+
+    void onHedgeWon() {
+        won.increment();
+    }
+
+    /**
+     * 对冲一个可重复订阅的调用（如 WebClient 的 Mono）：先返回值者胜出，另一个被取消；
+     * 主请求在对冲前失败时仍会在延迟后发出对冲请求，两者都失败时返回主请求的错误
+     */
+    public <T> Mono<T> hedge(Mono<T> call) {
+        return Mono.defer(() -> {
+            onRequest();
+            AtomicBoolean decided = new AtomicBoolean();
+            // 值先经过 doOnNext 标记胜负，再由 firstWithValue 取消另一方
+            Mono<T> branch = timed(call)
+                    .doOnNext(value -> decided.set(true))
+                    .contextWrite(context -> context.put(DECIDED_KEY, decided));
+            Mono<T> hedged = Mono.delay(Duration.ofNanos(delayNanos()))
+                    .filter(tick -> tryHedge())
+                    .flatMap(tick -> branch)
+                    .doOnNext(value -> onHedgeWon());
+            return Mono.firstWithValue(branch, hedged)
+                    // 全部失败时 firstWithValue 抛出 NoSuchElementException，各分支的错误在其 cause（CompositeException）中
+                    .onErrorMap(NoSuchElementException.class, e -> {
+                        List<Throwable> errors = Exceptions.unwrapMultiple(e.getCause());
+                        return errors.isEmpty() ? e : errors.get(0);
+                    });
+        });
+    }
+
+    /**
+     * 取消信号是否来自已落败的对冲分支
+     */
+    public static boolean isHedgeLoser(ContextView context) {
+        AtomicBoolean decided = context.getOrDefault(DECIDED_KEY, null);
+        return decided != null && decided.get();
+    }
+
+    private <T> Mono<T> timed(Mono<T> call) {
+        return Mono.defer(() -> {
+            long startTime = System.nanoTime();
+            return call.doOnNext(value -> recordLatency(System.nanoTime() - startTime));
+        });
+    }
+
+    private static Counter counter(MeterRegistry registry, String scope, String name, String result) {
+        return Counter.builder("gateway.hedge")
+                .description("Hedged requests by result: fired (hedge sent), won (hedge response used), "
+                        + "budget_exhausted (hedge skipped)")
+                .tags("scope", scope, "name", name, "result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.studiodemo.hedge;
+
+import com.example.studiodemo.loadbalancer.LoadBalancedRoute;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.cloud.gateway.server.mvc.handler.GatewayServerResponse;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 路由对冲过滤器，只对 GET / HEAD 生效
+ * 主请求与对冲请求各自使用 ServerRequest 副本在执行器上转发，请求线程等待先返回响应头的一方；
+ * 落败一方被中断，若仍返回了响应则立即关闭其响应体；被中断的调用不计入目标的失败与延迟。
+ * 一方异常时等待另一方，都异常时抛出最后一个异常。
+ * 多目标路由上对冲请求会避开主请求选中的目标
+ */
+public class RouteHedgingFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final HedgePolicy policy;
+    private final AsyncTaskExecutor executor;
+
+    RouteHedgingFilter(HedgePolicy policy, AsyncTaskExecutor executor) {
+        this.policy = policy;
+        this.executor = executor;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        if (!HttpMethod.GET.equals(request.method()) && !HttpMethod.HEAD.equals(request.method())) {
+            return next.handle(request);
+        }
+        policy.onRequest();
+
+        HedgedCall call = new HedgedCall(request, next);
+        Branch primary = call.launch(false);
+        Branch hedge = null;
+        Branch winner;
+        try {
+            try {
+                winner = call.winner.get(policy.delayNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (policy.tryHedge()) {
+                    hedge = call.launch(true);
+                }
+                winner = call.winner.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            cancelLoser(primary, call);
+            cancelLoser(hedge, call);
+        }
+
+        if (winner.hedge) {
+            policy.onHedgeWon();
+        }
+        // 响应体放回外层可见的请求属性上，外层过滤器（如响应体重写）替换的响应体在写出时仍然生效
+        MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                MvcUtils.getAttribute(winner.request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR));
+        // 与网关代理一致使用 GatewayServerResponse，响应头可由外层过滤器修改
+        ServerResponse response = winner.response;
+        return GatewayServerResponse.status(response.statusCode())
+                .headers(headers -> headers.addAll(response.headers()))
+                .cookies(cookies -> cookies.addAll(response.cookies()))
+                .build((servletRequest, servletResponse) -> {
+                    InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+                    if (body != null) {
+                        try (body) {
+                            body.transferTo(servletResponse.getOutputStream());
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private static void cancelLoser(Branch branch, HedgedCall call) {
+        if (branch == null) {
+            return;
+        }
+        Branch winner = call.winner.isCompletedExceptionally() ? null : call.winner.getNow(null);
+        if (winner != branch) {
+            branch.abandoned.set(true);
+            branch.future.cancel(true);
+        }
+    }
+
+    /**
+     * 一次对冲调用：各分支竞争完成 winner
+     */
+    private final class HedgedCall {
+
+        final ServerRequest request;
+        final HandlerFunction<ServerResponse> next;
+        final CompletableFuture<Branch> winner = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger();
+        /** 各分支共享，记录主请求选中的目标，供对冲请求避开 */
+        final AtomicReference<URI> chosenTarget = new AtomicReference<>();
+
+        HedgedCall(ServerRequest request, HandlerFunction<ServerResponse> next) {
+            this.request = request;
+            this.next = next;
+        }
+
+        Branch launch(boolean hedge) {
+            if (winner.isDone()) {
+                return null;
+            }
+            pending.incrementAndGet();
+            ServerRequest copy = ServerRequest.from(request).build();
+            // 网关属性表在各分支间独立，避免并发写同一个 HashMap
+            copy.attributes().put(MvcUtils.GATEWAY_ATTRIBUTES_ATTR,
+                    new HashMap<>(MvcUtils.getGatewayAttributes(request)));
+            copy.attributes().put(LoadBalancedRoute.CHOSEN_TARGET_ATTR, chosenTarget);
+
+            Branch branch = new Branch(this, copy, hedge);
+            copy.attributes().put(LoadBalancedRoute.ABANDONED_ATTR, branch.abandoned);
+            branch.future = executor.submit(branch::run);
+            return branch;
+        }
+    }
+
+    private final class Branch {
+
+        final HedgedCall call;
+        final ServerRequest request;
+        final boolean hedge;
+        final AtomicBoolean abandoned = new AtomicBoolean();
+        volatile Future<?> future;
+        ServerResponse response;
+
+        Branch(HedgedCall call, ServerRequest request, boolean hedge) {
+            this.call = call;
+            this.request = request;
+            this.hedge = hedge;
+        }
+
+        void run() {
+            long startTime = System.nanoTime();
+            try {
+                response = call.next.handle(request);
+                policy.recordLatency(System.nanoTime() - startTime);
+                if (!call.winner.complete(this)) {
+                    discard();
+                }
+            } catch (Throwable e) {
+                if (call.pending.decrementAndGet() == 0) {
+                    call.winner.completeExceptionally(e);
+                }
+            }
+        }
+
+        private void discard() {
+            InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+            if (body != null) {
+                try {
+                    body.close();
+                } catch (IOException ignored) {
+                    // 落败分支的连接由连接池回收或丢弃
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.studiodemo.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 多目标路由的负载均衡过滤器（power of two choices）
+ * 按权重随机抽取两个可用目标，选择代价较小者并写入请求的转发地址，由 HandlerFunctions.http() 转发；
+ * 调用结束后更新目标的 EWMA 延迟与连续失败数，连续失败达到阈值时被动剔除。
+ * 所有目标均不可用时忽略剔除与健康状态，在全部目标中选择（避免整条路由不可用）
+ */
+public class LoadBalancedRoute implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBalancedRoute.class);
+
+    /**
+     * 请求属性：AtomicReference&lt;URI&gt;，记录本次选中的目标；已有值时（如对冲请求）优先避开该目标
+     */
+    public static final String CHOSEN_TARGET_ATTR = LoadBalancedRoute.class.getName() + ".chosenTarget";
+
+    /**
+     * 请求属性：AtomicBoolean，为 true 时本次调用已被放弃（对冲落败后被中断），异常结束不计入失败与延迟
+     */
+    public static final String ABANDONED_ATTR = LoadBalancedRoute.class.getName() + ".abandoned";
+
+    private final String routeId;
+    private final Target[] targets;
+    /** 累计权重，用于按权重抽样 */
+    private final int[] cumulativeWeights;
+    private final int consecutiveFailures;
+    private final long ejectionNanos;
+    private final int maxEjected;
+    private final Counter ejections;
+
+    LoadBalancedRoute(String routeId, List<Target> targets, int consecutiveFailures, long ejectionNanos,
+            int maxEjectionPercent, Counter ejections) {
+        this.routeId = routeId;
+        this.targets = targets.toArray(new Target[0]);
+        this.cumulativeWeights = new int[this.targets.length];
+        int total = 0;
+        for (int i = 0; i < this.targets.length; i++) {
+            total += this.targets[i].getWeight();
+            cumulativeWeights[i] = total;
+        }
+        this.consecutiveFailures = consecutiveFailures;
+        this.ejectionNanos = ejectionNanos;
+        this.maxEjected = this.targets.length * maxEjectionPercent / 100;
+        this.ejections = ejections;
+    }
+
+    public List<Target> getTargets() {
+        return List.of(targets);
+    }
+
+    void reset() {
+        for (Target target : targets) {
+            target.reset();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        AtomicReference<URI> chosen = (AtomicReference<URI>) request.attributes().get(CHOSEN_TARGET_ATTR);
+        AtomicBoolean abandoned = (AtomicBoolean) request.attributes().get(ABANDONED_ATTR);
+        Target target = choose(chosen != null ? chosen.get() : null);
+        if (chosen != null) {
+            chosen.set(target.getUri());
+        }
+        MvcUtils.setRequestUrl(request, target.getUri());
+
+        target.start();
+        long startTime = System.nanoTime();
+        boolean failed = true;
+        boolean responded = false;
+        try {
+            ServerResponse response = next.handle(request);
+            responded = true;
+            failed = response.statusCode().is5xxServerError();
+            return response;
+        } finally {
+            long now = System.nanoTime();
+            if (!responded && abandoned != null && abandoned.get()) {
+                target.abandon();
+            } else if (target.complete(now - startTime, failed) >= consecutiveFailures) {
+                tryEject(target, now);
+            }
+        }
+    }
+
+    Target choose(URI avoid) {
+        long now = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Target first = sample(random, avoid);
+        Target second = sample(random, avoid);
+        boolean firstAvailable = first.isAvailable(now);
+        boolean secondAvailable = second.isAvailable(now);
+        if (firstAvailable && secondAvailable) {
+            return first.cost() <= second.cost() ? first : second;
+        }
+        if (firstAvailable) {
+            return first;
+        }
+        if (secondAvailable) {
+            return second;
+        }
+        return cheapest(now);
+    }
+
+    /**
+     * 按权重抽样，抽到需要避开的目标时重抽一次
+     */
+    private Target sample(ThreadLocalRandom random, URI avoid) {
+        Target target = sample(random);
+        return avoid != null && target.getUri().equals(avoid) ? sample(random) : target;
+    }
+
+    private Target sample(ThreadLocalRandom random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return targets[i];
+            }
+        }
+        return targets[targets.length - 1];
+    }
+
+    /**
+     * 抽到的两个目标都不可用时，在可用目标中选代价最小者；没有可用目标时在全部目标中选
+     */
+    private Target cheapest(long now) {
+        Target best = null;
+        Target bestAny = null;
+        for (Target target : targets) {
+            if (bestAny == null || target.cost() < bestAny.cost()) {
+                bestAny = target;
+            }
+            if (target.isAvailable(now) && (best == null || target.cost() < best.cost())) {
+                best = target;
+            }
+        }
+        return best != null ? best : bestAny;
+    }
+
+    private void tryEject(Target target, long now) {
+        int ejected = 0;
+        for (Target t : targets) {
+            if (t.isEjected(now)) {
+                ejected++;
+            }
+        }
+        if (ejected >= maxEjected || target.isEjected(now)) {
+            return;
+        }
+        target.eject(now, ejectionNanos);
+        ejections.increment();
+        log.warn("Route {} ejected target {} for {}ms after {} consecutive failures",
+                routeId, target.getUpstream(), ejectionNanos / 1_000_000, consecutiveFailures);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.studiodemo.loadbalancer;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.upstream.UpstreamConnectionPools;
+import com.example.studiodemo.warmup.WarmUpFinishedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多目标路由的负载均衡器
+ * 为配置了多个 targets 的路由创建 LoadBalancedRoute，注册各目标的指标，并按配置执行主动健康检查；
+ * 健康检查经由上游连接池发出，超过 timeout 未返回的探测不会阻塞下一轮，结果以最近一次完成的探测为准
+ */
+@Component
+public class LoadBalancers implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBalancers.class);
+
+    private final MeterRegistry registry;
+    private final ClientHttpRequestFactory requestFactory;
+    private final List<LoadBalancedRoute> routes = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "upstream-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService probes = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "upstream-health-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LoadBalancers(MeterRegistry registry, UpstreamConnectionPools upstreamConnectionPools) {
+        this.registry = registry;
+        this.requestFactory = upstreamConnectionPools;
+    }
+
+    /**
+     * 路由的负载均衡过滤器，只有一个目标时返回 null
+     */
+    public LoadBalancedRoute forRoute(GatewayProperties.RouteDefinition routeDef) {
+        if (!routeDef.isLoadBalanced()) {
+            return null;
+        }
+        GatewayProperties.LoadBalancerDefinition definition = routeDef.getLoadBalancer();
+        String route = routeDef.getId();
+
+        List<Target> targets = new ArrayList<>();
+        for (GatewayProperties.TargetDefinition targetDef : routeDef.getTargets()) {
+            URI uri = URI.create(targetDef.getUri());
+            Target target = new Target(uri, UpstreamConnectionPools.upstreamKey(uri), targetDef.getWeight(),
+                    definition.getDecayTime().toNanos());
+            registerMeters(route, target);
+            targets.add(target);
+        }
+
+        GatewayProperties.OutlierDetectionDefinition outlier = definition.getOutlierDetection();
+        LoadBalancedRoute loadBalancedRoute = new LoadBalancedRoute(route, targets,
+                outlier.getConsecutiveFailures(), outlier.getEjectionDuration().toNanos(),
+                outlier.getMaxEjectionPercent(),
+                Counter.builder("gateway.lb.ejections").tag("route", route).register(registry));
+        routes.add(loadBalancedRoute);
+
+        GatewayProperties.HealthCheckDefinition healthCheck = definition.getHealthCheck();
+        if (healthCheck != null && healthCheck.getPath() != null) {
+            long interval = healthCheck.getInterval().toMillis();
+            long timeout = healthCheck.getTimeout().toMillis();
+            for (Target target : targets) {
+                URI probeUri = target.getUri().resolve(healthCheck.getPath());
+                scheduler.scheduleWithFixedDelay(() -> CompletableFuture.supplyAsync(() -> probe(probeUri), probes)
+                                .completeOnTimeout(false, timeout, TimeUnit.MILLISECONDS)
+                                .thenAccept(healthy -> updateHealth(route, target, healthy)),
+                        0, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+        return loadBalancedRoute;
+    }
+
+    /**
+     * 预热请求的延迟与失败不代表真实上游，预热结束后各目标的 EWMA 与异常剔除重新开始
+     */
+    @EventListener
+    public void onWarmUpFinished(WarmUpFinishedEvent event) {
+        routes.forEach(LoadBalancedRoute::reset);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        probes.shutdownNow();
+    }
+
+    private boolean probe(URI probeUri) {
+        try (ClientHttpResponse response = requestFactory.createRequest(probeUri, HttpMethod.GET).execute()) {
+            return response.getStatusCode().is2xxSuccessful();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void updateHealth(String route, Target target, boolean healthy) {
+        if (healthy && !target.isHealthy()) {
+            log.info("Route {} target {} is healthy again", route, target.getUpstream());
+        } else if (!healthy && target.isHealthy()) {
+            log.warn("Route {} target {} failed health check", route, target.getUpstream());
+        }
+        target.setHealthy(healthy);
+    }
+
+    private void registerMeters(String route, Target target) {
+        Gauge.builder("gateway.lb.target.outstanding", target, Target::getOutstanding)
+                .tags("route", route, "upstream", target.getUpstream())
+                .register(registry);
+        Gauge.builder("gateway.lb.target.latency", target, t -> t.getEwmaNanos() / 1e9)
+                .description("EWMA latency used for target selection")
+                .baseUnit("seconds")
+                .tags("route", route, "upstream", target.getUpstream())
+                .register(registry);
+        Gauge.builder("gateway.lb.target.available", target, t -> t.isAvailable(System.nanoTime()) ? 1 : 0)
+                .tags("route", route, "upstream", target.getUpstream())
+                .register(registry);
+    }
+}
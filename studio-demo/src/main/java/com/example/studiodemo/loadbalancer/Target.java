@@ -0,0 +1,128 @@
+package com.example.studiodemo.loadbalancer;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 负载均衡目标的运行时状态，全部为原子变量，选择与记录路径无锁
+ * 延迟使用带峰值的时间衰减 EWMA：比当前值慢的样本立即生效，快的样本按距上次更新的时间逐步衰减进来
+ */
+public final class Target {
+
+    private final URI uri;
+    private final String upstream;
+    private final int weight;
+    private final double decayNanos;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /** EWMA 延迟（纳秒，double 的位表示） */
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToRawLongBits(0));
+    private volatile long lastObserved = System.nanoTime();
+    private volatile long ejectedUntil;
+    private volatile boolean healthy = true;
+
+    Target(URI uri, String upstream, int weight, long decayNanos) {
+        this.uri = uri;
+        this.upstream = upstream;
+        this.weight = Math.max(1, weight);
+        this.decayNanos = Math.max(1, decayNanos);
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public double getEwmaNanos() {
+        return Double.longBitsToDouble(ewmaBits.get());
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    public boolean isEjected(long now) {
+        long until = ejectedUntil;
+        return until != 0 && now - until < 0;
+    }
+
+    boolean isAvailable(long now) {
+        return healthy && !isEjected(now);
+    }
+
+    /**
+     * 选择代价：EWMA 延迟 × (在途请求数 + 1)；尚无样本的目标代价为 0，会被优先探测
+     */
+    double cost() {
+        return getEwmaNanos() * (outstanding.get() + 1);
+    }
+
+    void start() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * 记录一次调用结果，返回当前连续失败次数
+     */
+    int complete(long rttNanos, boolean failed) {
+        outstanding.decrementAndGet();
+        observe(rttNanos);
+        if (failed) {
+            return consecutiveFailures.incrementAndGet();
+        }
+        consecutiveFailures.set(0);
+        return 0;
+    }
+
+    /**
+     * 放弃一次调用（对冲落败被取消）：只撤销在途计数，不记录延迟与结果
+     */
+    void abandon() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * 丢弃延迟样本、连续失败次数与异常剔除，在途计数与健康检查结果不变
+     */
+    void reset() {
+        ewmaBits.set(Double.doubleToRawLongBits(0));
+        lastObserved = System.nanoTime();
+        consecutiveFailures.set(0);
+        ejectedUntil = 0;
+    }
+
+    void eject(long now, long durationNanos) {
+        ejectedUntil = now + durationNanos;
+        consecutiveFailures.set(0);
+    }
+
+    private void observe(long rttNanos) {
+        long now = System.nanoTime();
+        double weightOfOld = Math.exp(-Math.max(0, now - lastObserved) / decayNanos);
+        lastObserved = now;
+        long current;
+        double updated;
+        do {
+            current = ewmaBits.get();
+            double ewma = Double.longBitsToDouble(current);
+            updated = rttNanos > ewma ? rttNanos : ewma * weightOfOld + rttNanos * (1 - weightOfOld);
+        } while (!ewmaBits.compareAndSet(current, Double.doubleToRawLongBits(updated)));
+    }
+}
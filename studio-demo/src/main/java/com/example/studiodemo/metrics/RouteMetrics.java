@@ -0,0 +1,111 @@
+package com.example.studiodemo.metrics;
+
+import com.example.studiodemo.upstream.UpstreamConnectionPools;
+import com.example.studiodemo.warmup.WarmUpRequests;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单条路由的延迟指标
+ * 作为过滤器记录总耗时，upstream() 包装转发处理函数记录上游耗时，两者之差即网关自身开销；预热请求不记录
+ */
+public class RouteMetrics implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private static final String UPSTREAM_NANOS_ATTR = RouteMetrics.class.getName() + ".upstreamNanos";
+
+    private final Timer requestTimer;
+    private final Timer upstreamTimer;
+    private final Timer overheadTimer;
+    private final Counter exceptionCounter;
+    private final Counter serverErrorCounter;
+    /** 单目标路由的上游指标；多目标路由为 null，按转发地址在 upstreams 中查找 */
+    private final UpstreamMeters singleUpstream;
+    private final Map<String, UpstreamMeters> upstreams;
+    private final WarmUpRequests warmUpRequests;
+
+    RouteMetrics(Timer requestTimer, Timer upstreamTimer, Timer overheadTimer, Counter exceptionCounter,
+            Counter serverErrorCounter, Map<String, UpstreamMeters> upstreams, WarmUpRequests warmUpRequests) {
+        this.requestTimer = requestTimer;
+        this.upstreamTimer = upstreamTimer;
+        this.overheadTimer = overheadTimer;
+        this.exceptionCounter = exceptionCounter;
+        this.serverErrorCounter = serverErrorCounter;
+        this.singleUpstream = upstreams.size() == 1 ? upstreams.values().iterator().next() : null;
+        this.upstreams = upstreams;
+        this.warmUpRequests = warmUpRequests;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        if (warmUpRequests.isWarmUp(request.servletRequest())) {
+            return next.handle(request);
+        }
+        long startTime = System.nanoTime();
+        try {
+            ServerResponse response = next.handle(request);
+            if (response.statusCode().is5xxServerError()) {
+                serverErrorCounter.increment();
+            }
+            return response;
+        } catch (Exception e) {
+            exceptionCounter.increment();
+            throw e;
+        } finally {
+            long total = System.nanoTime() - startTime;
+            requestTimer.record(total, TimeUnit.NANOSECONDS);
+            if (request.servletRequest().getAttribute(UPSTREAM_NANOS_ATTR) instanceof Long upstream) {
+                overheadTimer.record(Math.max(0, total - upstream), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * 包装转发处理函数，记录上游耗时（到收到响应头为止）
+     */
+    public HandlerFunction<ServerResponse> upstream(HandlerFunction<ServerResponse> handler) {
+        return request -> {
+            if (warmUpRequests.isWarmUp(request.servletRequest())) {
+                return handler.handle(request);
+            }
+            long startTime = System.nanoTime();
+            try {
+                return handler.handle(request);
+            } catch (Exception e) {
+                UpstreamMeters meters = upstreamMeters(request);
+                if (meters != null) {
+                    meters.errors().increment();
+                }
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - startTime;
+                upstreamTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                UpstreamMeters meters = upstreamMeters(request);
+                if (meters != null) {
+                    meters.requests().record(elapsed, TimeUnit.NANOSECONDS);
+                }
+                // 路径重写等过滤器会复制 ServerRequest 属性，这里写到共享的 servlet 请求上
+                request.servletRequest().setAttribute(UPSTREAM_NANOS_ATTR, elapsed);
+            }
+        };
+    }
+
+    private UpstreamMeters upstreamMeters(ServerRequest request) {
+        if (singleUpstream != null) {
+            return singleUpstream;
+        }
+        URI uri = MvcUtils.getAttribute(request, MvcUtils.GATEWAY_REQUEST_URL_ATTR);
+        return uri != null ? upstreams.get(UpstreamConnectionPools.upstreamKey(uri)) : null;
+    }
+
+    record UpstreamMeters(Timer requests, Counter errors) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.studiodemo.ratelimit;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 按限流键区分的限流器
+ * key 为 route 时整条路由共用一个（分段）限流器；为 ip / header 时每个键一个限流器，
+ * 键保存在有上限的 Caffeine 缓存中，空闲超时或超出 max-keys 时淘汰，淘汰后的键以满额度重新开始
+ */
+public class KeyedRateLimiter {
+
+    private final String scope;
+    private final String name;
+    private final GatewayProperties.RateLimitDefinition.KeyType keyType;
+    private final String header;
+    private final Supplier<RateLimiter> sharedFactory;
+    private volatile RateLimiter shared;
+    private final Cache<String, RateLimiter> limiters;
+    private final Function<String, RateLimiter> factory;
+    private final Counter rejected;
+
+    KeyedRateLimiter(String scope, String name, GatewayProperties.RateLimitDefinition definition,
+            Supplier<RateLimiter> sharedFactory, Cache<String, RateLimiter> limiters,
+            Function<String, RateLimiter> factory,
+            Counter rejected) {
+        this.scope = scope;
+        this.name = name;
+        this.keyType = definition.getKey();
+        this.header = definition.getHeader();
+        this.sharedFactory = sharedFactory;
+        this.shared = sharedFactory != null ? sharedFactory.get() : null;
+        this.limiters = limiters;
+        this.factory = factory;
+        this.rejected = rejected;
+    }
+
+    /**
+     * 申请一个许可，超过额度时抛出 RateLimitedException
+     */
+    public void acquire(HttpServletRequest request) {
+        RateLimiter limiter = shared != null ? shared : limiters.get(key(request), factory);
+        long wait = limiter.tryAcquire();
+        if (wait > 0) {
+            rejected.increment();
+            throw new RateLimitedException(scope, name, wait);
+        }
+    }
+
+    /**
+     * 缺少限流请求头的请求共用一个键
+     */
+    private String key(HttpServletRequest request) {
+        if (keyType == GatewayProperties.RateLimitDefinition.KeyType.HEADER) {
+            String value = request.getHeader(header);
+            return value != null ? value : "";
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * 丢弃已消耗的额度，所有键以满额度重新开始
+     */
+    void reset() {
+        if (sharedFactory != null) {
+            shared = sharedFactory.get();
+        } else {
+            limiters.invalidateAll();
+        }
+    }
+
+    long trackedKeys() {
+        return limiters != null ? limiters.estimatedSize() : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.studiodemo.ratelimit;
+
+/**
+ * 请求超过限流额度
+ * 不记录堆栈，被限流时快速拒绝的开销很小
+ */
+public class RateLimitedException extends RuntimeException {
+
+    private final long retryAfterNanos;
+
+    public RateLimitedException(String scope, String name, long retryAfterNanos) {
+        super(scope + " " + name + " rate limit exceeded", null, false, false);
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    /**
+     * Retry-After 响应头的秒数，向上取整且至少为 1
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.studiodemo.ratelimit;
+
+/**
+ * 限流器
+ */
+interface RateLimiter {
+
+    /**
+     * 申请一个许可，允许时返回 0，拒绝时返回预计还需等待的纳秒数（大于 0）
+     */
+    long tryAcquire();
+}
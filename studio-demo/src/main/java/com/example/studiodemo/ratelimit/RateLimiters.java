@@ -0,0 +1,133 @@
+package com.example.studiodemo.ratelimit;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.warmup.WarmUpFinishedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 限流器工厂
+ * 为路由与编排接口创建限流器，并注册拒绝次数与跟踪键数量指标
+ */
+@Component
+public class RateLimiters {
+
+    /**
+     * 分段后每个分段至少保留的额度，额度较小时不分段，避免分段间的不均匀放大误差
+     */
+    static final long MIN_STRIPE_PERMITS = 16;
+
+    private final MeterRegistry registry;
+    private final LongSupplier clock;
+    private final List<KeyedRateLimiter> created = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public RateLimiters(MeterRegistry registry) {
+        this(registry, System::nanoTime);
+    }
+
+    RateLimiters(MeterRegistry registry, LongSupplier clock) {
+        this.registry = registry;
+        this.clock = clock;
+    }
+
+    /**
+     * 为路由创建限流过滤器，路由未配置 rate-limit 时返回 null
+     */
+    public RouteRateLimitFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        KeyedRateLimiter limiter = create("route", routeDef.getId(), routeDef.getRateLimit());
+        return limiter != null ? new RouteRateLimitFilter(limiter) : null;
+    }
+
+    /**
+     * 为编排接口创建限流器，未配置时返回 null
+     */
+    public KeyedRateLimiter forEndpoint(String endpoint, GatewayProperties.RateLimitDefinition definition) {
+        return create("endpoint", endpoint, definition);
+    }
+
+    /**
+     * 预热的回环请求会消耗额度（按 IP 限流时全部落在 127.0.0.1 上），预热结束后所有限流器以满额度重新开始
+     */
+    @EventListener
+    public void onWarmUpFinished(WarmUpFinishedEvent event) {
+        created.forEach(KeyedRateLimiter::reset);
+    }
+
+    private KeyedRateLimiter create(String scope, String name, GatewayProperties.RateLimitDefinition definition) {
+        if (definition == null) {
+            return null;
+        }
+
+        Counter rejected = Counter.builder("gateway.ratelimit.rejected")
+                .tag("scope", scope)
+                .tag("name", name)
+                .register(registry);
+
+        if (definition.getKey() == GatewayProperties.RateLimitDefinition.KeyType.ROUTE) {
+            KeyedRateLimiter limiter = new KeyedRateLimiter(scope, name, definition, () -> striped(definition),
+                    null, null, rejected);
+            created.add(limiter);
+            return limiter;
+        }
+
+        Duration idleTimeout = definition.getIdleTimeout().compareTo(definition.getPeriod()) < 0
+                ? definition.getPeriod() : definition.getIdleTimeout();
+        Cache<String, RateLimiter> keys = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(definition.getMaxKeys())
+                .build();
+        Function<String, RateLimiter> factory = key -> limiter(definition, 1);
+        KeyedRateLimiter limiter = new KeyedRateLimiter(scope, name, definition, null, keys, factory, rejected);
+        created.add(limiter);
+        Gauge.builder("gateway.ratelimit.keys", limiter, KeyedRateLimiter::trackedKeys)
+                .tag("scope", scope)
+                .tag("name", name)
+                .register(registry);
+        return limiter;
+    }
+
+    /**
+     * 整条路由共用的限流器按 CPU 数分段
+     */
+    private RateLimiter striped(GatewayProperties.RateLimitDefinition definition) {
+        long capacity = definition.getAlgorithm() == GatewayProperties.RateLimitDefinition.Algorithm.TOKEN_BUCKET
+                ? burst(definition) : definition.getLimit();
+        long maxStripes = Math.max(1, capacity / MIN_STRIPE_PERMITS);
+        int stripes = Integer.highestOneBit(
+                (int) Math.min(Runtime.getRuntime().availableProcessors(), maxStripes));
+        if (stripes == 1) {
+            return limiter(definition, 1);
+        }
+        RateLimiter[] limiters = new RateLimiter[stripes];
+        for (int i = 0; i < stripes; i++) {
+            limiters[i] = limiter(definition, stripes);
+        }
+        return new StripedRateLimiter(limiters);
+    }
+
+    private RateLimiter limiter(GatewayProperties.RateLimitDefinition definition, int stripes) {
+        long periodNanos = definition.getPeriod().toNanos();
+        long limit = Math.max(1, definition.getLimit() / stripes);
+        return switch (definition.getAlgorithm()) {
+            case TOKEN_BUCKET -> new TokenBucket(limit, periodNanos, Math.max(1, burst(definition) / stripes), clock);
+            case SLIDING_WINDOW -> new SlidingWindow(limit, periodNanos, clock);
+        };
+    }
+
+    private static long burst(GatewayProperties.RateLimitDefinition definition) {
+        return definition.getBurst() != null ? definition.getBurst() : definition.getLimit();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.studiodemo.ratelimit;
+
+import com.example.studiodemo.model.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * 路由限流过滤器
+ * 超过额度时直接返回 429 ApiResponse 与 Retry-After，不访问上游
+ */
+public class RouteRateLimitFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final KeyedRateLimiter limiter;
+
+    RouteRateLimitFilter(KeyedRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        try {
+            limiter.acquire(request.servletRequest());
+        } catch (RateLimitedException e) {
+            return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ApiResponse.error("429", e.getMessage()));
+        }
+        return next.handle(request);
+    }
+}
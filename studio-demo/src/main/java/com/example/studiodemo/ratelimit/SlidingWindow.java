@@ -0,0 +1,75 @@
+package com.example.studiodemo.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 滑动窗口限流器（滑动窗口计数近似）
+ * 估算值 = 上一窗口计数 × 上一窗口在滑动窗口内的剩余比例 + 当前窗口计数，不超过 limit 时放行；
+ * 窗口编号、上一窗口计数、当前窗口计数打包在一个 long 中，一次 CAS 完成计数与窗口切换
+ */
+final class SlidingWindow implements RateLimiter {
+
+    private static final int COUNT_BITS = 21;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long WINDOW_MASK = (1L << (64 - 2 * COUNT_BITS)) - 1;
+
+    /**
+     * 单个窗口可计数的上限
+     */
+    static final long MAX_LIMIT = COUNT_MASK;
+
+    private final LongSupplier clock;
+    private final long origin;
+    private final long limit;
+    private final long windowNanos;
+    private final AtomicLong state = new AtomicLong();
+
+    SlidingWindow(long limit, long windowNanos, LongSupplier clock) {
+        if (limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Sliding window limit must not exceed " + MAX_LIMIT);
+        }
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.limit = limit;
+        this.windowNanos = windowNanos;
+    }
+
+    @Override
+    public long tryAcquire() {
+        long elapsed = clock.getAsLong() - origin;
+        long window = elapsed / windowNanos;
+        long offset = elapsed - window * windowNanos;
+        long id = window & WINDOW_MASK;
+        while (true) {
+            long current = state.get();
+            long currentId = current >>> (2 * COUNT_BITS);
+            long previous = (current >>> COUNT_BITS) & COUNT_MASK;
+            long count = current & COUNT_MASK;
+            if (currentId != id) {
+                previous = currentId == ((window - 1) & WINDOW_MASK) ? count : 0;
+                count = 0;
+            }
+
+            double estimate = previous * (1 - (double) offset / windowNanos) + count;
+            if (estimate + 1 > limit) {
+                return retryAfter(previous, count, offset);
+            }
+            long next = (id << (2 * COUNT_BITS)) | (previous << COUNT_BITS) | (count + 1);
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 当前窗口已满时等到下一窗口；否则等到上一窗口的权重衰减到足以放行一个请求
+     */
+    private long retryAfter(long previous, long count, long offset) {
+        if (count + 1 > limit || previous == 0) {
+            return windowNanos - offset;
+        }
+        double fraction = 1 - (double) (limit - count - 1) / previous;
+        return Math.max(1, (long) (fraction * windowNanos) - offset);
+    }
+}
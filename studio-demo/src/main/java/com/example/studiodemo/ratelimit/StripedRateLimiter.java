@@ -0,0 +1,30 @@
+package com.example.studiodemo.ratelimit;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 分段限流器
+ * 整条路由共用一个限流键时，单个原子变量会成为多核竞争热点；将额度均分到多个分段，
+ * 请求随机落到一个分段，被拒绝时再尝试相邻分段，总放行量不超过配置的额度
+ */
+final class StripedRateLimiter implements RateLimiter {
+
+    private final RateLimiter[] stripes;
+    private final int mask;
+
+    StripedRateLimiter(RateLimiter[] stripes) {
+        this.stripes = stripes;
+        this.mask = stripes.length - 1;
+    }
+
+    @Override
+    public long tryAcquire() {
+        int index = ThreadLocalRandom.current().nextInt(stripes.length);
+        long wait = stripes[index].tryAcquire();
+        if (wait == 0 || stripes.length == 1) {
+            return wait;
+        }
+        long retry = stripes[(index + 1) & mask].tryAcquire();
+        return retry == 0 ? 0 : Math.min(wait, retry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.studiodemo.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 令牌桶限流器，按 GCRA（理论到达时间）实现
+ * 状态只有一个原子变量：下一个请求的理论到达时间 tat，每放行一个请求推后 interval；
+ * tat 领先当前时间不超过 burst 个 interval 时放行，等价于容量 burst、每 interval 补充一个令牌的令牌桶
+ */
+final class TokenBucket implements RateLimiter {
+
+    private final LongSupplier clock;
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong tat;
+
+    TokenBucket(long limit, long periodNanos, long burst, LongSupplier clock) {
+        this.clock = clock;
+        this.interval = Math.max(1, periodNanos / limit);
+        this.tolerance = interval * burst;
+        this.tat = new AtomicLong(clock.getAsLong());
+    }
+
+    @Override
+    public long tryAcquire() {
+        long now = clock.getAsLong();
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + interval;
+            long ahead = next - now;
+            if (ahead > tolerance) {
+                return ahead - tolerance;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.studiodemo.resilience;
+
+/**
+ * 调用被熔断器或并发限制拒绝
+ * 不记录堆栈，过载时快速失败的开销很小
+ */
+public class CallRejectedException extends RuntimeException {
+
+    public enum Reason {
+        CIRCUIT_OPEN("circuit breaker is open"),
+        CONCURRENCY_LIMIT("concurrency limit reached");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+    }
+
+    private final Reason reason;
+
+    public CallRejectedException(Protection protection, Reason reason) {
+        super(protection.getScope() + " " + protection.getName() + " rejected the call: " + reason.description,
+                null, false, false);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.studiodemo.resilience;
+
+import com.example.studiodemo.config.GatewayProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 无锁滑动窗口熔断器
+ * 窗口按秒分桶，统计调用数、失败数与慢调用数；失败率或慢调用率超过阈值时打开，
+ * 打开 open-duration 后进入半开状态放行少量探测请求，全部成功则关闭，任一失败或过慢则重新打开。
+ * 分桶在跨秒时用 CAS 重置，并发下统计为近似值
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final long BUCKET_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final Bucket[] buckets;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final int slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+    private volatile long openedAt;
+
+    public CircuitBreaker(GatewayProperties.CircuitBreakerDefinition definition) {
+        int bucketCount = (int) Math.max(1, definition.getWindow().toSeconds());
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.minimumCalls = definition.getMinimumCalls();
+        this.failureRateThreshold = definition.getFailureRateThreshold();
+        this.slowCallNanos = definition.getSlowCallDuration().toNanos();
+        this.slowCallRateThreshold = definition.getSlowCallRateThreshold();
+        this.openNanos = definition.getOpenDuration().toNanos();
+        this.halfOpenCalls = definition.getHalfOpenCalls();
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * 是否放行本次调用
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                halfOpenSuccesses.set(0);
+                halfOpenPermits.set(halfOpenCalls);
+            }
+        }
+        return halfOpenPermits.getAndDecrement() > 0;
+    }
+
+    /**
+     * 已放行但未实际发出的调用归还探测名额
+     */
+    public void release() {
+        if (state.get() == State.HALF_OPEN) {
+            halfOpenPermits.incrementAndGet();
+        }
+    }
+
+    /**
+     * 记录调用结果
+     */
+    public void onResult(long durationNanos, boolean failed) {
+        boolean slow = durationNanos >= slowCallNanos;
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            if (failed || slow) {
+                open(State.HALF_OPEN);
+            } else if (halfOpenSuccesses.incrementAndGet() >= halfOpenCalls
+                    && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                clearWindow();
+            }
+            return;
+        }
+        if (current == State.OPEN) {
+            return;
+        }
+
+        long now = System.nanoTime() / BUCKET_NANOS;
+        bucket(now).record(failed, slow);
+
+        int calls = 0;
+        int failures = 0;
+        int slowCalls = 0;
+        for (Bucket bucket : buckets) {
+            if (now - bucket.epoch.get() < buckets.length) {
+                calls += bucket.calls.get();
+                failures += bucket.failures.get();
+                slowCalls += bucket.slowCalls.get();
+            }
+        }
+        if (calls >= minimumCalls
+                && (failures * 100 >= failureRateThreshold * calls || slowCalls * 100 >= slowCallRateThreshold * calls)) {
+            open(State.CLOSED);
+        }
+    }
+
+    private void open(State from) {
+        if (state.compareAndSet(from, State.OPEN)) {
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * 回到关闭状态并清空统计窗口
+     */
+    public void reset() {
+        state.set(State.CLOSED);
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        for (Bucket bucket : buckets) {
+            bucket.epoch.set(Long.MIN_VALUE);
+        }
+    }
+
+    private Bucket bucket(long epoch) {
+        Bucket bucket = buckets[(int) (epoch % buckets.length)];
+        long bucketEpoch = bucket.epoch.get();
+        if (bucketEpoch != epoch && bucket.epoch.compareAndSet(bucketEpoch, epoch)) {
+            bucket.calls.set(0);
+            bucket.failures.set(0);
+            bucket.slowCalls.set(0);
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger slowCalls = new AtomicInteger();
+
+        void record(boolean failed, boolean slow) {
+            calls.incrementAndGet();
+            if (failed) {
+                failures.incrementAndGet();
+            }
+            if (slow) {
+                slowCalls.incrementAndGet();
+            }
+        }
+    }
+}
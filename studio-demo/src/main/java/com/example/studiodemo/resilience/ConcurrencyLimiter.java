@@ -0,0 +1,69 @@
+package com.example.studiodemo.resilience;
+
+import com.example.studiodemo.config.GatewayProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发限制（AIMD）
+ * 调用成功且并发已接近上限时上限加一；调用失败或 RTT 超过 latency-threshold 时上限按 backoff-ratio 乘性下降。
+ * 超过上限的请求直接拒绝，不排队
+ */
+public class ConcurrencyLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger limit;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    public ConcurrencyLimiter(GatewayProperties.ConcurrencyLimitDefinition definition) {
+        this.initialLimit = definition.getInitialLimit();
+        this.limit = new AtomicInteger(initialLimit);
+        this.minLimit = definition.getMinLimit();
+        this.maxLimit = definition.getMaxLimit();
+        this.backoffRatio = definition.getBackoffRatio();
+        this.latencyThresholdNanos = definition.getLatencyThreshold().toNanos();
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit.get()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 已放行但未实际发出的调用，不调整上限
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 上限回到 initial-limit，在途计数不变
+     */
+    public void reset() {
+        limit.set(initialLimit);
+    }
+
+    public void onComplete(long rttNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        if (failed || rttNanos > latencyThresholdNanos) {
+            limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+}
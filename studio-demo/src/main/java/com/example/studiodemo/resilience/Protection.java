@@ -0,0 +1,92 @@
+package com.example.studiodemo.resilience;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * 一个保护对象（路由或上游）上的熔断器与并发限制，两者均可为空
+ */
+public class Protection {
+
+    private final String scope;
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Counter circuitOpenRejections;
+    private final Counter concurrencyLimitRejections;
+
+    Protection(String scope, String name, CircuitBreaker circuitBreaker, ConcurrencyLimiter concurrencyLimiter,
+            Counter circuitOpenRejections, Counter concurrencyLimitRejections) {
+        this.scope = scope;
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.circuitOpenRejections = circuitOpenRejections;
+        this.concurrencyLimitRejections = concurrencyLimitRejections;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * 申请调用许可，被拒绝时抛出 CallRejectedException
+     */
+    public void acquire() {
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            circuitOpenRejections.increment();
+            throw new CallRejectedException(this, CallRejectedException.Reason.CIRCUIT_OPEN);
+        }
+        if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire()) {
+            if (circuitBreaker != null) {
+                circuitBreaker.release();
+            }
+            concurrencyLimitRejections.increment();
+            throw new CallRejectedException(this, CallRejectedException.Reason.CONCURRENCY_LIMIT);
+        }
+    }
+
+    /**
+     * 归还未使用的许可
+     */
+    public void release() {
+        if (circuitBreaker != null) {
+            circuitBreaker.release();
+        }
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release();
+        }
+    }
+
+    /**
+     * 丢弃熔断统计与并发上限的调整
+     */
+    public void reset() {
+        if (circuitBreaker != null) {
+            circuitBreaker.reset();
+        }
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.reset();
+        }
+    }
+
+    public void onComplete(long durationNanos, boolean failed) {
+        if (circuitBreaker != null) {
+            circuitBreaker.onResult(durationNanos, failed);
+        }
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.onComplete(durationNanos, failed);
+        }
+    }
+}
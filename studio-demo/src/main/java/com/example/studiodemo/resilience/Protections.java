@@ -0,0 +1,137 @@
+package com.example.studiodemo.resilience;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.hedge.HedgePolicy;
+import com.example.studiodemo.upstream.UpstreamConnectionPools;
+import com.example.studiodemo.warmup.WarmUpFinishedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 路由与上游保护（熔断 + 自适应并发限制）
+ * 路由配置了 protection 时，既为该路由创建独立的保护，也为其上游创建共享的保护；
+ * 同一上游以第一个配置了 protection 的路由为准，编排接口经由 WebClient 访问同一上游时共用上游保护。
+ * 多目标路由的目标选择在保护之后进行，路由过滤器只应用路由级保护，单个目标的故障由负载均衡的异常剔除处理
+ */
+@Component
+public class Protections {
+
+    static final String SCOPE_ROUTE = "route";
+    static final String SCOPE_UPSTREAM = "upstream";
+
+    private final MeterRegistry registry;
+    private final Map<String, Protection> routes = new HashMap<>();
+    private final Map<String, Protection> upstreams = new HashMap<>();
+
+    public Protections(GatewayProperties gatewayProperties, MeterRegistry registry) {
+        this.registry = registry;
+        for (GatewayProperties.RouteDefinition routeDef : gatewayProperties.getRoutes()) {
+            GatewayProperties.ProtectionDefinition definition = routeDef.getProtection();
+            if (definition == null || routeDef.targetUris().isEmpty()) {
+                continue;
+            }
+            routes.put(routeDef.getId(), create(SCOPE_ROUTE, routeDef.getId(), definition));
+            for (String uri : routeDef.targetUris()) {
+                String upstream = UpstreamConnectionPools.upstreamKey(URI.create(uri));
+                if (!upstreams.containsKey(upstream)) {
+                    upstreams.put(upstream, create(SCOPE_UPSTREAM, upstream, definition));
+                }
+            }
+        }
+    }
+
+    /**
+     * 路由的保护过滤器，路由未配置 protection 时返回 null
+     */
+    public RouteProtectionFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        Protection route = routes.get(routeDef.getId());
+        if (route == null) {
+            return null;
+        }
+        Protection upstream = routeDef.isLoadBalanced() ? null
+                : upstreams.get(UpstreamConnectionPools.upstreamKey(URI.create(routeDef.targetUris().get(0))));
+        return new RouteProtectionFilter(route, upstream);
+    }
+
+    public Protection forUpstream(URI uri) {
+        return upstreams.get(UpstreamConnectionPools.upstreamKey(uri));
+    }
+
+    /**
+     * 预热请求的耗时与结果不代表真实上游（替身上游不到 1ms，冷启动时又偏慢），预热结束后熔断与并发上限重新开始
+     */
+    @EventListener
+    public void onWarmUpFinished(WarmUpFinishedEvent event) {
+        routes.values().forEach(Protection::reset);
+        upstreams.values().forEach(Protection::reset);
+    }
+
+    /**
+     * WebClient 过滤器：按请求地址应用上游保护，被拒绝时以 CallRejectedException 结束；
+     * 对冲落败被取消的调用只归还许可，不计入失败与延迟，超时等其他取消计为失败
+     */
+    public ExchangeFilterFunction exchangeFilter() {
+        return (request, next) -> {
+            Protection protection = forUpstream(request.url());
+            if (protection == null) {
+                return next.exchange(request);
+            }
+            return Mono.deferContextual(context -> {
+                protection.acquire();
+                long startTime = System.nanoTime();
+                int[] status = new int[1];
+                return next.exchange(request)
+                        .doOnNext(response -> status[0] = response.statusCode().value())
+                        .doFinally(signal -> {
+                            if (signal == SignalType.CANCEL && HedgePolicy.isHedgeLoser(context)) {
+                                protection.release();
+                            } else {
+                                protection.onComplete(System.nanoTime() - startTime,
+                                        signal != SignalType.ON_COMPLETE || status[0] >= 500);
+                            }
+                        });
+            });
+        };
+    }
+
+    private Protection create(String scope, String name, GatewayProperties.ProtectionDefinition definition) {
+        CircuitBreaker circuitBreaker = definition.getCircuitBreaker() != null
+                ? new CircuitBreaker(definition.getCircuitBreaker()) : null;
+        ConcurrencyLimiter concurrencyLimiter = definition.getConcurrencyLimit() != null
+                ? new ConcurrencyLimiter(definition.getConcurrencyLimit()) : null;
+
+        if (circuitBreaker != null) {
+            Gauge.builder("gateway.protection.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                    .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .tags("scope", scope, "name", name)
+                    .register(registry);
+        }
+        if (concurrencyLimiter != null) {
+            Gauge.builder("gateway.protection.concurrency.limit", concurrencyLimiter, ConcurrencyLimiter::getLimit)
+                    .tags("scope", scope, "name", name)
+                    .register(registry);
+            Gauge.builder("gateway.protection.concurrency.in-flight", concurrencyLimiter,
+                            ConcurrencyLimiter::getInFlight)
+                    .tags("scope", scope, "name", name)
+                    .register(registry);
+        }
+        return new Protection(scope, name, circuitBreaker, concurrencyLimiter,
+                rejections(scope, name, "circuit_open"), rejections(scope, name, "concurrency_limit"));
+    }
+
+    private Counter rejections(String scope, String name, String reason) {
+        return Counter.builder("gateway.protection.rejected")
+                .tags("scope", scope, "name", name, "reason", reason)
+                .register(registry);
+    }
+}
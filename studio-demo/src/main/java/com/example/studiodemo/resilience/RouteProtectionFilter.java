@@ -0,0 +1,62 @@
+package com.example.studiodemo.resilience;
+
+import com.example.studiodemo.model.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * 路由保护过滤器
+ * 依次申请路由与上游的许可，任一拒绝时直接返回 503 ApiResponse，不排队也不访问上游；
+ * 异常或 5xx 计为失败，耗时计到收到上游响应头为止
+ */
+public class RouteProtectionFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final Protection route;
+    private final Protection upstream;
+
+    RouteProtectionFilter(Protection route, Protection upstream) {
+        this.route = route;
+        this.upstream = upstream;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        try {
+            route.acquire();
+        } catch (CallRejectedException e) {
+            return rejected(e);
+        }
+        if (upstream != null) {
+            try {
+                upstream.acquire();
+            } catch (CallRejectedException e) {
+                route.release();
+                return rejected(e);
+            }
+        }
+
+        long startTime = System.nanoTime();
+        boolean failed = true;
+        try {
+            ServerResponse response = next.handle(request);
+            failed = response.statusCode().is5xxServerError();
+            return response;
+        } finally {
+            long duration = System.nanoTime() - startTime;
+            route.onComplete(duration, failed);
+            if (upstream != null) {
+                upstream.onComplete(duration, failed);
+            }
+        }
+    }
+
+    static ServerResponse rejected(CallRejectedException e) {
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error("503", e.getMessage()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.studiodemo.route;
+
+import com.example.studiodemo.config.GatewayProperties;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * 编译后的路由：路由定义与组装好过滤器链的处理函数
+ */
+public record CompiledRoute(GatewayProperties.RouteDefinition definition, HandlerFunction<ServerResponse> handler) {
+
+    public String id() {
+        return definition.getId();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.studiodemo.route;
+
+import com.example.studiodemo.tracing.Stage;
+import com.example.studiodemo.tracing.TraceContext;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.Optional;
+
+/**
+ * 基于 RouteIndex 的 RouterFunction
+ * 一次索引查找代替逐条断言匹配
+ */
+public class IndexedRouterFunction implements RouterFunction<ServerResponse> {
+
+    private final RouteIndex<CompiledRoute> index;
+
+    public IndexedRouterFunction(RouteIndex<CompiledRoute> index) {
+        this.index = index;
+    }
+
+    @Override
+    public Optional<HandlerFunction<ServerResponse>> route(ServerRequest request) {
+        RouteIndex.Match<CompiledRoute> match = index.lookup(
+                request.servletRequest().getServerName(), request.method(), request.path());
+        if (match == null) {
+            return Optional.empty();
+        }
+
+        TraceContext trace = TraceContext.of(request.servletRequest());
+        if (trace != null) {
+            trace.mark(Stage.ROUTED);
+        }
+        CompiledRoute route = match.target();
+        MvcUtils.setRouteId(request, route.id());
+        if (!match.variables().isEmpty()) {
+            MvcUtils.putUriTemplateVariables(request, match.variables());
+        }
+        return Optional.of(route.handler());
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedRouterFunction{routes=" + index.size() + "}";
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.studiodemo.route;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.UriUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 编译后的路由索引
+ * 按 域名/IP -> 请求方法 -> 路径段前缀树 三级组织，查找代价只与路径深度相关，与路由数量无关
+ *
+ * 路径支持字面量段、{var} 变量段以及末尾的 ** 通配；
+ * 其余 PathPattern 语法（{var:regex}、*、{*var}、foo-{id} 等部分段）从第一个此类段起交给 PathPattern 匹配，
+ * 挂在其之前的字面量前缀节点上，模式非法时注册即抛出异常。
+ * 优先级：指定域名优先于任意域名，指定方法优先于任意方法，字面量段优先于变量段，变量段优先于 PathPattern 模式，
+ * 模式优先于通配；同一节点上的多个模式按 PathPattern 的具体程度排序
+ */
+public final class RouteIndex<T> {
+
+    private static final String ANY = "*";
+    private static final String CATCH_ALL = "**";
+
+    private final Map<String, Map<String, Node<T>>> hosts = new HashMap<>();
+    private int size;
+
+    /**
+     * 注册路由
+     *
+     * @param host   域名或 IP，null 表示任意
+     * @param method 请求方法，null 表示任意
+     * @param path   路径模板，如 /mvc/demo/hello/{name}
+     * @return 同一 host/method/path 已注册时返回 false
+     * @throws IllegalArgumentException 路径模板不是合法的 PathPattern
+     */
+    public boolean add(String host, String method, String path, T target) {
+        Map<String, Node<T>> methods = hosts.computeIfAbsent(normalizeHost(host), h -> new HashMap<>());
+        Node<T> node = methods.computeIfAbsent(method == null ? ANY : method.toUpperCase(Locale.ROOT),
+                m -> new Node<>());
+
+        String[] segments = segments(path);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (CATCH_ALL.equals(segment) && i == segments.length - 1) {
+                node = node.catchAll == null ? (node.catchAll = new Node<>()) : node.catchAll;
+                break;
+            }
+            if (isVariable(segment)) {
+                node = node.variable == null ? (node.variable = new Node<>()) : node.variable;
+            } else if (isLiteral(segment)) {
+                node = node.literals.computeIfAbsent(segment, s -> new Node<>());
+            } else {
+                return addPattern(node, path, target);
+            }
+        }
+
+        if (node.target != null) {
+            return false;
+        }
+        node.target = target;
+        node.variableNames = variableNames(path);
+        size++;
+        return true;
+    }
+
+    /**
+     * 查找匹配的路由
+     *
+     * @param host   请求 Host（不含端口），可为 null
+     * @param method 请求方法
+     * @param path   未解码的请求路径
+     * @return 未匹配时返回 null
+     */
+    public Match<T> lookup(String host, HttpMethod method, String path) {
+        Lookup request = new Lookup(path, segments(path));
+        Match<T> match = null;
+        if (host != null) {
+            match = lookupHost(hosts.get(host.toLowerCase(Locale.ROOT)), method, request);
+        }
+        return match != null ? match : lookupHost(hosts.get(ANY), method, request);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean addPattern(Node<T> node, String path, T target) {
+        PathPattern pattern;
+        try {
+            pattern = PathPatternParser.defaultInstance.parse(path);
+        } catch (PatternParseException e) {
+            throw new IllegalArgumentException("Invalid route path '" + path + "': " + e.getMessage(), e);
+        }
+        if (node.patterns.stream().anyMatch(p -> p.pattern().equals(pattern))) {
+            return false;
+        }
+        node.patterns.add(new PatternTarget<>(pattern, target));
+        node.patterns.sort((a, b) -> PathPattern.SPECIFICITY_COMPARATOR.compare(a.pattern(), b.pattern()));
+        size++;
+        return true;
+    }
+
+    private Match<T> lookupHost(Map<String, Node<T>> methods, HttpMethod method, Lookup request) {
+        if (methods == null) {
+            return null;
+        }
+        String[] values = new String[request.segments.length];
+        Match<T> match = find(methods.get(method.name()), request, 0, values);
+        return match != null ? match : find(methods.get(ANY), request, 0, values);
+    }
+
+    private static <T> Match<T> find(Node<T> node, Lookup request, int depth, String[] values) {
+        if (node == null) {
+            return null;
+        }
+        String[] segments = request.segments;
+        Match<T> found = null;
+        if (depth == segments.length) {
+            if (node.target != null) {
+                return new Match<>(node.target, variables(node.variableNames, values));
+            }
+        } else {
+            String segment = segments[depth];
+            found = find(node.literals.get(segment), request, depth + 1, values);
+            if (found == null && node.variable != null && !segment.isEmpty()) {
+                values[depth] = segment;
+                found = find(node.variable, request, depth + 1, values);
+                values[depth] = null;
+            }
+        }
+        if (found == null && !node.patterns.isEmpty()) {
+            found = findPattern(node.patterns, request.container());
+        }
+        if (found == null && node.catchAll != null && node.catchAll.target != null) {
+            found = new Match<>(node.catchAll.target, variables(node.catchAll.variableNames, values));
+        }
+        return found;
+    }
+
+    private static <T> Match<T> findPattern(List<PatternTarget<T>> patterns, PathContainer path) {
+        for (PatternTarget<T> candidate : patterns) {
+            PathPattern.PathMatchInfo info = candidate.pattern().matchAndExtract(path);
+            if (info != null) {
+                return new Match<>(candidate.target(), info.getUriVariables());
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> variables(String[] names, String[] values) {
+        if (names.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> variables = new LinkedHashMap<>(names.length * 2);
+        int next = 0;
+        for (String value : values) {
+            if (value != null && next < names.length) {
+                variables.put(names[next++], UriUtils.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return variables;
+    }
+
+    private static String[] variableNames(String path) {
+        return Arrays.stream(segments(path))
+                .filter(RouteIndex::isVariable)
+                .map(s -> s.substring(1, s.length() - 1))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * 整段的 {name}，不含正则约束与 {*name} 捕获
+     */
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.indexOf('}') == segment.length() - 1
+                && segment.indexOf('{', 1) < 0 && segment.indexOf(':') < 0 && segment.charAt(1) != '*';
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '{' || c == '}' || c == '*' || c == '?') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] segments(String path) {
+        if (path == null || path.isEmpty() || "/".equals(path)) {
+            return new String[0];
+        }
+        return (path.charAt(0) == '/' ? path.substring(1) : path).split("/", -1);
+    }
+
+    private static String normalizeHost(String host) {
+        return host == null || host.isEmpty() ? ANY : host.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 查找结果：路由目标与解码后的路径变量
+     */
+    public record Match<T>(T target, Map<String, String> variables) {
+    }
+
+    private record PatternTarget<T>(PathPattern pattern, T target) {
+    }
+
+    /**
+     * 一次查找的请求路径，PathContainer 只在遇到模式节点时才解析
+     */
+    private static final class Lookup {
+        private final String path;
+        private final String[] segments;
+        private PathContainer container;
+
+        Lookup(String path, String[] segments) {
+            this.path = path;
+            this.segments = segments;
+        }
+
+        PathContainer container() {
+            if (container == null) {
+                container = PathContainer.parsePath(path == null || path.isEmpty() ? "/" : path);
+            }
+            return container;
+        }
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> literals = new HashMap<>();
+        private final List<PatternTarget<T>> patterns = new ArrayList<>();
+        private Node<T> variable;
+        private Node<T> catchAll;
+        private T target;
+        private String[] variableNames;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.studiodemo.streaming;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定大小 byte[] 缓冲区池，无锁
+ * 后进先出，优先复用刚归还、仍在 CPU 缓存中的缓冲区；池空时新分配，归还时已满则丢弃交给 GC，
+ * max-pooled-buffers 只限制保留的空闲缓冲区数量，不限制并发
+ */
+final class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedDeque<byte[]> buffers = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final LongAdder allocated = new LongAdder();
+
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    byte[] acquire() {
+        byte[] buffer = buffers.pollFirst();
+        if (buffer != null) {
+            pooled.decrementAndGet();
+            return buffer;
+        }
+        allocated.increment();
+        return new byte[bufferSize];
+    }
+
+    void release(byte[] buffer) {
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        buffers.offerFirst(buffer);
+    }
+
+    long getAllocated() {
+        return allocated.sum();
+    }
+
+    int getPooled() {
+        return pooled.get();
+    }
+}
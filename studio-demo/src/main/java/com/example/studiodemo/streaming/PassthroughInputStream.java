@@ -0,0 +1,78 @@
+package com.example.studiodemo.streaming;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 流式透传的上游响应流
+ * 网关代理写出响应时调用 transferTo：用池化缓冲区边读边写，不缓冲整个响应体；
+ * 写 servlet 输出流是阻塞的，客户端读得慢时不会继续读上游（背压）。
+ * 上游暂无更多已到达的数据（available() == 0，即一个 chunk / 网络包读完）时 flush，
+ * 大响应连续到达时不逐块 flush，流式响应（SSE、分块输出）则及时送达客户端
+ */
+final class PassthroughInputStream extends InputStream {
+
+    private final InputStream source;
+    private final BufferPool bufferPool;
+    private final Counter bytes;
+    private final Counter flushes;
+
+    PassthroughInputStream(InputStream source, BufferPool bufferPool, Counter bytes, Counter flushes) {
+        this.source = source;
+        this.bufferPool = bufferPool;
+        this.bytes = bytes;
+        this.flushes = flushes;
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        byte[] buffer = bufferPool.acquire();
+        long total = 0;
+        try {
+            int n;
+            while ((n = source.read(buffer, 0, buffer.length)) != -1) {
+                out.write(buffer, 0, n);
+                total += n;
+                if (source.available() == 0) {
+                    out.flush();
+                    flushes.increment();
+                }
+            }
+            return total;
+        } finally {
+            bufferPool.release(buffer);
+            bytes.increment(total);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = source.read();
+        if (b != -1) {
+            bytes.increment();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = source.read(b, off, len);
+        if (n > 0) {
+            bytes.increment(n);
+        }
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return source.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.studiodemo.streaming;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 流式透传工厂
+ * 所有路由共用一个缓冲区池；gateway.streaming.enabled 为全局开关，路由上的 streaming 可单独覆盖
+ */
+@Component
+public class ResponseStreams {
+
+    private final MeterRegistry registry;
+    private final GatewayProperties.StreamingDefinition definition;
+    private final BufferPool bufferPool;
+
+    public ResponseStreams(GatewayProperties gatewayProperties, MeterRegistry registry) {
+        this.registry = registry;
+        this.definition = gatewayProperties.getStreaming();
+        this.bufferPool = new BufferPool((int) definition.getBufferSize().toBytes(), definition.getMaxPooledBuffers());
+
+        Gauge.builder("gateway.stream.buffers.pooled", bufferPool, BufferPool::getPooled)
+                .description("Idle buffers held by the streaming buffer pool")
+                .register(registry);
+        FunctionCounter.builder("gateway.stream.buffers.allocated", bufferPool, BufferPool::getAllocated)
+                .description("Buffers allocated because the pool had none idle")
+                .register(registry);
+    }
+
+    /**
+     * 路由的流式透传过滤器，未启用时返回 null
+     */
+    public RouteStreamingFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        boolean enabled = routeDef.getStreaming() != null ? routeDef.getStreaming() : definition.isEnabled();
+        if (!enabled) {
+            return null;
+        }
+        return new RouteStreamingFilter(bufferPool,
+                Counter.builder("gateway.stream.bytes")
+                        .description("Response bytes streamed to clients")
+                        .baseUnit("bytes")
+                        .tag("route", routeDef.getId())
+                        .register(registry),
+                Counter.builder("gateway.stream.flushes")
+                        .tag("route", routeDef.getId())
+                        .register(registry));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.studiodemo.streaming;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.InputStream;
+
+/**
+ * 流式透传过滤器
+ * 将（可能已被响应体重写包装的）上游响应流替换为 PassthroughInputStream，写出时由其完成池化拷贝
+ */
+public class RouteStreamingFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    private final BufferPool bufferPool;
+    private final Counter bytes;
+    private final Counter flushes;
+
+    RouteStreamingFilter(BufferPool bufferPool, Counter bytes, Counter flushes) {
+        this.bufferPool = bufferPool;
+        this.bytes = bytes;
+        this.flushes = flushes;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        ServerResponse response = next.handle(request);
+        InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+        if (body != null) {
+            MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                    new PassthroughInputStream(body, bufferPool, bytes, flushes));
+        }
+        return response;
+    }
+}
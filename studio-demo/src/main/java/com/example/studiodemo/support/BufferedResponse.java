@@ -0,0 +1,136 @@
+package com.example.studiodemo.support;
+
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * 已完整读入内存的代理响应（状态码、响应头、响应体）
+ * 从网关代理的响应流中读取一次，之后可多次生成 ServerResponse，供响应缓存、请求合并等共享
+ */
+public final class BufferedResponse {
+
+    /**
+     * 请求属性：本次返回的已缓冲响应，外层过滤器（如压缩）可据此复用其响应体变体
+     */
+    public static final String ATTRIBUTE = BufferedResponse.class.getName();
+
+    /**
+     * 不随缓冲响应保存的逐跳响应头，长度在写出时重新计算
+     */
+    private static final List<String> EXCLUDED_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.TRAILER, HttpHeaders.UPGRADE);
+
+    private final HttpStatusCode status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private volatile Map<String, byte[]> variants;
+
+    private BufferedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * 读取代理响应的完整响应体并释放上游连接
+     * 响应体超过 maxBytes 时不缓冲，已读取的部分放回响应流，原响应可照常写出，此时返回 null
+     */
+    public static BufferedResponse capture(ServerRequest request, ServerResponse response, int maxBytes)
+            throws IOException {
+        InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+        if (body == null) {
+            return new BufferedResponse(response.statusCode(), copyHeaders(response.headers()), new byte[0]);
+        }
+
+        byte[] bytes = body.readNBytes(maxBytes + 1);
+        if (bytes.length > maxBytes) {
+            MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                    new SequenceInputStream(new ByteArrayInputStream(bytes), body));
+            return null;
+        }
+        body.close();
+        return new BufferedResponse(response.statusCode(), copyHeaders(response.headers()), bytes);
+    }
+
+    public HttpStatusCode status() {
+        return status;
+    }
+
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    public int size() {
+        return body.length;
+    }
+
+    /**
+     * 已生成的响应体变体（如 gzip 压缩结果），不存在时返回 null
+     */
+    public byte[] variant(String name) {
+        Map<String, byte[]> current = variants;
+        return current != null ? current.get(name) : null;
+    }
+
+    /**
+     * 获取或生成响应体变体，变体随本对象（缓存条目）一起保存与淘汰，并发请求只生成一次
+     */
+    public byte[] variant(String name, UnaryOperator<byte[]> encoder) {
+        Map<String, byte[]> current = variants;
+        if (current == null) {
+            synchronized (this) {
+                current = variants;
+                if (current == null) {
+                    current = new ConcurrentHashMap<>(4);
+                    variants = current;
+                }
+            }
+        }
+        return current.computeIfAbsent(name, key -> encoder.apply(body));
+    }
+
+    /**
+     * 生成写出该响应的 ServerResponse，可附加额外响应头
+     */
+    public ServerResponse toServerResponse(String extraHeader, String extraValue) {
+        return ServerResponse.status(status)
+                .headers(h -> {
+                    h.addAll(headers);
+                    if (extraHeader != null) {
+                        h.set(extraHeader, extraValue);
+                    }
+                    h.setContentLength(body.length);
+                })
+                .build((servletRequest, servletResponse) -> {
+                    servletResponse.getOutputStream().write(body);
+                    return null;
+                });
+    }
+
+    private static HttpHeaders copyHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (EXCLUDED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.addAll(name, values);
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+}
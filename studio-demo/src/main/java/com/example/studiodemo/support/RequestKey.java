@@ -0,0 +1,45 @@
+package com.example.studiodemo.support;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 请求标识：原始请求路径 + 查询参数 + 指定请求头的值
+ * 用于响应缓存、请求合并等判断两个请求是否“相同”
+ */
+public final class RequestKey {
+
+    private RequestKey() {
+    }
+
+    /**
+     * 参与标识的请求头；响应格式随 Accept 协商的路由（二进制 wire-format）自动加入 Accept
+     */
+    public static String[] headers(List<String> keyHeaders, boolean varyByAccept) {
+        List<String> headers = new ArrayList<>(keyHeaders);
+        if (varyByAccept && headers.stream().noneMatch(HttpHeaders.ACCEPT::equalsIgnoreCase)) {
+            headers.add(HttpHeaders.ACCEPT);
+        }
+        return headers.toArray(new String[0]);
+    }
+
+    public static String of(HttpServletRequest request, String[] headers) {
+        String query = request.getQueryString();
+        if (headers.length == 0 && query == null) {
+            return request.getRequestURI();
+        }
+
+        StringBuilder key = new StringBuilder(128).append(request.getRequestURI());
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : headers) {
+            String value = request.getHeader(header);
+            key.append('\n').append(header).append(':').append(value != null ? value : "");
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.studiodemo.tracing;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 路由的追踪过滤器
+ * 作为最外层过滤器在响应写出前添加 Server-Timing；rewritten() 与 upstream() 分别标记路径重写完成与转发的起止。
+ * 未采样的请求只多一次请求属性读取
+ */
+public class RouteTracingFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        TraceContext trace = TraceContext.of(request.servletRequest());
+        if (trace == null || !trace.isSampled()) {
+            return next.handle(request);
+        }
+        ServerResponse response = next.handle(request);
+        trace.handled();
+        return response;
+    }
+
+    /**
+     * 在路径重写之后标记 REWRITTEN
+     */
+    public Function<ServerRequest, ServerRequest> rewritten(Function<ServerRequest, ServerRequest> rewrite) {
+        return rewrite.andThen(request -> {
+            TraceContext trace = TraceContext.of(request.servletRequest());
+            if (trace != null) {
+                trace.mark(Stage.REWRITTEN);
+            }
+            return request;
+        });
+    }
+
+    /**
+     * 包装转发处理函数：标记转发开始与收到响应头，取出上游的 Server-Timing 并从响应中移除，
+     * 由网关合并到自己的 Server-Timing 中返回（也避免响应缓存保存某一次请求的上游耗时）
+     */
+    public HandlerFunction<ServerResponse> upstream(HandlerFunction<ServerResponse> handler) {
+        return request -> {
+            TraceContext trace = TraceContext.of(request.servletRequest());
+            if (trace == null || !trace.isSampled()) {
+                return handler.handle(request);
+            }
+            trace.mark(Stage.UPSTREAM_STARTED);
+            ServerResponse response = handler.handle(request);
+            trace.mark(Stage.UPSTREAM_RESPONDED);
+            HttpHeaders headers = response.headers();
+            List<String> upstreamTiming = headers.get(TraceContext.SERVER_TIMING);
+            if (upstreamTiming != null) {
+                trace.upstreamTiming(String.join(", ", upstreamTiming));
+                headers.remove(TraceContext.SERVER_TIMING);
+            }
+            return response;
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.studiodemo.tracing;
+
+import com.example.studiodemo.StudioDemoApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 控制器（编排接口）的 Server-Timing：在写出响应体之前添加，异步返回的结果同样经过这里
+ */
+@ControllerAdvice(basePackageClasses = StudioDemoApplication.class)
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            TraceContext trace = TraceContext.of(servletRequest.getServletRequest());
+            if (trace != null) {
+                trace.handled();
+            }
+        }
+        return body;
+    }
+}
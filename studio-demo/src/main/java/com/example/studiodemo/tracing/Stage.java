@@ -0,0 +1,21 @@
+package com.example.studiodemo.tracing;
+
+/**
+ * 请求处理环节，TraceContext 按顺序记录每个环节结束时的单调时间
+ */
+public enum Stage {
+    /** 进入网关（最外层 servlet 过滤器） */
+    RECEIVED,
+    /** 路由索引匹配完成 */
+    ROUTED,
+    /** rewritePath 完成，只有配置了 rewrite 的路由记录 */
+    REWRITTEN,
+    /** 过滤器链执行完毕，开始转发 */
+    UPSTREAM_STARTED,
+    /** 收到上游响应头 */
+    UPSTREAM_RESPONDED,
+    /** 响应返回到最外层，写出响应头之前 */
+    HANDLED,
+    /** 响应体写出完毕（含流式重写、压缩与客户端网络） */
+    COMPLETED
+}
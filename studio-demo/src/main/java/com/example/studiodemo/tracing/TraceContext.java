@@ -0,0 +1,362 @@
+package com.example.studiodemo.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个请求的追踪上下文
+ * 所有请求都带 trace id 与本网关的 span id（用于向上游传播 traceparent）；
+ * 只有被采样的请求分配定长的时间戳与分支槽位，记录时只写数组元素，不分配对象、不加锁。
+ * 时间戳取自 System.nanoTime()，0 表示该环节未经过
+ */
+public final class TraceContext {
+
+    /**
+     * W3C Trace Context 请求头
+     */
+    public static final String TRACEPARENT = "traceparent";
+
+    /**
+     * 各环节耗时的响应头，上游（mvc-demo）以同名响应头报告自身处理耗时
+     */
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    /**
+     * 请求属性：当前请求的追踪上下文，由 TracingFilter 写入
+     */
+    public static final String ATTRIBUTE = TraceContext.class.getName();
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final String VERSION = "00";
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    /**
+     * 请求线程当前的追踪上下文，供拿不到请求对象的位置（如连接池）记录耗时
+     */
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final boolean sampled;
+    private final HttpServletResponse response;
+    private String traceparent;
+
+    private final long[] marks;
+    private long connectNanos;
+    private String upstreamTiming;
+
+    private final String[] spanNames;
+    private final long[] spanStarts;
+    private final long[] spanDurations;
+    private final boolean[] spanFallbacks;
+    private final AtomicInteger spanCount;
+
+    private TraceContext(String traceId, String parentSpanId, boolean sampled, int maxSpans,
+            HttpServletResponse response) {
+        this.traceId = traceId;
+        this.spanId = HEX.toHexDigits(nonZeroLong());
+        this.parentSpanId = parentSpanId;
+        this.sampled = sampled;
+        this.response = response;
+        if (sampled) {
+            this.marks = new long[Stage.values().length];
+            this.spanNames = new String[maxSpans];
+            this.spanStarts = new long[maxSpans];
+            this.spanDurations = new long[maxSpans];
+            this.spanFallbacks = new boolean[maxSpans];
+            this.spanCount = new AtomicInteger();
+        } else {
+            this.marks = null;
+            this.spanNames = null;
+            this.spanStarts = null;
+            this.spanDurations = null;
+            this.spanFallbacks = null;
+            this.spanCount = null;
+        }
+    }
+
+    /**
+     * 按请求的 traceparent 延续追踪：沿用 trace id 与 sampled 标记；没有或格式不合法时开始新的追踪，按采样率决定是否采样
+     */
+    static TraceContext start(String traceparent, double sampleRate, int maxSpans, HttpServletResponse response) {
+        if (isValid(traceparent)) {
+            boolean sampled = (HEX.fromHexDigits(traceparent, 53, 55) & 0x01) != 0;
+            return new TraceContext(traceparent.substring(3, 35), traceparent.substring(36, 52), sampled, maxSpans,
+                    response);
+        }
+        boolean sampled = sampleRate >= 1.0
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        String traceId = HEX.toHexDigits(ThreadLocalRandom.current().nextLong()) + HEX.toHexDigits(nonZeroLong());
+        return new TraceContext(traceId, null, sampled, maxSpans, response);
+    }
+
+    /**
+     * 请求的追踪上下文，追踪未开启时为 null
+     */
+    public static TraceContext of(HttpServletRequest request) {
+        return (TraceContext) request.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Reactor Context 中的追踪上下文，没有时为 null
+     */
+    public static TraceContext of(ContextView context) {
+        return context.getOrDefault(TraceContext.class, null);
+    }
+
+    /**
+     * 在 call 的 Reactor Context 中放入追踪上下文，下游调用（WebClient）与编排分支据此关联到本请求
+     */
+    public <T> Mono<T> propagate(Mono<T> call) {
+        return call.contextWrite(Context.of(TraceContext.class, this));
+    }
+
+    /**
+     * 当前线程的请求被采样时累加获取上游连接的耗时（含排队与新建连接）
+     */
+    public static void recordConnect(long nanos) {
+        TraceContext current = CURRENT.get();
+        if (current != null && current.sampled) {
+            current.connectNanos += nanos;
+        }
+    }
+
+    static void bind(TraceContext context) {
+        CURRENT.set(context);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    public String spanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * 发往上游的 traceparent：本网关的 span 作为上游的父 span
+     */
+    public String traceparent() {
+        String value = traceparent;
+        if (value == null) {
+            value = VERSION + "-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+            traceparent = value;
+        }
+        return value;
+    }
+
+    /**
+     * 记录环节结束时间，未采样时不做任何事
+     */
+    public void mark(Stage stage) {
+        if (sampled) {
+            marks[stage.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * 响应回到最外层、尚未写出时调用：记录 HANDLED 并添加 Server-Timing 响应头
+     * 响应头直接写到 servlet 响应上，ServerResponse 写出时追加自己的响应头，不会覆盖
+     */
+    public void handled() {
+        if (sampled) {
+            marks[Stage.HANDLED.ordinal()] = System.nanoTime();
+            if (!response.isCommitted()) {
+                response.addHeader(SERVER_TIMING, serverTiming());
+            }
+        }
+    }
+
+    /**
+     * 保存上游返回的 Server-Timing，与网关的耗时一起返回给客户端
+     */
+    public void upstreamTiming(String serverTiming) {
+        if (sampled) {
+            upstreamTiming = serverTiming;
+        }
+    }
+
+    /**
+     * 记录一个编排分支，可在任意线程调用；槽位用完时丢弃
+     */
+    public void span(String name, long startNanos, boolean fallback) {
+        if (!sampled) {
+            return;
+        }
+        long duration = System.nanoTime() - startNanos;
+        int index = spanCount.getAndIncrement();
+        if (index < spanNames.length) {
+            spanNames[index] = name;
+            spanStarts[index] = startNanos;
+            spanDurations[index] = duration;
+            spanFallbacks[index] = fallback;
+        }
+    }
+
+    /**
+     * Server-Timing 响应头：各环节耗时（毫秒），未经过的环节不输出
+     * route 路由匹配、rewrite 路径重写、filters 转发前的过滤器、connect 获取上游连接、upstream 等待上游响应头（不含 connect）、
+     * upstream-* 上游自身报告的耗时、response 响应侧过滤器、step-* 编排分支、total 网关处理总耗时（不含写出响应体）
+     */
+    public String serverTiming() {
+        StringBuilder header = new StringBuilder(192);
+        appendTimings(header, Stage.HANDLED, (out, name, nanos) -> {
+            if (!out.isEmpty()) {
+                out.append(", ");
+            }
+            out.append(name).append(";dur=");
+            appendMillis(out, nanos);
+        });
+        if (upstreamTiming != null) {
+            for (String metric : upstreamTiming.split(",")) {
+                if (!metric.isBlank()) {
+                    header.append(", upstream-").append(metric.strip());
+                }
+            }
+        }
+        return header.toString();
+    }
+
+    /**
+     * 追踪日志内容：与 Server-Timing 相同的环节，另含写出响应体的耗时（body）与各编排分支的起止时间
+     */
+    String describe() {
+        StringBuilder line = new StringBuilder(256)
+                .append("trace=").append(traceId).append(" span=").append(spanId);
+        if (parentSpanId != null) {
+            line.append(" parent=").append(parentSpanId);
+        }
+        appendTimings(line, Stage.COMPLETED, (out, name, nanos) -> {
+            out.append(' ').append(name).append('=');
+            appendMillis(out, nanos);
+            out.append("ms");
+        });
+        if (upstreamTiming != null) {
+            line.append(" upstream-timing=\"").append(upstreamTiming).append('"');
+        }
+        return line.toString();
+    }
+
+    private void appendTimings(StringBuilder out, Stage end, TimingAppender appender) {
+        long received = marks[Stage.RECEIVED.ordinal()];
+        long routed = marks[Stage.ROUTED.ordinal()];
+        long rewritten = marks[Stage.REWRITTEN.ordinal()];
+        long upstreamStarted = marks[Stage.UPSTREAM_STARTED.ordinal()];
+        long upstreamResponded = marks[Stage.UPSTREAM_RESPONDED.ordinal()];
+        long handled = marks[Stage.HANDLED.ordinal()];
+        long filtersStart = rewritten != 0 ? rewritten : routed;
+
+        if (routed != 0) {
+            appender.append(out, "route", routed - received);
+        }
+        if (rewritten != 0 && routed != 0) {
+            appender.append(out, "rewrite", rewritten - routed);
+        }
+        if (upstreamStarted != 0 && upstreamResponded != 0) {
+            if (filtersStart != 0) {
+                appender.append(out, "filters", upstreamStarted - filtersStart);
+            }
+            if (connectNanos > 0) {
+                appender.append(out, "connect", connectNanos);
+            }
+            appender.append(out, "upstream", Math.max(0, upstreamResponded - upstreamStarted - connectNanos));
+            if (handled != 0) {
+                appender.append(out, "response", handled - upstreamResponded);
+            }
+        } else if (filtersStart != 0 && handled != 0) {
+            // 缓存命中、限流等未访问上游的请求
+            appender.append(out, "filters", handled - filtersStart);
+        }
+
+        int spans = Math.min(spanCount.get(), spanNames.length);
+        for (int i = 0; i < spans; i++) {
+            if (end == Stage.HANDLED) {
+                appender.append(out, "step-" + spanNames[i], spanDurations[i]);
+            } else {
+                out.append(" step-").append(spanNames[i]).append("=+");
+                appendMillis(out, spanStarts[i] - received);
+                out.append("ms/");
+                appendMillis(out, spanDurations[i]);
+                out.append(spanFallbacks[i] ? "ms(fallback)" : "ms");
+            }
+        }
+
+        if (handled != 0) {
+            if (end == Stage.COMPLETED && marks[Stage.COMPLETED.ordinal()] != 0) {
+                appender.append(out, "body", marks[Stage.COMPLETED.ordinal()] - handled);
+            }
+            appender.append(out, "total", handled - received);
+        }
+    }
+
+    private static void appendMillis(StringBuilder out, long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        out.append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    /**
+     * 00-{32 位 trace id}-{16 位 parent id}-{2 位 flags}，id 不能全为 0
+     */
+    private static boolean isValid(String traceparent) {
+        if (traceparent == null || traceparent.length() != TRACEPARENT_LENGTH || !traceparent.startsWith(VERSION)
+                || traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') {
+            return false;
+        }
+        boolean traceIdZero = true;
+        boolean parentIdZero = true;
+        for (int i = 3; i < TRACEPARENT_LENGTH; i++) {
+            char c = traceparent.charAt(i);
+            if (i == 35 || i == 52) {
+                continue;
+            }
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+            if (c != '0') {
+                if (i < 35) {
+                    traceIdZero = false;
+                } else if (i < 52) {
+                    parentIdZero = false;
+                }
+            }
+        }
+        return !traceIdZero && !parentIdZero;
+    }
+
+    private static long nonZeroLong() {
+        long value;
+        do {
+            value = ThreadLocalRandom.current().nextLong();
+        } while (value == 0);
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface TimingAppender {
+        void append(StringBuilder out, String name, long nanos);
+    }
+}
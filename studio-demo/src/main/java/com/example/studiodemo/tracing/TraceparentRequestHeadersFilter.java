@@ -0,0 +1,26 @@
+package com.example.studiodemo.tracing;
+
+import org.springframework.cloud.gateway.server.mvc.filter.HttpHeadersFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+
+/**
+ * 网关转发的请求携带 traceparent：trace id 与采样标记不变，父 span 换成网关的 span
+ */
+@Component
+public class TraceparentRequestHeadersFilter implements HttpHeadersFilter.RequestHttpHeadersFilter {
+
+    @Override
+    public HttpHeaders apply(HttpHeaders input, ServerRequest request) {
+        TraceContext trace = TraceContext.of(request.servletRequest());
+        if (trace == null) {
+            return input;
+        }
+        // 传入的请求头可能只读
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(input);
+        headers.set(TraceContext.TRACEPARENT, trace.traceparent());
+        return headers;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.studiodemo.tracing;
+
+import com.example.studiodemo.config.GatewayProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * 请求追踪
+ * TracingFilter 为每个请求创建 TraceContext，路由与编排在各环节记录时间，
+ * 被采样的请求结束后输出一行追踪日志（logger gateway.trace）
+ */
+@Component
+public class Tracer {
+
+    private static final Logger traceLog = LoggerFactory.getLogger("gateway.trace");
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int maxSpans;
+    private final RouteTracingFilter routeFilter = new RouteTracingFilter();
+
+    public Tracer(GatewayProperties gatewayProperties) {
+        GatewayProperties.TracingDefinition definition = gatewayProperties.getTracing();
+        this.enabled = definition.isEnabled();
+        this.sampleRate = definition.getSampleRate();
+        this.maxSpans = Math.max(0, definition.getMaxSpans());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 路由的追踪过滤器，未开启追踪时返回 null
+     */
+    public RouteTracingFilter forRoute(GatewayProperties.RouteDefinition routeDef) {
+        return enabled ? routeFilter : null;
+    }
+
+    /**
+     * WebClient 过滤器：订阅上下文中有追踪时携带 traceparent 调用下游
+     */
+    public ExchangeFilterFunction exchangeFilter() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            TraceContext trace = TraceContext.of(context);
+            if (trace == null) {
+                return next.exchange(request);
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .headers(headers -> headers.set(TraceContext.TRACEPARENT, trace.traceparent()))
+                    .build());
+        });
+    }
+
+    TraceContext start(HttpServletRequest request, HttpServletResponse response) {
+        TraceContext trace = TraceContext.start(request.getHeader(TraceContext.TRACEPARENT), sampleRate, maxSpans,
+                response);
+        trace.mark(Stage.RECEIVED);
+        return trace;
+    }
+
+    /**
+     * 响应体写出完毕：输出追踪日志
+     */
+    void complete(TraceContext trace, HttpServletRequest request, HttpServletResponse response) {
+        trace.mark(Stage.COMPLETED);
+        if (traceLog.isInfoEnabled()) {
+            Object routeId = request.getAttribute(MvcUtils.GATEWAY_ROUTE_ID_ATTR);
+            traceLog.info("{} {} route={} status={} {}", request.getMethod(), request.getRequestURI(),
+                    routeId != null ? routeId : "-", response.getStatus(), trace.describe());
+        }
+    }
+}
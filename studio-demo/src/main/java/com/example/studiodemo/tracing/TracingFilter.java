@@ -0,0 +1,88 @@
+package com.example.studiodemo.tracing;
+
+import com.example.studiodemo.warmup.WarmUpRequests;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 追踪的最外层 servlet 过滤器
+ * 创建请求的 TraceContext 并绑定到请求属性与当前线程；被采样的请求在响应体写出后（异步请求在异步处理完成后）输出追踪日志；
+ * 预热请求不创建 TraceContext
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+    private final WarmUpRequests warmUpRequests;
+
+    public TracingFilter(Tracer tracer, WarmUpRequests warmUpRequests) {
+        this.tracer = tracer;
+        this.warmUpRequests = warmUpRequests;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !tracer.isEnabled() || warmUpRequests.isWarmUp(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TraceContext trace = tracer.start(request, response);
+        request.setAttribute(TraceContext.ATTRIBUTE, trace);
+        TraceContext.bind(trace);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TraceContext.unbind();
+            if (trace.isSampled()) {
+                if (request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(new CompletionListener(trace, request, response));
+                } else {
+                    tracer.complete(trace, request, response);
+                }
+            }
+        }
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final TraceContext trace;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+
+        CompletionListener(TraceContext trace, HttpServletRequest request, HttpServletResponse response) {
+            this.trace = trace;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            tracer.complete(trace, request, response);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.studiodemo.upstream;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongConsumer;
+
+/**
+ * 记录连接获取耗时与新建连接耗时的连接管理器包装
+ */
+class InstrumentedConnectionManager implements HttpClientConnectionManager {
+
+    private final HttpClientConnectionManager delegate;
+    private final LongConsumer acquireNanosListener;
+    private final LongConsumer connectNanosListener;
+
+    InstrumentedConnectionManager(HttpClientConnectionManager delegate, LongConsumer acquireNanosListener,
+            LongConsumer connectNanosListener) {
+        this.delegate = delegate;
+        this.acquireNanosListener = acquireNanosListener;
+        this.connectNanosListener = connectNanosListener;
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        long start = System.nanoTime();
+        LeaseRequest lease = delegate.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                try {
+                    return lease.get(timeout);
+                } finally {
+                    acquireNanosListener.accept(System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return lease.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void release(ConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+        delegate.release(endpoint, newState, validDuration);
+    }
+
+    @Override
+    public void connect(ConnectionEndpoint endpoint, TimeValue connectTimeout, HttpContext context)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            delegate.connect(endpoint, connectTimeout, context);
+        } finally {
+            connectNanosListener.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void upgrade(ConnectionEndpoint endpoint, HttpContext context) throws IOException {
+        delegate.upgrade(endpoint, context);
+    }
+
+    @Override
+    public void close(CloseMode closeMode) {
+        delegate.close(closeMode);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
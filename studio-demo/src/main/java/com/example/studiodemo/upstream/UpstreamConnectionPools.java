@@ -0,0 +1,165 @@
+package com.example.studiodemo.upstream;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * 按上游地址（host:port）划分连接池的 ClientHttpRequestFactory
+ * 网关代理（HandlerFunctions.http）的所有请求都经由此工厂，每个上游独立的连接池、超时与空闲回收；
+ * 同一上游以第一个配置了 connection 的路由为准，其他路由合并默认值后的配置与之不同时记录警告
+ */
+public class UpstreamConnectionPools implements ClientHttpRequestFactory, MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamConnectionPools.class);
+
+    private static final long EVICT_INTERVAL_SECONDS = 5;
+
+    private final GatewayProperties.ConnectionPoolDefinition defaults;
+    private final Map<String, GatewayProperties.ConnectionPoolDefinition> definitions = new LinkedHashMap<>();
+    private final ConcurrentMap<String, UpstreamPool> pools = new ConcurrentHashMap<>();
+    private final Executor http2Executor;
+    private final UnaryOperator<URI> targetResolver;
+    private final ScheduledExecutorService evictor;
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * @param http2Executor  h2c 客户端使用的执行器，为 null 时使用 JDK 默认线程池
+     * @param targetResolver 请求的实际发送地址（启动预热期间指向替身上游），连接池仍按原地址选择
+     */
+    public UpstreamConnectionPools(GatewayProperties gatewayProperties, Executor http2Executor,
+            UnaryOperator<URI> targetResolver) {
+        this.defaults = gatewayProperties.getHttpClient();
+        this.http2Executor = http2Executor;
+        this.targetResolver = targetResolver;
+
+        Map<String, String> definedBy = new LinkedHashMap<>();
+        for (GatewayProperties.RouteDefinition routeDef : gatewayProperties.getRoutes()) {
+            if (routeDef.getConnection() == null) {
+                continue;
+            }
+            GatewayProperties.ConnectionPoolDefinition definition = routeDef.getConnection().mergedWith(defaults);
+            for (String uri : routeDef.targetUris()) {
+                String upstream = upstreamKey(URI.create(uri));
+                GatewayProperties.ConnectionPoolDefinition existing = definitions.putIfAbsent(upstream, definition);
+                if (existing == null) {
+                    definedBy.put(upstream, routeDef.getId());
+                } else if (!existing.equals(definition)) {
+                    log.warn("Route {} sets connection {} for upstream {}, which is shared with route {}; "
+                                    + "keeping the first definition {}",
+                            routeDef.getId(), definition, upstream, definedBy.get(upstream), existing);
+                }
+            }
+        }
+        for (GatewayProperties.RouteDefinition routeDef : gatewayProperties.getRoutes()) {
+            for (String uri : routeDef.targetUris()) {
+                pool(upstreamKey(URI.create(uri)));
+            }
+        }
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evictIdle,
+                EVICT_INTERVAL_SECONDS, EVICT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return pool(upstreamKey(uri)).requestFactory().createRequest(targetResolver.apply(uri), httpMethod);
+    }
+
+    /**
+     * 当前所有上游连接池的统计快照
+     */
+    public Map<String, UpstreamPool.PoolSnapshot> snapshots() {
+        Map<String, UpstreamPool.PoolSnapshot> snapshots = new LinkedHashMap<>();
+        pools.forEach((upstream, pool) -> snapshots.put(upstream, pool.snapshot()));
+        return snapshots;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        pools.values().forEach(pool -> registerMeters(registry, pool));
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+        pools.values().forEach(UpstreamPool::close);
+    }
+
+    UpstreamPool pool(String upstream) {
+        UpstreamPool pool = pools.get(upstream);
+        return pool != null ? pool : pools.computeIfAbsent(upstream, this::createPool);
+    }
+
+    private UpstreamPool createPool(String upstream) {
+        GatewayProperties.ConnectionPoolDefinition definition = definitions.getOrDefault(upstream, defaults);
+        UpstreamPool pool = new UpstreamPool(upstream, definition, http2Executor);
+        log.info("Created upstream pool {} (maxConnections={}, http2={})",
+                upstream, definition.getMaxConnections(), definition.getHttp2());
+
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registerMeters(registry, pool);
+        }
+        return pool;
+    }
+
+    private void registerMeters(MeterRegistry registry, UpstreamPool pool) {
+        String upstream = pool.getUpstream();
+        Gauge.builder("gateway.upstream.pool.active", pool, p -> p.snapshot().active())
+                .tag("upstream", upstream).register(registry);
+        Gauge.builder("gateway.upstream.pool.idle", pool, p -> p.snapshot().idle())
+                .tag("upstream", upstream).register(registry);
+        Gauge.builder("gateway.upstream.pool.pending", pool, p -> p.snapshot().pending())
+                .tag("upstream", upstream).register(registry);
+        Gauge.builder("gateway.upstream.pool.max", pool, p -> p.snapshot().maxConnections())
+                .tag("upstream", upstream).register(registry);
+        Timer acquireTimer = Timer.builder("gateway.upstream.pool.acquire")
+                .description("Time to lease a connection from the upstream pool")
+                .tag("upstream", upstream)
+                .register(registry);
+        pool.setAcquireListener(nanos -> acquireTimer.record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    private void evictIdle() {
+        try {
+            pools.values().forEach(UpstreamPool::evictIdle);
+        } catch (Exception e) {
+            log.warn("Failed to evict idle upstream connections: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 上游标识：host:port
+     */
+    public static String upstreamKey(URI uri) {
+        String authority = uri.getRawAuthority();
+        return authority != null ? authority : "default";
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.studiodemo.upstream;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.tracing.TraceContext;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * 单个上游的连接池
+ * HTTP/1.1 使用 Apache HttpClient 连接池（keep-alive 复用、空闲回收）；
+ * 开启 http2 时使用 JDK HttpClient 通过 h2c 多路复用，此时不提供连接数统计
+ */
+public final class UpstreamPool {
+
+    private final String upstream;
+    private final GatewayProperties.ConnectionPoolDefinition definition;
+    private final ClientHttpRequestFactory requestFactory;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private volatile LongConsumer acquireListener = nanos -> {
+    };
+
+    UpstreamPool(String upstream, GatewayProperties.ConnectionPoolDefinition definition, Executor http2Executor) {
+        this.upstream = upstream;
+        this.definition = definition;
+
+        if (Boolean.TRUE.equals(definition.getHttp2())) {
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(definition.getConnectTimeout())
+                    .followRedirects(HttpClient.Redirect.NEVER);
+            if (http2Executor != null) {
+                builder.executor(http2Executor);
+            }
+            HttpClient client = builder.build();
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+            factory.setReadTimeout(definition.getReadTimeout());
+            this.requestFactory = factory;
+            this.connectionManager = null;
+            this.httpClient = null;
+            return;
+        }
+
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(definition.getMaxConnections())
+                .setMaxConnPerRoute(definition.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(definition.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(definition.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(definition.getTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(new InstrumentedConnectionManager(connectionManager, this::recordAcquire,
+                        TraceContext::recordConnect))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(definition.getAcquireTimeout()))
+                        .setResponseTimeout(Timeout.of(definition.getReadTimeout()))
+                        .build())
+                .disableContentCompression()
+                .disableRedirectHandling()
+                .disableCookieManagement()
+                .disableAuthCaching()
+                .build();
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public GatewayProperties.ConnectionPoolDefinition getDefinition() {
+        return definition;
+    }
+
+    ClientHttpRequestFactory requestFactory() {
+        return requestFactory;
+    }
+
+    void setAcquireListener(LongConsumer acquireListener) {
+        this.acquireListener = acquireListener;
+    }
+
+    /**
+     * 关闭过期和空闲超时的连接
+     */
+    void evictIdle() {
+        if (connectionManager != null) {
+            connectionManager.closeExpired();
+            connectionManager.closeIdle(TimeValue.of(definition.getIdleTimeout()));
+        }
+    }
+
+    void close() {
+        if (httpClient != null) {
+            httpClient.close(CloseMode.GRACEFUL);
+        }
+    }
+
+    public PoolSnapshot snapshot() {
+        long count = acquireCount.sum();
+        double meanMillis = count == 0 ? 0 : acquireNanos.sum() / (double) count / 1_000_000;
+        double maxMillis = maxAcquireNanos.get() / 1_000_000.0;
+
+        if (connectionManager == null) {
+            return new PoolSnapshot(upstream, "h2c", definition.getMaxConnections(), -1, -1, -1,
+                    count, meanMillis, maxMillis);
+        }
+        PoolStats stats = connectionManager.getTotalStats();
+        return new PoolSnapshot(upstream, "http/1.1", stats.getMax(), stats.getLeased(), stats.getAvailable(),
+                stats.getPending(), count, meanMillis, maxMillis);
+    }
+
+    private void recordAcquire(long nanos) {
+        acquireCount.increment();
+        acquireNanos.add(nanos);
+        maxAcquireNanos.accumulateAndGet(nanos, Math::max);
+        acquireListener.accept(nanos);
+        TraceContext.recordConnect(nanos);
+    }
+
+    /**
+     * 连接池统计快照
+     * active: 使用中的连接；idle: 空闲连接；pending: 等待获取连接的请求数
+     */
+    public record PoolSnapshot(String upstream, String protocol, int maxConnections, int active, int idle,
+            int pending, long acquireCount, double acquireMeanMillis, double acquireMaxMillis) {
+    }
+}
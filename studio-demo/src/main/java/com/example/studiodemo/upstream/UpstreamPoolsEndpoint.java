@@ -0,0 +1,24 @@
+package com.example.studiodemo.upstream;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * 上游连接池统计端点：GET /actuator/upstreampools
+ */
+@Endpoint(id = "upstreampools")
+public class UpstreamPoolsEndpoint {
+
+    private final UpstreamConnectionPools pools;
+
+    public UpstreamPoolsEndpoint(UpstreamConnectionPools pools) {
+        this.pools = pools;
+    }
+
+    @ReadOperation
+    public Map<String, UpstreamPool.PoolSnapshot> pools() {
+        return pools.snapshots();
+    }
+}
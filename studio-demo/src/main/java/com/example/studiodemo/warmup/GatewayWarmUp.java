@@ -0,0 +1,247 @@
+package com.example.studiodemo.warmup;
+
+import com.example.studiodemo.StudioDemoApplication;
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.apache.hc.core5.net.URIAuthority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 启动预热
+ * 以 ApplicationRunner 运行：此时 Web 服务器已监听端口，readiness 仍为 REFUSING_TRAFFIC，
+ * Spring Boot 在所有 runner 返回后才发布 ACCEPTING_TRAFFIC。
+ * 经回环地址向每个目标发送合成请求，完整经过 Tomcat、路由索引、过滤器链、响应体重写与编排代码，
+ * 使其在接入流量前由 C2 编译；每秒输出一次延迟，结束时报告耗时与最后一个区间的延迟。
+ * 预热请求带有 WarmUpRequests 标记，不计入路由指标、访问日志与追踪。
+ * 预热失败只记录日志，不影响启动
+ */
+@Component
+public class GatewayWarmUp implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GatewayWarmUp.class);
+
+    private static final long REPORT_INTERVAL_MILLIS = 1000;
+
+    private final GatewayProperties gatewayProperties;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final WarmUpUpstream warmUpUpstream;
+    private final Environment environment;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final WarmUpRequests warmUpRequests;
+
+    public GatewayWarmUp(GatewayProperties gatewayProperties,
+            @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+            WarmUpUpstream warmUpUpstream, WarmUpRequests warmUpRequests, Environment environment,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.gatewayProperties = gatewayProperties;
+        this.handlerMapping = handlerMapping;
+        this.warmUpUpstream = warmUpUpstream;
+        this.warmUpRequests = warmUpRequests;
+        this.environment = environment;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        GatewayProperties.WarmUpDefinition definition = gatewayProperties.getWarmUp();
+        if (!definition.isEnabled()) {
+            return;
+        }
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0) {
+            log.info("Skipping warm-up: server is not listening on a port");
+            return;
+        }
+        List<WarmUpTarget> targets = WarmUpTarget.collect(gatewayProperties, handlerMapping,
+                StudioDemoApplication.class.getPackageName(),
+                environment.getProperty("server.servlet.context-path", ""));
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        boolean stubbed = definition.getUpstream() == GatewayProperties.WarmUpDefinition.Upstream.STUB;
+        log.info("Warming up {} targets ({} iterations, {} upstream)", targets.size(), definition.getIterations(),
+                stubbed ? "stub" : "real");
+        StubUpstream stub = null;
+        try {
+            if (stubbed) {
+                stub = StubUpstream.start();
+                warmUpUpstream.redirectTo(stub.uri());
+            }
+            report(drive(definition, targets, port));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Warm-up failed, continuing startup: {}", e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            warmUpUpstream.restore();
+            if (stub != null) {
+                stub.close();
+            }
+        }
+        eventPublisher.publishEvent(new WarmUpFinishedEvent(stubbed));
+    }
+
+    /**
+     * concurrency 个线程依次领取轮次，每轮按顺序请求全部目标，直到完成 iterations 轮或超过 max-duration
+     */
+    private Report drive(GatewayProperties.WarmUpDefinition definition, List<WarmUpTarget> targets, int port)
+            throws IOException, InterruptedException {
+        HttpHost server = new HttpHost("http", InetAddress.getLoopbackAddress(), port);
+        int concurrency = Math.max(1, definition.getConcurrency());
+        long start = System.nanoTime();
+        long deadline = start + definition.getMaxDuration().toNanos();
+        AtomicInteger nextIteration = new AtomicInteger();
+        AtomicInteger completedIterations = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        Recorder recorder = new Recorder(3);
+
+        try (CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(concurrency)
+                        .setMaxConnPerRoute(concurrency)
+                        .build())
+                .disableAutomaticRetries()
+                .disableRedirectHandling()
+                .build()) {
+            AtomicInteger threads = new AtomicInteger();
+            ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "gateway-warm-up-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (int i = 0; i < concurrency; i++) {
+                workers.execute(() -> {
+                    int iteration;
+                    while ((iteration = nextIteration.getAndIncrement()) < definition.getIterations()
+                            && System.nanoTime() < deadline) {
+                        for (WarmUpTarget target : targets) {
+                            send(client, server, target, iteration, recorder, errors);
+                        }
+                        completedIterations.incrementAndGet();
+                    }
+                });
+            }
+            workers.shutdown();
+
+            Histogram total = new Histogram(3);
+            Histogram interval = null;
+            Histogram last = null;
+            boolean finished = false;
+            while (!finished) {
+                try {
+                    finished = workers.awaitTermination(REPORT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    workers.shutdownNow();
+                    throw e;
+                }
+                interval = recorder.getIntervalHistogram(interval);
+                if (interval.getTotalCount() == 0) {
+                    continue;
+                }
+                total.add(interval);
+                if (finished && last != null) {
+                    // 最后不足一个区间的请求并入上一个区间
+                    last.add(interval);
+                } else {
+                    last = interval.copy();
+                }
+                log.debug("Warm-up: {} requests, p99 {}ms",
+                        total.getTotalCount(), millis(interval.getValueAtPercentile(99)));
+            }
+            return new Report(Duration.ofNanos(System.nanoTime() - start), targets.size(),
+                    completedIterations.get(), total.getTotalCount(), errors.get(),
+                    last != null ? last : total);
+        }
+    }
+
+    private void send(CloseableHttpClient client, HttpHost server, WarmUpTarget target, int iteration,
+            Recorder recorder, AtomicLong errors) {
+        ClassicHttpRequest request = ClassicRequestBuilder.get()
+                .setHttpHost(server)
+                .setPath(target.path(iteration))
+                .setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader(WarmUpRequests.HEADER, warmUpRequests.token())
+                .build();
+        if (target.host() != null) {
+            request.setAuthority(new URIAuthority(target.host()));
+        }
+        long start = System.nanoTime();
+        try {
+            int status = client.execute(server, request, response -> {
+                EntityUtils.consume(response.getEntity());
+                return response.getCode();
+            });
+            recorder.recordValue(System.nanoTime() - start);
+            if (status >= 400) {
+                errors.incrementAndGet();
+                log.debug("Warm-up request to {} returned {}", target.name(), status);
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+            log.debug("Warm-up request to {} failed: {}", target.name(), e.toString());
+        }
+    }
+
+    private void report(Report report) {
+        log.info("Warm-up finished in {}ms: {} iterations over {} targets, {} requests, {} errors; "
+                        + "final latency p50={}ms p99={}ms max={}ms",
+                report.duration().toMillis(), report.iterations(), report.targets(), report.requests(),
+                report.errors(), millis(report.latency().getValueAtPercentile(50)),
+                millis(report.latency().getValueAtPercentile(99)), millis(report.latency().getMaxValue()));
+
+        TimeGauge.builder("gateway.warmup.duration", report, TimeUnit.NANOSECONDS, r -> r.duration().toNanos())
+                .description("Time spent warming up before accepting traffic")
+                .register(meterRegistry);
+        for (double percentile : new double[] {50, 99}) {
+            long value = report.latency().getValueAtPercentile(percentile);
+            TimeGauge.builder("gateway.warmup.latency", () -> value, TimeUnit.NANOSECONDS)
+                    .description("Warm-up request latency in the final reporting interval")
+                    .tag("percentile", String.valueOf((int) percentile))
+                    .register(meterRegistry);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * @param latency 最后一个报告区间的延迟分布
+     */
+    private record Report(Duration duration, int targets, int iterations, long requests, long errors,
+                          Histogram latency) {
+    }
+}
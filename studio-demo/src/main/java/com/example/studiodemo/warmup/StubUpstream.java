@@ -0,0 +1,122 @@
+package com.example.studiodemo.warmup;
+
+import com.example.studiodemo.codec.WireFormat;
+import com.example.studiodemo.model.ApiResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 预热用的进程内替身上游（JDK HttpServer，只监听回环地址）
+ * 与 mvc-demo 的接口形态一致：无请求体时返回 ApiResponse.success(路径最后一段)，
+ * 带列表请求体的批量调用逐项返回；报文格式按 Accept / Content-Type 协商 JSON、Smile 或 CBOR
+ */
+final class StubUpstream implements AutoCloseable {
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+
+    private StubUpstream(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+        for (WireFormat format : WireFormat.values()) {
+            // 复制工厂，ObjectMapper 会修改工厂的 codec
+            mappers.put(format, new ObjectMapper(format.factory().copy()));
+        }
+    }
+
+    static StubUpstream start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "warm-up-stub-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        StubUpstream stub = new StubUpstream(server, executor);
+        server.createContext("/", stub::handle);
+        server.setExecutor(executor);
+        server.start();
+        return stub;
+    }
+
+    URI uri() {
+        InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getAddress().getHostAddress() + ":" + address.getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            Object body;
+            if (requestBody.length > 0) {
+                WireFormat requestFormat = format(exchange.getRequestHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+                body = mappers.get(requestFormat).readValue(requestBody, STRING_LIST).stream()
+                        .map(ApiResponse::success)
+                        .toList();
+            } else {
+                String path = exchange.getRequestURI().getPath();
+                body = ApiResponse.success(path.substring(path.lastIndexOf('/') + 1));
+            }
+
+            WireFormat responseFormat = negotiate(exchange.getRequestHeaders().getFirst(HttpHeaders.ACCEPT));
+            byte[] bytes = mappers.get(responseFormat).writeValueAsBytes(body);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, responseFormat.mediaType().toString());
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (IOException | RuntimeException e) {
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Accept 中第一个支持的格式，没有时使用 JSON
+     */
+    private static WireFormat negotiate(String accept) {
+        if (accept != null) {
+            try {
+                for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                    WireFormat format = WireFormat.of(mediaType);
+                    if (format != null) {
+                        return format;
+                    }
+                }
+            } catch (InvalidMediaTypeException e) {
+                // 按 JSON 返回
+            }
+        }
+        return WireFormat.JSON;
+    }
+
+    private static WireFormat format(String contentType) {
+        WireFormat format = contentType != null ? WireFormat.of(MediaType.parseMediaType(contentType)) : null;
+        return format != null ? format : WireFormat.JSON;
+    }
+}
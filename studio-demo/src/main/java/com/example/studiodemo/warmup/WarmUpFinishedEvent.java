@@ -0,0 +1,10 @@
+package com.example.studiodemo.warmup;
+
+/**
+ * 启动预热结束事件，在 readiness 变为 ACCEPTING_TRAFFIC 之前发布；
+ * 限流、对冲、负载均衡与上游保护据此丢弃预热流量积累的状态
+ *
+ * @param stubbedUpstream 是否使用了替身上游（为 true 时各缓存中的预热结果应丢弃）
+ */
+public record WarmUpFinishedEvent(boolean stubbedUpstream) {
+}
@@ -0,0 +1,71 @@
+package com.example.studiodemo.warmup;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationPredicate;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.cloud.gateway.server.mvc.filter.HttpHeadersFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.UUID;
+
+/**
+ * 预热请求标记
+ * 预热请求携带 X-Gateway-Warm-Up 请求头，值为进程启动时生成的随机令牌，外部请求无法冒充；
+ * 路由与编排指标、访问日志、追踪和 http.server.requests 观测据此跳过预热流量，转发到上游前移除该请求头
+ */
+@Component
+public class WarmUpRequests implements HttpHeadersFilter.RequestHttpHeadersFilter, ObservationPredicate {
+
+    public static final String HEADER = "X-Gateway-Warm-Up";
+
+    private static final String CONTEXT_KEY = WarmUpRequests.class.getName();
+
+    private final String token = UUID.randomUUID().toString();
+
+    /**
+     * 是否为预热请求
+     */
+    public boolean isWarmUp(HttpServletRequest request) {
+        return token.equals(request.getHeader(HEADER));
+    }
+
+    /**
+     * 是否为预热请求发起的响应式调用（见 {@link #propagate}）
+     */
+    public static boolean isWarmUp(ContextView context) {
+        return context.hasKey(CONTEXT_KEY);
+    }
+
+    /**
+     * 预热请求的编排调用在 Reactor Context 中带上标记，供分支计时等不持有 servlet 请求的代码判断
+     */
+    public Context propagate(HttpServletRequest request, Context context) {
+        return isWarmUp(request) ? context.put(CONTEXT_KEY, Boolean.TRUE) : context;
+    }
+
+    String token() {
+        return token;
+    }
+
+    @Override
+    public HttpHeaders apply(HttpHeaders input, ServerRequest request) {
+        if (!input.containsKey(HEADER)) {
+            return input;
+        }
+        // 传入的请求头可能只读
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(input);
+        headers.remove(HEADER);
+        return headers;
+    }
+
+    @Override
+    public boolean test(String name, Observation.Context context) {
+        return !(context instanceof ServerRequestObservationContext server && isWarmUp(server.getCarrier()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.studiodemo.warmup;
+
+import com.example.studiodemo.config.GatewayProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 预热请求目标：一条路由或一个编排接口
+ * 路径变量与通配符替换为 warm-up-{轮次}，每轮请求不同的路径，缓存与合并的未命中路径同样得到预热；
+ * 只预热 GET 接口，避免在真实上游上产生副作用
+ *
+ * @param host 路由的 host 断言（通配符替换为 warm-up），为 null 时不指定 Host
+ */
+record WarmUpTarget(String name, String host, String pathPattern) {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{[^}]*}|\\*\\*|\\*");
+
+    String path(int iteration) {
+        return VARIABLE.matcher(pathPattern).replaceAll("warm-up-" + iteration);
+    }
+
+    /**
+     * 配置的网关路由与 basePackage 下控制器的 GET 接口
+     */
+    static List<WarmUpTarget> collect(GatewayProperties properties, RequestMappingHandlerMapping handlerMapping,
+            String basePackage, String contextPath) {
+        List<WarmUpTarget> targets = new ArrayList<>();
+        for (GatewayProperties.RouteDefinition routeDef : properties.getRoutes()) {
+            GatewayProperties.PredicateDefinition predicates = routeDef.getPredicates();
+            if (predicates == null || predicates.getPath() == null
+                    || (predicates.getMethod() != null && !HttpMethod.GET.matches(predicates.getMethod()))) {
+                continue;
+            }
+            String host = predicates.getHost() != null
+                    ? VARIABLE.matcher(predicates.getHost()).replaceAll("warm-up") : null;
+            targets.add(new WarmUpTarget("route " + routeDef.getId(), host,
+                    contextPath + predicates.getPath()));
+        }
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            RequestMappingInfo info = entry.getKey();
+            Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+            if (!entry.getValue().getBeanType().getPackageName().startsWith(basePackage)
+                    || !(methods.isEmpty() || methods.contains(RequestMethod.GET))
+                    || info.getPathPatternsCondition() == null) {
+                continue;
+            }
+            for (String pattern : info.getPathPatternsCondition().getPatternValues()) {
+                targets.add(new WarmUpTarget("endpoint " + pattern, null, contextPath + pattern));
+            }
+        }
+        return targets;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.studiodemo.warmup;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+
+/**
+ * 上游地址替换
+ * 使用替身上游预热期间，网关代理（UpstreamConnectionPools）与编排 WebClient 的上游请求改发到替身服务，
+ * 其余时间原样返回；连接池、上游保护等仍按原上游地址选择
+ */
+@Component
+public class WarmUpUpstream {
+
+    private volatile URI stub;
+
+    /**
+     * 请求的实际发送地址
+     */
+    public URI resolve(URI uri) {
+        URI target = stub;
+        return target == null ? uri : redirect(uri, target);
+    }
+
+    /**
+     * 编排 WebClient 的地址替换，需注册在上游保护过滤器之后
+     */
+    public ExchangeFilterFunction exchangeFilter() {
+        return (request, next) -> {
+            URI target = stub;
+            return next.exchange(target == null ? request
+                    : ClientRequest.from(request).url(redirect(request.url(), target)).build());
+        };
+    }
+
+    void redirectTo(URI stub) {
+        this.stub = stub;
+    }
+
+    void restore() {
+        this.stub = null;
+    }
+
+    private static URI redirect(URI uri, URI target) {
+        return UriComponentsBuilder.fromUri(uri)
+                .scheme(target.getScheme())
+                .host(target.getHost())
+                .port(target.getPort())
+                .build(true)
+                .toUri();
+    }
+}
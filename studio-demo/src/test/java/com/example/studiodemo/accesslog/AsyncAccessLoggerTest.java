@@ -0,0 +1,59 @@
+package com.example.studiodemo.accesslog;
+
+import com.example.studiodemo.config.GatewayProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncAccessLoggerTest {
+
+    @Test
+    void dropsWhenBufferIsFullAndDrainsOnStop() {
+        GatewayProperties.AccessLogDefinition definition = new GatewayProperties.AccessLogDefinition();
+        definition.setBufferSize(4);
+        definition.setHeaders(List.of("User-Agent"));
+        AsyncAccessLogger logger = new AsyncAccessLogger(definition);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/mvc/demo/hello");
+        request.addHeader("User-Agent", "test");
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(logger.log("route", request, 200, 1_000_000, null));
+        }
+        assertFalse(logger.log("route", request, 200, 1_000_000, null));
+        assertEquals(1, logger.getDropped());
+
+        logger.start();
+        logger.stop();
+        assertEquals(4, logger.getWritten());
+
+        // 消费后槽位可复用
+        assertTrue(logger.log("route", request, 502, 1_000_000, "IOException: reset"));
+    }
+
+    @Test
+    void wakesIdleWriterWhenRecordIsPublished() {
+        AsyncAccessLogger logger = new AsyncAccessLogger(new GatewayProperties.AccessLogDefinition());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/mvc/demo/hello");
+        logger.start();
+        try {
+            // 写线程空闲时无限期 park，每条记录都必须由 log 唤醒
+            for (int i = 1; i <= 100; i++) {
+                assertTrue(logger.log("route", request, 200, 1_000_000, null));
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (logger.getWritten() < i && System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+                assertEquals(i, logger.getWritten());
+            }
+        } finally {
+            logger.stop();
+        }
+    }
+}
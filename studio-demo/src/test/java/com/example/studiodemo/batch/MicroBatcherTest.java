@@ -0,0 +1,127 @@
+package com.example.studiodemo.batch;
+
+import com.example.studiodemo.config.OrchestrationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MicroBatcherTest {
+
+    @Test
+    void concurrentLookupsShareBatchCallsAndGetTheirOwnResults() {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        MicroBatcher<String, String> batcher = batcher(16, keys -> {
+            batches.add(keys);
+            return Mono.just(keys.stream().map(String::toUpperCase).toList())
+                    .delayElement(Duration.ofMillis(10));
+        });
+
+        List<String> results = Flux.range(0, 100)
+                .flatMap(i -> batcher.get("name" + i).subscribeOn(Schedulers.parallel()), 100)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(100, results.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(results.contains("NAME" + i));
+        }
+        assertTrue(batches.size() < 100, "expected batching, got " + batches.size() + " calls");
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 16));
+    }
+
+    @Test
+    void duplicateKeysInBatchAreQueriedOnce() {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        MicroBatcher<String, String> batcher = batcher(16, keys -> {
+            batches.add(keys);
+            return Mono.just(keys.stream().map(String::toUpperCase).toList());
+        });
+
+        List<String> results = Flux.just("tom", "jerry", "tom")
+                .flatMap(batcher::get)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(3, results.size());
+        assertEquals(List.of(List.of("tom", "jerry")), batches);
+    }
+
+    @Test
+    void batchFailureFailsEveryCaller() {
+        MicroBatcher<String, String> batcher = batcher(16,
+                keys -> Mono.error(new IllegalStateException("downstream unavailable")));
+
+        assertThrows(IllegalStateException.class, () -> batcher.get("tom").block(Duration.ofSeconds(5)));
+        // 失败不影响后续批次
+        assertThrows(IllegalStateException.class, () -> batcher.get("jerry").block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void rejectsCallsWhenQueueIsFull() {
+        OrchestrationProperties.BatchDefinition definition = definition(1);
+        definition.setMaxConcurrency(1);
+        definition.setMaxPending(2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // 批量调用不返回，后续调用只能在队列中等待
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test", definition, keys -> Mono.never(), registry);
+
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            batcher.get("name" + i).subscribe(value -> {
+            }, errors::add);
+        }
+
+        assertFalse(errors.isEmpty());
+        assertTrue(errors.stream().allMatch(BatchQueueFullException.class::isInstance));
+        assertEquals(errors.size(), registry.get("gateway.orchestration.batch.rejected").counter().count());
+        batcher.dispose();
+    }
+
+    @Test
+    void cancelledCallsAreDroppedBeforeDispatch() {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        MicroBatcher<String, String> batcher = batcher(16, keys -> {
+            batches.add(keys);
+            return Mono.just(keys.stream().map(String::toUpperCase).toList());
+        });
+
+        // 例如步骤超时，调用方在批次发出前取消
+        batcher.get("tom").subscribe().dispose();
+        assertEquals("JERRY", batcher.get("jerry").block(Duration.ofSeconds(5)));
+
+        assertEquals(List.of(List.of("jerry")), batches);
+    }
+
+    @Test
+    void disposedBatcherRejectsCalls() {
+        MicroBatcher<String, String> batcher = batcher(16, keys -> Mono.just(keys));
+        batcher.dispose();
+
+        assertTrue(batcher.isDisposed());
+        assertThrows(IllegalStateException.class, () -> batcher.get("tom").block(Duration.ofSeconds(5)));
+    }
+
+    private static MicroBatcher<String, String> batcher(int maxSize,
+            Function<List<String>, Mono<List<String>>> batchCall) {
+        return new MicroBatcher<>("test", definition(maxSize), batchCall, new SimpleMeterRegistry());
+    }
+
+    private static OrchestrationProperties.BatchDefinition definition(int maxSize) {
+        OrchestrationProperties.BatchDefinition definition = new OrchestrationProperties.BatchDefinition();
+        definition.setMaxSize(maxSize);
+        definition.setMaxWait(Duration.ofMillis(20));
+        return definition;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.studiodemo.bulkhead;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        Bulkhead bulkhead = bulkhead(1, 0, Duration.ofSeconds(1));
+        bulkhead.acquire();
+        assertEquals(1, bulkhead.getActive());
+
+        BulkheadFullException e = assertThrows(BulkheadFullException.class, bulkhead::acquire);
+        assertEquals(BulkheadFullException.Reason.QUEUE_FULL, e.getReason());
+        assertEquals(1.0, rejected("queue_full"));
+
+        bulkhead.release();
+        bulkhead.acquire();
+        assertEquals(1, bulkhead.getActive());
+    }
+
+    @Test
+    void rejectsQueuedRequestAfterMaxWait() {
+        Bulkhead bulkhead = bulkhead(1, 1, Duration.ofMillis(20));
+        bulkhead.acquire();
+
+        long start = System.nanoTime();
+        BulkheadFullException e = assertThrows(BulkheadFullException.class, bulkhead::acquire);
+        assertEquals(BulkheadFullException.Reason.TIMEOUT, e.getReason());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(0, bulkhead.getQueued());
+        assertEquals(1.0, rejected("timeout"));
+    }
+
+    @Test
+    void queuedRequestProceedsWhenPermitIsReleased() throws Exception {
+        Bulkhead bulkhead = bulkhead(1, 1, Duration.ofSeconds(5));
+        bulkhead.acquire();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {
+            started.countDown();
+            bulkhead.acquire();
+        });
+        started.await();
+        while (bulkhead.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+        // 队列已满，第三个请求立即被拒绝
+        assertThrows(BulkheadFullException.class, bulkhead::acquire);
+
+        bulkhead.release();
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(1, bulkhead.getActive());
+        assertEquals(0, bulkhead.getQueued());
+        assertEquals(1, registry.get("gateway.bulkhead.wait").timer().count());
+    }
+
+    private Bulkhead bulkhead(int maxConcurrent, int maxQueue, Duration maxWait) {
+        GatewayProperties.BulkheadDefinition definition = new GatewayProperties.BulkheadDefinition();
+        definition.setMaxConcurrent(maxConcurrent);
+        definition.setMaxQueue(maxQueue);
+        definition.setMaxWait(maxWait);
+        return new Bulkheads(registry, 200, false).forEndpoint("test", definition);
+    }
+
+    private double rejected(String reason) {
+        return registry.get("gateway.bulkhead.rejected").tag("reason", reason).counter().count();
+    }
+}
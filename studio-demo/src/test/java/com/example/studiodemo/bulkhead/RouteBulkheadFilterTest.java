@@ -0,0 +1,63 @@
+package com.example.studiodemo.bulkhead;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteBulkheadFilterTest {
+
+    @Test
+    void holdsPermitUntilBodyIsWritten() throws Exception {
+        Bulkhead bulkhead = bulkhead();
+        RouteBulkheadFilter filter = new RouteBulkheadFilter(bulkhead);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/slow");
+        AtomicInteger activeWhileWriting = new AtomicInteger(-1);
+
+        ServerResponse response = filter.filter(ServerRequest.create(servletRequest, List.of()),
+                request -> ServerResponse.ok().build((req, res) -> {
+                    activeWhileWriting.set(bulkhead.getActive());
+                    return null;
+                }));
+        // 响应头已返回、响应体尚未写出，许可仍被占用
+        assertEquals(1, bulkhead.getActive());
+        ServerResponse rejected = filter.filter(ServerRequest.create(servletRequest, List.of()),
+                request -> ServerResponse.ok().build());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.statusCode());
+
+        response.writeTo(servletRequest, new MockHttpServletResponse(), List::of);
+        assertEquals(1, activeWhileWriting.get());
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void releasesPermitWhenHandlerFails() {
+        Bulkhead bulkhead = bulkhead();
+        RouteBulkheadFilter filter = new RouteBulkheadFilter(bulkhead);
+
+        assertThrows(IOException.class, () -> filter.filter(
+                ServerRequest.create(new MockHttpServletRequest(), List.of()),
+                request -> {
+                    throw new IOException("upstream reset");
+                }));
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    private static Bulkhead bulkhead() {
+        GatewayProperties.BulkheadDefinition definition = new GatewayProperties.BulkheadDefinition();
+        definition.setMaxConcurrent(1);
+        definition.setMaxQueue(0);
+        return new Bulkheads(new SimpleMeterRegistry(), 200, false).forEndpoint("test", definition);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.studiodemo.cache;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.config.OrchestrationProperties;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheMetricsTest {
+
+    @Test
+    void routeAndOrchestrationCachesAreBothScraped() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+        GatewayProperties.RouteDefinition routeDef = new GatewayProperties.RouteDefinition();
+        routeDef.setId("mvc-demo-hello");
+        routeDef.setCache(new GatewayProperties.CacheDefinition());
+        new ResponseCaches(registry).forRoute(routeDef);
+        MemoCache.create("hello", new OrchestrationProperties.MemoDefinition(), key -> Mono.just("yy"),
+                value -> true, registry);
+
+        // 同名指标（cache.gets 等）的标签键不一致时，后注册的一组会被 Prometheus 拒绝
+        String scrape = registry.scrape();
+        assertTrue(scrape.contains("cache_gets_total{cache=\"gateway.route.cache\""), scrape);
+        assertTrue(scrape.contains("cache_gets_total{cache=\"gateway.orchestration.cache\""), scrape);
+    }
+}
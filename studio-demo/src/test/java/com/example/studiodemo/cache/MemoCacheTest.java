@@ -0,0 +1,78 @@
+package com.example.studiodemo.cache;
+
+import com.example.studiodemo.config.OrchestrationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MemoCacheTest {
+
+    private static final Duration REFRESH_AFTER = Duration.ofMillis(100);
+
+    /**
+     * Caffeine 的时钟，由测试推进
+     */
+    private final AtomicLong ticker = new AtomicLong();
+
+    @Test
+    void servesStaleValueWhileRefreshingInBackground() {
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<String> reload = Sinks.one();
+        MemoCache<String, String> cache = cache(
+                key -> loads.incrementAndGet() == 1 ? Mono.just(key + "-1") : reload.asMono(), value -> true);
+
+        assertEquals("tom-1", cache.get("tom").block());
+        ticker.addAndGet(REFRESH_AFTER.toNanos() / 2);
+        assertEquals("tom-1", cache.get("tom").block());
+        assertEquals(1, loads.get());
+
+        // 超过 refresh-after 后的首次访问立即返回旧值，并触发后台刷新
+        ticker.addAndGet(REFRESH_AFTER.toNanos());
+        assertEquals("tom-1", cache.get("tom").block());
+        assertEquals(2, loads.get());
+        assertEquals("tom-1", cache.get("tom").block());
+
+        reload.tryEmitValue("tom-2");
+        assertEquals("tom-2", cache.get("tom").block());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void doesNotStoreUncacheableResults() {
+        AtomicInteger loads = new AtomicInteger();
+        MemoCache<String, String> cache = cache(
+                key -> Mono.fromSupplier(() -> loads.incrementAndGet() == 2 ? "ok" : "partial"),
+                "ok"::equals);
+
+        assertEquals("partial", cache.get("tom").block());
+        assertEquals("ok", cache.get("tom").block());
+        assertEquals("ok", cache.get("tom").block());
+        assertEquals(2, loads.get());
+
+        // 刷新得到不可缓存的结果时保留旧值
+        ticker.addAndGet(REFRESH_AFTER.toNanos() * 2);
+        assertEquals("ok", cache.get("tom").block());
+        assertEquals(3, loads.get());
+        assertEquals("ok", cache.get("tom").block());
+    }
+
+    /**
+     * 维护任务与刷新在调用线程上执行，刷新只在 ticker 推进后发生
+     */
+    private MemoCache<String, String> cache(Function<String, Mono<String>> loader, Predicate<String> cacheable) {
+        OrchestrationProperties.MemoDefinition definition = new OrchestrationProperties.MemoDefinition();
+        definition.setTtl(Duration.ofMinutes(1));
+        definition.setRefreshAfter(REFRESH_AFTER);
+        return MemoCache.create("test", definition, loader, cacheable, new SimpleMeterRegistry(), ticker::get,
+                Runnable::run);
+    }
+}
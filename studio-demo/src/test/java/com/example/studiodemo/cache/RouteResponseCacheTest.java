@@ -0,0 +1,87 @@
+package com.example.studiodemo.cache;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouteResponseCacheTest {
+
+    private static final String BODY = "{\"code_t\":\"200\",\"msg_t\":\"success\",\"data_t\":\"yy\"}";
+
+    @Test
+    void servesRepeatedGetsFromCache() throws Exception {
+        RouteResponseCache cache = cache(List.of("Accept-Language"));
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HandlerFunction<ServerResponse> upstream = upstream(upstreamCalls, BODY);
+
+        assertEquals(BODY, write(cache.filter(request("zh"), upstream), "MISS"));
+        assertEquals(BODY, write(cache.filter(request("zh"), upstream), "HIT"));
+        assertEquals(1, upstreamCalls.get());
+
+        // 参与缓存键的请求头不同，单独缓存
+        assertEquals(BODY, write(cache.filter(request("en"), upstream), "MISS"));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void passesThroughBodiesLargerThanEntryLimit() throws Exception {
+        RouteResponseCache cache = cache(List.of());
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        String large = "x".repeat(RouteResponseCache.MAX_ENTRY_BYTES + 10);
+        HandlerFunction<ServerResponse> upstream = upstream(upstreamCalls, large);
+
+        cache.filter(request(null), upstream);
+        cache.filter(request(null), upstream);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private static RouteResponseCache cache(List<String> keyHeaders) {
+        GatewayProperties.CacheDefinition definition = new GatewayProperties.CacheDefinition();
+        definition.setKeyHeaders(keyHeaders);
+        GatewayProperties.RouteDefinition routeDef = new GatewayProperties.RouteDefinition();
+        routeDef.setId("test");
+        routeDef.setCache(definition);
+        return new ResponseCaches(new SimpleMeterRegistry()).forRoute(routeDef);
+    }
+
+    private static ServerRequest request(String language) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/v1/demo/hello");
+        if (language != null) {
+            servletRequest.addHeader("Accept-Language", language);
+        }
+        return ServerRequest.create(servletRequest, List.of());
+    }
+
+    /**
+     * 模拟网关代理：响应体放在 CLIENT_RESPONSE_INPUT_STREAM_ATTR 中
+     */
+    private static HandlerFunction<ServerResponse> upstream(AtomicInteger calls, String body) {
+        return request -> {
+            calls.incrementAndGet();
+            MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                    new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).build();
+        };
+    }
+
+    private static String write(ServerResponse response, String expectedCacheHeader) throws Exception {
+        assertEquals(expectedCacheHeader, response.headers().getFirst(RouteResponseCache.CACHE_HEADER));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        response.writeTo(new MockHttpServletRequest(), servletResponse, () -> List.of());
+        return servletResponse.getContentAsString();
+    }
+}
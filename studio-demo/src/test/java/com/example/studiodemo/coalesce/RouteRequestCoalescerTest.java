@@ -0,0 +1,115 @@
+package com.example.studiodemo.coalesce;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouteRequestCoalescerTest {
+
+    private static final String BODY = "{\"code\":\"200\",\"msg\":\"success\",\"data\":\"tom\"}";
+
+    @Test
+    void concurrentIdenticalRequestsShareOneUpstreamCall() throws Exception {
+        RouteRequestCoalescer coalescer = coalescer(Duration.ofSeconds(5));
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        HandlerFunction<ServerResponse> upstream = upstream(upstreamCalls, release);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> write(coalescer.filter(request(), upstream))));
+            }
+            // 等待所有请求进入合并等待后再放行上游
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals(BODY, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, upstreamCalls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waiterFallsBackToIndependentCallAfterMaxWait() throws Exception {
+        RouteRequestCoalescer coalescer = coalescer(Duration.ofMillis(50));
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        HandlerFunction<ServerResponse> slowUpstream = upstream(upstreamCalls, release);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> write(coalescer.filter(request(), slowUpstream)));
+            Thread.sleep(50);
+
+            // 首个请求仍未返回，等待超时后独立访问上游
+            HandlerFunction<ServerResponse> fastUpstream = upstream(upstreamCalls, new CountDownLatch(0));
+            assertEquals(BODY, write(coalescer.filter(request(), fastUpstream)));
+
+            release.countDown();
+            assertEquals(BODY, leader.get(5, TimeUnit.SECONDS));
+            assertEquals(2, upstreamCalls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static RouteRequestCoalescer coalescer(Duration maxWait) {
+        GatewayProperties.CoalesceDefinition definition = new GatewayProperties.CoalesceDefinition();
+        definition.setMaxWait(maxWait);
+        GatewayProperties.RouteDefinition routeDef = new GatewayProperties.RouteDefinition();
+        routeDef.setId("test");
+        routeDef.setCoalesce(definition);
+        return new RequestCoalescers(new SimpleMeterRegistry()).forRoute(routeDef);
+    }
+
+    private static ServerRequest request() {
+        return ServerRequest.create(new MockHttpServletRequest("GET", "/mvc/demo/hello/tom"), List.of());
+    }
+
+    private static HandlerFunction<ServerResponse> upstream(AtomicInteger calls, CountDownLatch release) {
+        return request -> {
+            calls.incrementAndGet();
+            release.await();
+            MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                    new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8)));
+            // 与网关代理一致：写出时从 CLIENT_RESPONSE_INPUT_STREAM_ATTR 拷贝响应体
+            return ServerResponse.ok().build((servletRequest, servletResponse) -> {
+                InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+                body.transferTo(servletResponse.getOutputStream());
+                return null;
+            });
+        };
+    }
+
+    private static String write(ServerResponse response) throws Exception {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        response.writeTo(new MockHttpServletRequest(), servletResponse, () -> List.of());
+        return servletResponse.getContentAsString();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.studiodemo.codec;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.filter.ResponseRewriteFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.cloud.gateway.server.mvc.handler.GatewayServerResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteWireFormatFilterTest {
+
+    private static final Map<String, String> BODY = Map.of("code", "200", "msg", "success", "data", "张三");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RouteWireFormatFilter filter = new WireFormats(registry).forRoute(route(WireFormat.SMILE));
+    private final AtomicReference<List<MediaType>> upstreamAccept = new AtomicReference<>();
+
+    @Test
+    void transcodesBinaryResponseToJsonForJsonClients() throws Exception {
+        ServerRequest request = request("application/json");
+        ServerResponse response = filter.filter(request, upstream());
+
+        assertEquals(WireFormat.SMILE.accept(), upstreamAccept.get());
+        assertEquals(MediaType.APPLICATION_JSON, response.headers().getContentType());
+        assertNull(response.headers().getFirst(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(new ObjectMapper().valueToTree(BODY), new ObjectMapper().readTree(body(request)));
+        assertEquals(1.0, registry.get("gateway.wire.responses").tag("format", "json").counter().count());
+    }
+
+    @Test
+    void passesBinaryThroughWhenClientAcceptsIt() throws Exception {
+        ServerRequest request = request("application/x-jackson-smile, application/json;q=0.5");
+        ServerResponse response = filter.filter(request, upstream());
+
+        assertEquals(WireFormat.SMILE.mediaType(), response.headers().getContentType());
+        assertArrayEquals(smile(BODY), body(request));
+        assertEquals(List.of(HttpHeaders.ACCEPT), response.headers().getVary());
+        assertEquals(1.0, registry.get("gateway.wire.responses").tag("format", "smile").counter().count());
+    }
+
+    @Test
+    void responseRewriteTranscodesInTheSamePass() throws Exception {
+        ResponseRewriteFilter rewrite = new ResponseRewriteFilter();
+        ServerRequest request = request("*/*");
+        ServerResponse response = filter.filter(request, next -> rewrite.filter(next, upstream()));
+
+        assertEquals(MediaType.APPLICATION_JSON, response.headers().getContentType());
+        JsonNode rewritten = new ObjectMapper().readTree(body(request));
+        assertEquals("200", rewritten.get("code_t").asText());
+        assertEquals("张三", rewritten.get("data_t").asText());
+    }
+
+    @Test
+    void jsonRoutesAreNotFiltered() {
+        WireFormats wireFormats = new WireFormats(registry);
+        assertNull(wireFormats.forRoute(route(null)));
+        assertNull(wireFormats.forRoute(route(WireFormat.JSON)));
+    }
+
+    private HandlerFunction<ServerResponse> upstream() {
+        return request -> {
+            upstreamAccept.set(request.headers().accept());
+            MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                    new ByteArrayInputStream(smile(BODY)));
+            return GatewayServerResponse.status(HttpStatus.OK)
+                    .contentType(WireFormat.SMILE.mediaType())
+                    .contentLength(smile(BODY).length)
+                    .build();
+        };
+    }
+
+    private static ServerRequest request(String accept) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/v1/demo/hello/tom");
+        servletRequest.addHeader(HttpHeaders.ACCEPT, accept);
+        return ServerRequest.create(servletRequest, List.of());
+    }
+
+    private static byte[] body(ServerRequest request) throws Exception {
+        try (InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR)) {
+            return body.readAllBytes();
+        }
+    }
+
+    private static byte[] smile(Object value) {
+        try {
+            return new ObjectMapper(new SmileFactory()).writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static GatewayProperties.RouteDefinition route(WireFormat wireFormat) {
+        GatewayProperties.RouteDefinition routeDef = new GatewayProperties.RouteDefinition();
+        routeDef.setId("api-v1-hello-name");
+        routeDef.setWireFormat(wireFormat);
+        return routeDef;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.studiodemo.compression;
+
+import com.example.studiodemo.cache.ResponseCaches;
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.cloud.gateway.server.mvc.handler.GatewayServerResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteCompressionFilterTest {
+
+    private static final byte[] LARGE = "{\"code\":\"200\",\"msg\":\"success\",\"data\":\"tom\"}".repeat(200)
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SMALL = "{\"code\":\"200\",\"msg\":\"success\",\"data\":\"tom\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void negotiatesByQuality() {
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate, br"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0, deflate"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("deflate;q=1, gzip;q=0.5"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*"));
+        assertNull(ContentEncoding.negotiate("br, identity"));
+        assertNull(ContentEncoding.negotiate(null));
+    }
+
+    @Test
+    void streamsGzipForLargeProxyResponse() throws Exception {
+        RouteCompressionFilter filter = new ResponseCompressors(new SimpleMeterRegistry()).forRoute(route(false));
+
+        MockHttpServletResponse response = write(filter.filter(request("gzip"), upstream(LARGE, new AtomicInteger())));
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertArrayEquals(LARGE, new GZIPInputStream(
+                new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes());
+    }
+
+    @Test
+    void leavesResponsesBelowMinSizeUncompressed() throws Exception {
+        RouteCompressionFilter filter = new ResponseCompressors(new SimpleMeterRegistry()).forRoute(route(false));
+
+        MockHttpServletResponse response = write(filter.filter(request("gzip"), upstream(SMALL, new AtomicInteger())));
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(SMALL, response.getContentAsByteArray());
+    }
+
+    @Test
+    void cachedResponseIsCompressedOnce() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GatewayProperties.RouteDefinition routeDef = route(true);
+        RouteCompressionFilter compression = new ResponseCompressors(registry).forRoute(routeDef);
+        HandlerFunction<ServerResponse> cached = compression.apply(
+                new ResponseCaches(registry).forRoute(routeDef).apply(upstream(LARGE, new AtomicInteger())));
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = write(cached.handle(request("deflate")));
+            assertEquals("deflate", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+            assertEquals(String.valueOf(response.getContentAsByteArray().length),
+                    response.getHeader(HttpHeaders.CONTENT_LENGTH));
+            assertArrayEquals(LARGE, new InflaterInputStream(
+                    new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes());
+        }
+
+        assertEquals(1.0, registry.get("gateway.compression.responses")
+                .tags("encoding", "deflate", "source", "compressed").counter().count());
+        assertEquals(2.0, registry.get("gateway.compression.responses")
+                .tags("encoding", "deflate", "source", "cached").counter().count());
+    }
+
+    private static GatewayProperties.RouteDefinition route(boolean cache) {
+        GatewayProperties.RouteDefinition routeDef = new GatewayProperties.RouteDefinition();
+        routeDef.setId("test");
+        routeDef.setCompression(new GatewayProperties.CompressionDefinition());
+        if (cache) {
+            routeDef.setCache(new GatewayProperties.CacheDefinition());
+        }
+        return routeDef;
+    }
+
+    private static ServerRequest request(String acceptEncoding) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/mvc/demo/hello/tom");
+        servletRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return ServerRequest.create(servletRequest, List.of());
+    }
+
+    /**
+     * 与网关代理一致：响应体放在 CLIENT_RESPONSE_INPUT_STREAM_ATTR，长度未知（分块传输）
+     */
+    private static HandlerFunction<ServerResponse> upstream(byte[] body, AtomicInteger calls) {
+        return request -> {
+            calls.incrementAndGet();
+            MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR, new ByteArrayInputStream(body));
+            return GatewayServerResponse.status(HttpStatus.OK)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .build((servletRequest, servletResponse) -> {
+                        InputStream in = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+                        in.transferTo(servletResponse.getOutputStream());
+                        return null;
+                    });
+        };
+    }
+
+    private static MockHttpServletResponse write(ServerResponse response) throws Exception {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        response.writeTo(new MockHttpServletRequest(), servletResponse, () -> List.of());
+        return servletResponse;
+    }
+}
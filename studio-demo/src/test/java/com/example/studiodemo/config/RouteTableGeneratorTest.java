@@ -0,0 +1,80 @@
+package com.example.studiodemo.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouteTableGeneratorTest {
+
+    @Test
+    void precompiledPropertiesMatchBinding(@TempDir Path dir) throws Exception {
+        byte[] yml = new ClassPathResource(PrecompiledRoutes.SOURCE).getContentAsByteArray();
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader()
+                .load(PrecompiledRoutes.SOURCE, new ByteArrayResource(yml));
+        StandardEnvironment environment = new StandardEnvironment();
+        sources.forEach(environment.getPropertySources()::addLast);
+
+        PrecompiledGatewayProperties precompiled = compile(RouteTableGenerator.generate(yml), dir);
+        GatewayProperties bound = new Binder(ConfigurationPropertySources.from(sources),
+                new PropertySourcesPlaceholdersResolver(sources))
+                .bindOrCreate(GatewayPropertiesConfig.PREFIX, GatewayProperties.class);
+
+        // 以生成器本身作为深度比较：两份配置生成的源码完全一致
+        assertEquals(PrecompiledRoutes.digest(yml), precompiled.sourceDigest());
+        assertEquals(RouteTableGenerator.generate(bound, ""),
+                RouteTableGenerator.generate(precompiled.create(environment), ""));
+
+        // 占位符在运行时解析
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("test", Map.of("downstream.mvc-demo.url", "http://mvc-demo:9000")));
+        assertEquals("http://mvc-demo:9000", precompiled.create(environment).getRoutes().get(0).getUri());
+    }
+
+    private static PrecompiledGatewayProperties compile(String source, Path dir) throws Exception {
+        Path file = dir.resolve(PrecompiledRoutes.GENERATED_CLASS.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null,
+                "-encoding", "UTF-8", "-classpath", System.getProperty("java.class.path"),
+                "-d", dir.toString(), file.toString());
+        assertEquals(0, result, "generated source does not compile");
+
+        // 生成的类优先从 dir 加载：fast-startup 构建会在 target/classes 留下按旧配置生成的同名类
+        URLClassLoader classLoader = new URLClassLoader(new URL[] {dir.toUri().toURL()},
+                RouteTableGeneratorTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (!name.equals(PrecompiledRoutes.GENERATED_CLASS)) {
+                    return super.loadClass(name, resolve);
+                }
+                synchronized (getClassLoadingLock(name)) {
+                    Class<?> loaded = findLoadedClass(name);
+                    return loaded != null ? loaded : findClass(name);
+                }
+            }
+        };
+        return (PrecompiledGatewayProperties) classLoader.loadClass(PrecompiledRoutes.GENERATED_CLASS)
+                .getDeclaredConstructor().newInstance();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.studiodemo.controller;
+
+import com.example.studiodemo.bulkhead.BulkheadFullException;
+import com.example.studiodemo.bulkhead.Bulkheads;
+import com.example.studiodemo.config.OrchestrationProperties;
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.model.ApiResponse;
+import com.example.studiodemo.ratelimit.RateLimitedException;
+import com.example.studiodemo.ratelimit.RateLimiters;
+import com.example.studiodemo.warmup.WarmUpRequests;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrchestrationControllerTest {
+
+    @Test
+    void aggregatesBranchesConcurrently() {
+        // 两个下游请求都发出后才返回响应：串行执行时第一个分支等到超时，结果为 partial
+        AtomicInteger sent = new AtomicInteger();
+        Sinks.Empty<Void> bothSent = Sinks.empty();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://mvc-demo")
+                .exchangeFunction(request -> {
+                    if (sent.incrementAndGet() == 2) {
+                        bothSent.tryEmitEmpty();
+                    }
+                    return bothSent.asMono().then(Mono.fromSupplier(() -> response(request.url().getPath())));
+                })
+                .build();
+        OrchestrationProperties properties = new OrchestrationProperties();
+        properties.setDefaultTimeout(Duration.ofSeconds(5));
+        OrchestrationController controller = controller(webClient, properties);
+
+        ApiResponse<OrchestrationController.AggregatedResult> response =
+                controller.aggregateCall("tom", new MockHttpServletRequest()).block();
+
+        assertEquals("success", response.getMsg(), "branches should run in parallel");
+        assertEquals("yy", response.getData().getHello());
+        assertEquals("tom", response.getData().getName());
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    void returnsPartialResultWhenBranchMissesDeadline() {
+        OrchestrationProperties properties = new OrchestrationProperties();
+        OrchestrationProperties.StepDefinition hello = new OrchestrationProperties.StepDefinition();
+        hello.setTimeout(Duration.ofMillis(50));
+        hello.setFallback("fallback");
+        OrchestrationProperties.StepDefinition helloName = new OrchestrationProperties.StepDefinition();
+        helloName.setTimeout(Duration.ofMillis(50));
+        properties.setSteps(Map.of(OrchestrationController.STEP_HELLO, hello,
+                OrchestrationController.STEP_HELLO_NAME, helloName));
+
+        OrchestrationController controller = controller(
+                Map.of("/mvc/demo/hello", Duration.ofMillis(500), "/mvc/demo/hello/tom", Duration.ofMillis(500)),
+                properties);
+
+        ApiResponse<OrchestrationController.AggregatedResult> response = controller.aggregateCall("tom", new MockHttpServletRequest()).block();
+
+        assertEquals("partial", response.getMsg());
+        assertEquals("fallback", response.getData().getHello());
+        assertNull(response.getData().getName());
+    }
+
+    @Test
+    void rejectsAggregateOverRateLimitBeforeCallingDownstream() {
+        GatewayProperties.RateLimitDefinition rateLimit = new GatewayProperties.RateLimitDefinition();
+        rateLimit.setLimit(2);
+        rateLimit.setPeriod(Duration.ofMinutes(1));
+        OrchestrationProperties properties = new OrchestrationProperties();
+        properties.setRateLimits(Map.of(OrchestrationController.ENDPOINT_AGGREGATE, rateLimit));
+        OrchestrationController controller = controller(Map.of(), properties);
+
+        MockHttpServletRequest client = new MockHttpServletRequest();
+        client.setRemoteAddr("10.0.0.1");
+        controller.aggregateCall("tom", client).block();
+        controller.aggregateCall("tom", client).block();
+        assertThrows(RateLimitedException.class, () -> controller.aggregateCall("tom", client));
+
+        // 按客户端地址限流，其他客户端不受影响
+        MockHttpServletRequest other = new MockHttpServletRequest();
+        other.setRemoteAddr("10.0.0.2");
+        assertEquals("success", controller.aggregateCall("tom", other).block().getMsg());
+    }
+
+    @Test
+    void rejectsAggregateWhenBulkheadIsFull() {
+        GatewayProperties.BulkheadDefinition bulkhead = new GatewayProperties.BulkheadDefinition();
+        bulkhead.setMaxConcurrent(1);
+        bulkhead.setMaxQueue(0);
+        OrchestrationProperties properties = new OrchestrationProperties();
+        properties.setBulkheads(Map.of(OrchestrationController.ENDPOINT_AGGREGATE, bulkhead));
+        OrchestrationController controller = controller(Map.of("/mvc/demo/hello", Duration.ofMillis(200)), properties);
+
+        // 许可在请求线程上申请，直到聚合结果完成才归还
+        Mono<ApiResponse<OrchestrationController.AggregatedResult>> slow =
+                controller.aggregateCall("tom", new MockHttpServletRequest());
+        BulkheadFullException e = assertThrows(BulkheadFullException.class,
+                () -> controller.aggregateCall("tom", new MockHttpServletRequest()));
+        assertEquals(BulkheadFullException.Reason.QUEUE_FULL, e.getReason());
+
+        assertEquals("success", slow.block().getMsg());
+        assertEquals("success", controller.aggregateCall("jerry", new MockHttpServletRequest()).block().getMsg());
+    }
+
+    @Test
+    void cachedStepsAndAggregateSkipDownstreamCalls() {
+        OrchestrationProperties properties = new OrchestrationProperties();
+        OrchestrationProperties.StepDefinition hello = new OrchestrationProperties.StepDefinition();
+        hello.setCache(new OrchestrationProperties.MemoDefinition());
+        properties.setSteps(Map.of(OrchestrationController.STEP_HELLO, hello));
+        properties.setAggregateCache(new OrchestrationProperties.MemoDefinition());
+        AtomicInteger calls = new AtomicInteger();
+        OrchestrationController controller = controller(Map.of(), properties, calls);
+
+        controller.aggregateCall("tom", new MockHttpServletRequest()).block();
+        controller.aggregateCall("tom", new MockHttpServletRequest()).block();
+        assertEquals(2, calls.get());
+
+        // /mvc/demo/hello 已由步骤缓存提供，只有带名字的调用访问下游
+        ApiResponse<OrchestrationController.AggregatedResult> jerry =
+                controller.aggregateCall("jerry", new MockHttpServletRequest()).block();
+        assertEquals("jerry", jerry.getData().getName());
+        assertEquals(3, calls.get());
+    }
+
+    private static OrchestrationController controller(Map<String, Duration> delays, OrchestrationProperties properties) {
+        return controller(delays, properties, new AtomicInteger());
+    }
+
+    private static OrchestrationController controller(Map<String, Duration> delays, OrchestrationProperties properties,
+            AtomicInteger calls) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://mvc-demo")
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    String path = request.url().getPath();
+                    return Mono.just(response(path)).delayElement(delays.getOrDefault(path, Duration.ZERO));
+                })
+                .build();
+        return controller(webClient, properties);
+    }
+
+    private static OrchestrationController controller(WebClient webClient, OrchestrationProperties properties) {
+        return new OrchestrationController(webClient, properties, new SimpleMeterRegistry(),
+                new RateLimiters(new SimpleMeterRegistry()), new Bulkheads(new SimpleMeterRegistry(), 200, false),
+                new WarmUpRequests());
+    }
+
+    private static ClientResponse response(String path) {
+        String data = path.equals("/mvc/demo/hello") ? "yy" : path.substring(path.lastIndexOf('/') + 1);
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"code\":\"200\",\"msg\":\"success\",\"data\":\"" + data + "\"}")
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.studiodemo.filter;
+
+import com.example.studiodemo.config.GatewayProperties;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseRewriteFilterTest {
+
+    private final ResponseRewriteFilter filter = new ResponseRewriteFilter();
+
+    @Test
+    void rewritesTopLevelFields() {
+        assertEquals("{\"code_t\":\"200\",\"msg_t\":\"success\",\"data_t\":\"yy\"}",
+                rewrite(filter, "{\"code\":\"200\",\"msg\":\"success\",\"data\":\"yy\"}"));
+    }
+
+    @Test
+    void copiesNestedValuesUnchanged() {
+        assertEquals("{\"code_t\":\"200\",\"data_t\":{\"code\":1,\"list\":[{\"msg\":null},1.50,true]},\"extra\":\"x\"}",
+                rewrite(filter, "{\"code\":\"200\",\"data\":{\"code\":1,\"list\":[{\"msg\":null},1.50,true]},\"extra\":\"x\"}"));
+    }
+
+    @Test
+    void passesThroughNonObjectBodies() {
+        assertEquals("  [1,2]", rewrite(filter, "  [1,2]"));
+        assertEquals("plain text", rewrite(filter, "plain text"));
+    }
+
+    @Test
+    void returnsOriginalBodyWhenJsonIsMalformed() {
+        assertEquals("{\"code\":", rewrite(filter, "{\"code\":"));
+    }
+
+    @Test
+    void usesRouteFieldMapping() {
+        GatewayProperties.ResponseRewriteDefinition responseRewrite = new GatewayProperties.ResponseRewriteDefinition();
+        responseRewrite.setFields(Map.of("data", "payload"));
+        GatewayProperties.RouteDefinition routeDef = new GatewayProperties.RouteDefinition();
+        routeDef.setResponseRewrite(responseRewrite);
+
+        assertEquals("{\"code\":\"200\",\"payload\":[]}",
+                rewrite(filter.forRoute(routeDef), "{\"code\":\"200\",\"data\":[]}"));
+    }
+
+    private static String rewrite(ResponseRewriteFilter filter, String body) {
+        byte[] rewritten = filter.rewriteResponseBody(body.getBytes(StandardCharsets.UTF_8));
+        return new String(rewritten, StandardCharsets.UTF_8);
+    }
+}
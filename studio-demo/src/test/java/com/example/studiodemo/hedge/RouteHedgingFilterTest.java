@@ -0,0 +1,139 @@
+package com.example.studiodemo.hedge;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteHedgingFilterTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void hedgeWinsWhenPrimaryIsSlow() throws Exception {
+        RouteHedgingFilter filter = new RouteHedgingFilter(policy(100), new TaskExecutorAdapter(executor));
+        AtomicInteger calls = new AtomicInteger();
+        // 第一次调用（主请求）很慢，第二次（对冲请求）立即返回
+        HandlerFunction<ServerResponse> upstream = request -> {
+            int call = calls.incrementAndGet();
+            if (call == 1) {
+                Thread.sleep(2000);
+            }
+            return respond(request, "call-" + call);
+        };
+
+        long start = System.nanoTime();
+        String body = write(filter.filter(request(), upstream));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("call-2", body);
+        assertEquals(2, calls.get());
+        assertEquals(1.0, counter("fired"));
+        assertEquals(1.0, counter("won"));
+        assertTrue(elapsedMillis < 1500, "hedge should not wait for the slow primary");
+    }
+
+    @Test
+    void noHedgeWhenBudgetIsExhausted() throws Exception {
+        RouteHedgingFilter filter = new RouteHedgingFilter(policy(0), new TaskExecutorAdapter(executor));
+        AtomicInteger calls = new AtomicInteger();
+        HandlerFunction<ServerResponse> upstream = request -> {
+            int call = calls.incrementAndGet();
+            Thread.sleep(50);
+            return respond(request, "call-" + call);
+        };
+
+        // 初始令牌允许少量突发，之后预算为 0 不再对冲
+        for (int i = 0; i < 15; i++) {
+            write(filter.filter(request(), upstream));
+        }
+        assertEquals(10.0, counter("fired"));
+        assertEquals(5.0, counter("budget_exhausted"));
+    }
+
+    @Test
+    void hedgesWebClientCalls() {
+        HedgePolicy policy = new HedgePolicy("step", "test", definition(100), registry);
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            int n = calls.incrementAndGet();
+            return Mono.just("call-" + n).delayElement(n == 1 ? Duration.ofSeconds(2) : Duration.ZERO);
+        });
+
+        assertEquals("call-2", policy.hedge(call).block(Duration.ofSeconds(1)));
+        assertEquals(1.0, registry.get("gateway.hedge").tags("name", "test", "result", "won").counter().count());
+    }
+
+    @Test
+    void webClientHedgeSurfacesUpstreamErrorWhenAllAttemptsFail() {
+        HedgePolicy policy = new HedgePolicy("step", "failing", definition(100), registry);
+        Mono<String> call = Mono.error(new IllegalStateException("upstream down"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> policy.hedge(call).block(Duration.ofSeconds(1)));
+        assertEquals("upstream down", e.getMessage());
+    }
+
+    private HedgePolicy policy(int budgetPercent) {
+        return new HedgePolicy(HedgePolicies.SCOPE_ROUTE, "test", definition(budgetPercent), registry);
+    }
+
+    private static GatewayProperties.HedgeDefinition definition(int budgetPercent) {
+        GatewayProperties.HedgeDefinition definition = new GatewayProperties.HedgeDefinition();
+        definition.setMaxDelay(Duration.ofMillis(20));
+        definition.setBudgetPercent(budgetPercent);
+        return definition;
+    }
+
+    private double counter(String result) {
+        return registry.get("gateway.hedge").tags("scope", "route", "result", result).counter().count();
+    }
+
+    private static ServerResponse respond(ServerRequest request, String body) {
+        MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        // 与网关代理一致：写出时从 CLIENT_RESPONSE_INPUT_STREAM_ATTR 拷贝响应体
+        return ServerResponse.ok().build((servletRequest, servletResponse) -> {
+            InputStream in = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+            in.transferTo(servletResponse.getOutputStream());
+            return null;
+        });
+    }
+
+    private static ServerRequest request() {
+        return ServerRequest.create(new MockHttpServletRequest("GET", "/mvc/demo/hello/tom"), List.of());
+    }
+
+    private static String write(ServerResponse response) throws Exception {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        response.writeTo(new MockHttpServletRequest(), servletResponse, () -> List.of());
+        return servletResponse.getContentAsString();
+    }
+}
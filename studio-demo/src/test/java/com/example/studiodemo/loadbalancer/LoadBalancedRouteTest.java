@@ -0,0 +1,114 @@
+package com.example.studiodemo.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadBalancedRouteTest {
+
+    private static final long DECAY = Duration.ofSeconds(10).toNanos();
+
+    @Test
+    void prefersTargetWithLowerLatency() {
+        Target slow = target("http://slow:8081", 1);
+        Target fast = target("http://fast:8081", 1);
+        LoadBalancedRoute route = route(List.of(slow, fast), 50);
+
+        slow.start();
+        slow.complete(Duration.ofMillis(50).toNanos(), false);
+        fast.start();
+        fast.complete(Duration.ofMillis(1).toNanos(), false);
+
+        int fastChosen = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (route.choose(null) == fast) {
+                fastChosen++;
+            }
+        }
+        // 两次抽样中只要有一次抽到 fast 即选 fast，期望约 75%
+        assertTrue(fastChosen > 650, "fast target chosen " + fastChosen + " times");
+    }
+
+    @Test
+    void ejectsTargetAfterConsecutiveFailures() throws Exception {
+        Target broken = target("http://broken:8081", 1);
+        Target healthy = target("http://healthy:8081", 1);
+        LoadBalancedRoute route = route(List.of(broken, healthy), 50);
+
+        HandlerFunction<ServerResponse> upstream = request -> {
+            URI uri = MvcUtils.getAttribute(request, MvcUtils.GATEWAY_REQUEST_URL_ATTR);
+            return ServerResponse.status(uri.getHost().equals("broken")
+                    ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK).build();
+        };
+        for (int i = 0; i < 200 && !broken.isEjected(System.nanoTime()); i++) {
+            route.filter(request(), upstream);
+        }
+        assertTrue(broken.isEjected(System.nanoTime()));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(HttpStatus.OK, route.filter(request(), upstream).statusCode());
+        }
+    }
+
+    @Test
+    void abandonedHedgeLoserIsNotCountedAsFailure() {
+        Target target = target("http://slow:8081", 1);
+        LoadBalancedRoute route = route(List.of(target), 100);
+
+        // 对冲落败的分支被中断：不计入连续失败，在途计数归零
+        for (int i = 0; i < 5; i++) {
+            ServerRequest request = request();
+            request.attributes().put(LoadBalancedRoute.ABANDONED_ATTR, new AtomicBoolean(true));
+            assertThrows(InterruptedException.class, () -> route.filter(request, r -> {
+                throw new InterruptedException();
+            }));
+        }
+        assertEquals(0, target.getOutstanding());
+        assertEquals(0.0, target.getEwmaNanos());
+        assertFalse(target.isEjected(System.nanoTime()));
+    }
+
+    @Test
+    void resetDiscardsLatencyAndEjection() throws Exception {
+        Target target = target("http://stub:8081", 1);
+        Target other = target("http://other:8081", 1);
+        LoadBalancedRoute route = route(List.of(target, other), 50);
+        target.start();
+        target.complete(Duration.ofMillis(5).toNanos(), false);
+        target.eject(System.nanoTime(), Duration.ofSeconds(30).toNanos());
+
+        route.reset();
+        assertEquals(0.0, target.getEwmaNanos());
+        assertFalse(target.isEjected(System.nanoTime()));
+        assertEquals(0, target.getOutstanding());
+    }
+
+    private static LoadBalancedRoute route(List<Target> targets, int maxEjectionPercent) {
+        return new LoadBalancedRoute("test", targets, 3, Duration.ofSeconds(30).toNanos(), maxEjectionPercent,
+                Counter.builder("gateway.lb.ejections").register(new SimpleMeterRegistry()));
+    }
+
+    private static Target target(String uri, int weight) {
+        return new Target(URI.create(uri), URI.create(uri).getAuthority(), weight, DECAY);
+    }
+
+    private static ServerRequest request() {
+        return ServerRequest.create(new MockHttpServletRequest("GET", "/mvc/demo/hello"), List.of());
+    }
+}
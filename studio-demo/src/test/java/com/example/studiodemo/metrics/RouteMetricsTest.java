@@ -0,0 +1,92 @@
+package com.example.studiodemo.metrics;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.warmup.WarmUpRequests;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteMetricsTest {
+
+    @Test
+    void overheadIsTotalMinusUpstream() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RouteMetrics metrics = new GatewayMetrics(registry, new WarmUpRequests())
+                .forRoute(route("orders", "http://orders:8080"));
+
+        // 上游耗时 40ms，网关在转发前后共耗时约 30ms
+        metrics.filter(request(), request -> {
+            Thread.sleep(15);
+            ServerResponse response = metrics.upstream(req -> {
+                Thread.sleep(40);
+                return ServerResponse.ok().build();
+            }).handle(request);
+            Thread.sleep(15);
+            return response;
+        });
+
+        double total = timer(registry, GatewayMetrics.ROUTE_REQUESTS, "orders").totalTime(TimeUnit.NANOSECONDS);
+        double upstream = timer(registry, GatewayMetrics.ROUTE_UPSTREAM, "orders").totalTime(TimeUnit.NANOSECONDS);
+        Timer overhead = timer(registry, GatewayMetrics.ROUTE_OVERHEAD, "orders");
+        assertEquals(1, overhead.count());
+        assertEquals(total - upstream, overhead.totalTime(TimeUnit.NANOSECONDS), 1.0);
+        assertTrue(upstream >= TimeUnit.MILLISECONDS.toNanos(40));
+        assertTrue(overhead.totalTime(TimeUnit.MILLISECONDS) >= 30);
+    }
+
+    @Test
+    void recordsUpstreamMetersForSelectedTarget() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RouteMetrics metrics = new GatewayMetrics(registry, new WarmUpRequests()).forRoute(
+                route("search", "http://search-a:8080", "http://search-b:8080"));
+
+        ServerRequest request = request();
+        metrics.filter(request, req -> metrics.upstream(r -> {
+            // 负载均衡过滤器写入实际选中的目标
+            MvcUtils.putAttribute(r, MvcUtils.GATEWAY_REQUEST_URL_ATTR, URI.create("http://search-b:8080/q"));
+            return ServerResponse.ok().build();
+        }).handle(req));
+
+        assertEquals("search-a:8080,search-b:8080",
+                timer(registry, GatewayMetrics.ROUTE_REQUESTS, "search").getId().getTag("upstream"));
+        assertEquals(0, registry.get(GatewayMetrics.UPSTREAM_REQUESTS).tag("upstream", "search-a:8080")
+                .timer().count());
+        assertEquals(1, registry.get(GatewayMetrics.UPSTREAM_REQUESTS).tag("upstream", "search-b:8080")
+                .timer().count());
+    }
+
+    private static Timer timer(SimpleMeterRegistry registry, String name, String route) {
+        return registry.get(name).tag("route", route).timer();
+    }
+
+    private static ServerRequest request() {
+        return ServerRequest.create(new MockHttpServletRequest("GET", "/api"), List.of());
+    }
+
+    private static GatewayProperties.RouteDefinition route(String id, String... uris) {
+        GatewayProperties.RouteDefinition route = new GatewayProperties.RouteDefinition();
+        route.setId(id);
+        if (uris.length == 1) {
+            route.setUri(uris[0]);
+        } else {
+            route.setTargets(Arrays.stream(uris).map(uri -> {
+                GatewayProperties.TargetDefinition target = new GatewayProperties.TargetDefinition();
+                target.setUri(uri);
+                return target;
+            }).toList());
+        }
+        return route;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.studiodemo.ratelimit;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.warmup.WarmUpFinishedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitersTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tokenBucketAllowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, TimeUnit.SECONDS.toNanos(1), 5, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire());
+        }
+        long wait = bucket.tryAcquire();
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+    }
+
+    @Test
+    void slidingWindowWeighsPreviousWindow() {
+        SlidingWindow window = new SlidingWindow(10, TimeUnit.SECONDS.toNanos(1), clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, window.tryAcquire());
+        }
+        assertTrue(window.tryAcquire() > 0);
+
+        // 1.5s 时上一窗口的 10 个请求按一半计入，还可放行 5 个
+        clock.set(TimeUnit.MILLISECONDS.toNanos(1500));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, window.tryAcquire());
+        }
+        assertTrue(window.tryAcquire() > 0);
+
+        // 跨过两个窗口后计数清零
+        clock.set(TimeUnit.MILLISECONDS.toNanos(3500));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, window.tryAcquire());
+        }
+    }
+
+    @Test
+    void routeFilterRejectsPerHeaderKeyWith429() throws Exception {
+        GatewayProperties.RateLimitDefinition definition = new GatewayProperties.RateLimitDefinition();
+        definition.setAlgorithm(GatewayProperties.RateLimitDefinition.Algorithm.SLIDING_WINDOW);
+        definition.setKey(GatewayProperties.RateLimitDefinition.KeyType.HEADER);
+        definition.setHeader("X-Api-Key");
+        definition.setLimit(1);
+        definition.setPeriod(Duration.ofSeconds(2));
+        GatewayProperties.RouteDefinition routeDef = new GatewayProperties.RouteDefinition();
+        routeDef.setId("test");
+        routeDef.setRateLimit(definition);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RouteRateLimitFilter filter = new RateLimiters(registry, clock::get).forRoute(routeDef);
+        HandlerFunction<ServerResponse> upstream = request -> ServerResponse.ok().build();
+
+        assertEquals(HttpStatus.OK, filter.filter(request("a"), upstream).statusCode());
+        ServerResponse rejected = filter.filter(request("a"), upstream);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.statusCode());
+        assertEquals("2", rejected.headers().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK, filter.filter(request("b"), upstream).statusCode());
+
+        assertEquals(1.0, registry.get("gateway.ratelimit.rejected").counter().count());
+        assertEquals(2.0, registry.get("gateway.ratelimit.keys").gauge().value());
+    }
+
+    @Test
+    void warmUpFinishedRestoresQuota() throws Exception {
+        RateLimiters rateLimiters = new RateLimiters(new SimpleMeterRegistry(), clock::get);
+        HandlerFunction<ServerResponse> upstream = request -> ServerResponse.ok().build();
+        for (GatewayProperties.RateLimitDefinition.KeyType key
+                : GatewayProperties.RateLimitDefinition.KeyType.values()) {
+            GatewayProperties.RateLimitDefinition definition = new GatewayProperties.RateLimitDefinition();
+            definition.setKey(key);
+            definition.setHeader("X-Api-Key");
+            definition.setLimit(1);
+            definition.setPeriod(Duration.ofMinutes(1));
+            GatewayProperties.RouteDefinition routeDef = new GatewayProperties.RouteDefinition();
+            routeDef.setId("test-" + key);
+            routeDef.setRateLimit(definition);
+            RouteRateLimitFilter filter = rateLimiters.forRoute(routeDef);
+
+            assertEquals(HttpStatus.OK, filter.filter(request("a"), upstream).statusCode());
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, filter.filter(request("a"), upstream).statusCode());
+
+            rateLimiters.onWarmUpFinished(new WarmUpFinishedEvent(false));
+            assertEquals(HttpStatus.OK, filter.filter(request("a"), upstream).statusCode(), key.name());
+        }
+    }
+
+    private static ServerRequest request(String apiKey) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/v1/demo/hello");
+        servletRequest.addHeader("X-Api-Key", apiKey);
+        return ServerRequest.create(servletRequest, List.of());
+    }
+}
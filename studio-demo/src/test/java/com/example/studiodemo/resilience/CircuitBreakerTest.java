@@ -0,0 +1,95 @@
+package com.example.studiodemo.resilience;
+
+import com.example.studiodemo.config.GatewayProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+
+    @Test
+    void opensWhenFailureRateExceedsThreshold() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(definition(Duration.ofSeconds(5)));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onResult(FAST, false);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.onResult(FAST, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpenProbesCloseTheCircuit() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(definition(Duration.ofMillis(50)));
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onResult(FAST, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        Thread.sleep(80);
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        // 探测名额用尽
+        assertFalse(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onResult(FAST, false);
+        circuitBreaker.onResult(FAST, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void slowProbeReopensTheCircuit() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(definition(Duration.ofMillis(50)));
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onResult(Duration.ofSeconds(2).toNanos(), false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        Thread.sleep(80);
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onResult(Duration.ofSeconds(2).toNanos(), false);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void resetClosesTheCircuit() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(definition(Duration.ofSeconds(5)));
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onResult(FAST, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        circuitBreaker.reset();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+        // 窗口已清空，少于 minimum-calls 的失败不会再次打开
+        circuitBreaker.onResult(FAST, true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private static GatewayProperties.CircuitBreakerDefinition definition(Duration openDuration) {
+        GatewayProperties.CircuitBreakerDefinition definition = new GatewayProperties.CircuitBreakerDefinition();
+        definition.setMinimumCalls(10);
+        definition.setFailureRateThreshold(50);
+        definition.setSlowCallDuration(Duration.ofSeconds(1));
+        definition.setSlowCallRateThreshold(80);
+        definition.setOpenDuration(openDuration);
+        definition.setHalfOpenCalls(2);
+        return definition;
+    }
+}
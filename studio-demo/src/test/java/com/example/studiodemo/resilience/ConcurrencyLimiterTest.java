@@ -0,0 +1,38 @@
+package com.example.studiodemo.resilience;
+
+import com.example.studiodemo.config.GatewayProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void rejectsAboveLimitAndAdaptsToLatency() {
+        GatewayProperties.ConcurrencyLimitDefinition definition = new GatewayProperties.ConcurrencyLimitDefinition();
+        definition.setInitialLimit(2);
+        definition.setMinLimit(1);
+        definition.setMaxLimit(10);
+        definition.setBackoffRatio(0.5);
+        definition.setLatencyThreshold(Duration.ofMillis(100));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(definition);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        // 满负载下的快速成功调用提升上限
+        limiter.onComplete(Duration.ofMillis(5).toNanos(), false);
+        assertEquals(3, limiter.getLimit());
+
+        // 超过延迟阈值时乘性下降，且不低于下限
+        limiter.onComplete(Duration.ofMillis(500).toNanos(), false);
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
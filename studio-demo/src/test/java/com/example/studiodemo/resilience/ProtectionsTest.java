@@ -0,0 +1,104 @@
+package com.example.studiodemo.resilience;
+
+import com.example.studiodemo.config.GatewayProperties;
+import com.example.studiodemo.hedge.HedgePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProtectionsTest {
+
+    private static final String UPSTREAM = "http://mvc-demo:8081";
+
+    @Test
+    void cancelledHedgeLoserDoesNotCountAsFailure() {
+        Protections protections = protections();
+        AtomicInteger calls = new AtomicInteger();
+        // 主请求很慢，对冲请求立即返回，主请求被取消
+        WebClient webClient = webClient(protections, () -> calls.incrementAndGet() == 1
+                ? Duration.ofSeconds(5) : Duration.ZERO);
+        HedgePolicy policy = new HedgePolicy("step", "test", hedge(), new SimpleMeterRegistry());
+
+        String body = policy.hedge(webClient.get().uri("/mvc/demo/hello").retrieve().bodyToMono(String.class))
+                .block(Duration.ofSeconds(2));
+
+        assertEquals("ok", body);
+        assertEquals(2, calls.get());
+        Protection protection = protections.forUpstream(URI.create(UPSTREAM));
+        // 胜出调用的 doFinally 在结果交给订阅者之后才执行，等待其归还许可
+        awaitIdle(protection.getConcurrencyLimiter());
+        assertEquals(10, protection.getConcurrencyLimiter().getLimit());
+        assertEquals(CircuitBreaker.State.CLOSED, protection.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void timeoutCancellationStillCountsAsFailure() {
+        Protections protections = protections();
+        WebClient webClient = webClient(protections, () -> Duration.ofSeconds(5));
+
+        Mono<String> call = webClient.get().uri("/mvc/demo/hello").retrieve().bodyToMono(String.class)
+                .timeout(Duration.ofMillis(20));
+        assertThrows(RuntimeException.class, () -> call.block(Duration.ofSeconds(2)));
+
+        Protection protection = protections.forUpstream(URI.create(UPSTREAM));
+        awaitIdle(protection.getConcurrencyLimiter());
+        assertEquals(9, protection.getConcurrencyLimiter().getLimit());
+        assertEquals(CircuitBreaker.State.OPEN, protection.getCircuitBreaker().getState());
+    }
+
+    private static void awaitIdle(ConcurrencyLimiter limiter) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (limiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static Protections protections() {
+        GatewayProperties.CircuitBreakerDefinition circuitBreaker = new GatewayProperties.CircuitBreakerDefinition();
+        // 一次失败即打开，便于观察失败是否被记录
+        circuitBreaker.setMinimumCalls(1);
+        GatewayProperties.ConcurrencyLimitDefinition concurrencyLimit = new GatewayProperties.ConcurrencyLimitDefinition();
+        concurrencyLimit.setInitialLimit(10);
+        GatewayProperties.ProtectionDefinition protection = new GatewayProperties.ProtectionDefinition();
+        protection.setCircuitBreaker(circuitBreaker);
+        protection.setConcurrencyLimit(concurrencyLimit);
+
+        GatewayProperties.RouteDefinition route = new GatewayProperties.RouteDefinition();
+        route.setId("mvc-demo-hello");
+        route.setUri(UPSTREAM);
+        route.setProtection(protection);
+        GatewayProperties properties = new GatewayProperties();
+        properties.setRoutes(List.of(route));
+        return new Protections(properties, new SimpleMeterRegistry());
+    }
+
+    private static GatewayProperties.HedgeDefinition hedge() {
+        GatewayProperties.HedgeDefinition definition = new GatewayProperties.HedgeDefinition();
+        definition.setMinDelay(Duration.ofMillis(20));
+        definition.setMaxDelay(Duration.ofMillis(20));
+        definition.setBudgetPercent(100);
+        return definition;
+    }
+
+    private static WebClient webClient(Protections protections, Supplier<Duration> delay) {
+        return WebClient.builder()
+                .baseUrl(UPSTREAM)
+                .filter(protections.exchangeFilter())
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK).body("ok").build())
+                        .delayElement(delay.get()))
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.studiodemo.route;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteIndexTest {
+
+    @Test
+    void matchesLiteralAndVariableSegments() {
+        RouteIndex<String> index = new RouteIndex<>();
+        index.add(null, "GET", "/mvc/demo/hello", "hello");
+        index.add(null, "GET", "/mvc/demo/hello/{name}", "hello-name");
+
+        assertEquals("hello", index.lookup(null, HttpMethod.GET, "/mvc/demo/hello").target());
+
+        RouteIndex.Match<String> match = index.lookup(null, HttpMethod.GET, "/mvc/demo/hello/%E5%BC%A0%E4%B8%89");
+        assertEquals("hello-name", match.target());
+        assertEquals(Map.of("name", "张三"), match.variables());
+
+        assertNull(index.lookup(null, HttpMethod.GET, "/mvc/demo/hello/a/b"));
+        assertNull(index.lookup(null, HttpMethod.POST, "/mvc/demo/hello"));
+    }
+
+    @Test
+    void prefersLiteralOverVariableAndBacktracks() {
+        RouteIndex<String> index = new RouteIndex<>();
+        index.add(null, null, "/users/{id}/orders", "orders");
+        index.add(null, null, "/users/me", "me");
+
+        assertEquals("me", index.lookup(null, HttpMethod.GET, "/users/me").target());
+        RouteIndex.Match<String> match = index.lookup(null, HttpMethod.GET, "/users/me/orders");
+        assertEquals("orders", match.target());
+        assertEquals(Map.of("id", "me"), match.variables());
+    }
+
+    @Test
+    void matchesCatchAll() {
+        RouteIndex<String> index = new RouteIndex<>();
+        index.add(null, "GET", "/api/v1/demo/**", "api");
+
+        assertEquals("api", index.lookup(null, HttpMethod.GET, "/api/v1/demo/hello/x").target());
+        assertEquals("api", index.lookup(null, HttpMethod.GET, "/api/v1/demo").target());
+        assertNull(index.lookup(null, HttpMethod.GET, "/api/v2/demo"));
+    }
+
+    @Test
+    void prefersHostAndMethodSpecificRoutes() {
+        RouteIndex<String> index = new RouteIndex<>();
+        index.add(null, null, "/hello", "any");
+        index.add("api.example.com", null, "/hello", "host");
+        index.add("10.0.0.1", "POST", "/hello", "ip-post");
+
+        assertEquals("any", index.lookup("other.example.com", HttpMethod.GET, "/hello").target());
+        assertEquals("host", index.lookup("API.example.com", HttpMethod.GET, "/hello").target());
+        assertEquals("ip-post", index.lookup("10.0.0.1", HttpMethod.POST, "/hello").target());
+        assertEquals("any", index.lookup("10.0.0.1", HttpMethod.GET, "/hello").target());
+    }
+
+    @Test
+    void rejectsDuplicateRoutes() {
+        RouteIndex<String> index = new RouteIndex<>();
+        index.add(null, "GET", "/hello/{a}", "first");
+
+        assertFalse(index.add(null, "get", "/hello/{b}", "second"));
+        assertEquals("first", index.lookup(null, HttpMethod.GET, "/hello/x").target());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void keepsRegexConstraintOnVariables() {
+        RouteIndex<String> index = new RouteIndex<>();
+        index.add(null, "GET", "/users/{id:[0-9]+}", "by-id");
+        index.add(null, "GET", "/users/{name}/profile", "profile");
+
+        RouteIndex.Match<String> match = index.lookup(null, HttpMethod.GET, "/users/42");
+        assertEquals("by-id", match.target());
+        assertEquals(Map.of("id", "42"), match.variables());
+        assertNull(index.lookup(null, HttpMethod.GET, "/users/abc"));
+        assertEquals("profile", index.lookup(null, HttpMethod.GET, "/users/abc/profile").target());
+    }
+
+    @Test
+    void matchesWildcardCaptureAndPartialSegments() {
+        RouteIndex<String> index = new RouteIndex<>();
+        index.add(null, null, "/static/*", "single");
+        index.add(null, null, "/files/{*path}", "capture");
+        index.add(null, null, "/orders/order-{id}.json", "partial");
+
+        assertEquals("single", index.lookup(null, HttpMethod.GET, "/static/app.js").target());
+        assertNull(index.lookup(null, HttpMethod.GET, "/static/js/app.js"));
+
+        RouteIndex.Match<String> capture = index.lookup(null, HttpMethod.GET, "/files/a/b%20c.txt");
+        assertEquals("capture", capture.target());
+        assertEquals(Map.of("path", "/a/b c.txt"), capture.variables());
+
+        RouteIndex.Match<String> partial = index.lookup(null, HttpMethod.GET, "/orders/order-7.json");
+        assertEquals("partial", partial.target());
+        assertEquals(Map.of("id", "7"), partial.variables());
+        assertNull(index.lookup(null, HttpMethod.GET, "/orders/7"));
+    }
+
+    @Test
+    void ranksPatternsBetweenVariablesAndCatchAll() {
+        RouteIndex<String> index = new RouteIndex<>();
+        index.add(null, null, "/api/**", "catch-all");
+        index.add(null, null, "/api/{version:v[0-9]+}", "pattern");
+        index.add(null, null, "/api/v1", "literal");
+
+        assertEquals("literal", index.lookup(null, HttpMethod.GET, "/api/v1").target());
+        assertEquals("pattern", index.lookup(null, HttpMethod.GET, "/api/v2").target());
+        assertEquals("catch-all", index.lookup(null, HttpMethod.GET, "/api/latest").target());
+    }
+
+    @Test
+    void rejectsInvalidPatternsAndDuplicates() {
+        RouteIndex<String> index = new RouteIndex<>();
+        assertTrue(index.add(null, null, "/users/{id:[0-9]+}", "first"));
+        assertFalse(index.add(null, null, "/users/{id:[0-9]+}", "second"));
+        assertEquals(1, index.size());
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> index.add(null, null, "/a/**/b", "middle-catch-all"));
+        assertTrue(error.getMessage().contains("/a/**/b"), error.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> index.add(null, null, "/users/{id", "unclosed"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.studiodemo.streaming;
+
+import com.example.studiodemo.config.GatewayProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteStreamingFilterTest {
+
+    private static final int CHUNK = 64 * 1024;
+    private static final int CHUNKS = 128;
+
+    @Test
+    void streamsLargeBodyWithPooledBufferAndFlushesAtChunkBoundaries() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ResponseStreams streams = new ResponseStreams(new GatewayProperties(), registry);
+        RouteStreamingFilter filter = streams.forRoute(route(null));
+
+        for (int i = 0; i < 3; i++) {
+            ServerRequest request = ServerRequest.create(new MockHttpServletRequest("GET", "/files/big"), List.of());
+            filter.filter(request, upstream());
+
+            InputStream body = MvcUtils.getAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR);
+            CountingOutputStream out = new CountingOutputStream();
+            assertEquals((long) CHUNK * CHUNKS, body.transferTo(out));
+            assertEquals((long) CHUNK * CHUNKS, out.bytes);
+            // 8MB 响应只在每个 chunk 读完时 flush 一次，不逐缓冲区 flush
+            assertEquals(CHUNKS, out.flushes);
+        }
+
+        // 三次响应复用同一个池化缓冲区
+        assertEquals(1.0, registry.get("gateway.stream.buffers.allocated").functionCounter().count());
+        assertEquals(3.0 * CHUNK * CHUNKS, registry.get("gateway.stream.bytes").counter().count());
+    }
+
+    @Test
+    void routeCanOptOut() {
+        ResponseStreams streams = new ResponseStreams(new GatewayProperties(), new SimpleMeterRegistry());
+        assertNull(streams.forRoute(route(false)));
+    }
+
+    private static GatewayProperties.RouteDefinition route(Boolean streaming) {
+        GatewayProperties.RouteDefinition routeDef = new GatewayProperties.RouteDefinition();
+        routeDef.setId("files");
+        routeDef.setStreaming(streaming);
+        return routeDef;
+    }
+
+    private static HandlerFunction<ServerResponse> upstream() {
+        return request -> {
+            MvcUtils.putAttribute(request, MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR, new ChunkedInputStream());
+            return ServerResponse.ok().build();
+        };
+    }
+
+    /**
+     * 按 chunk 到达的上游响应：每个 chunk 内 available() 为剩余字节数，读完一个 chunk 后为 0
+     */
+    private static class ChunkedInputStream extends InputStream {
+        private int chunk;
+        private int position;
+
+        @Override
+        public int read() {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (chunk == CHUNKS) {
+                return -1;
+            }
+            int n = Math.min(len, CHUNK - position);
+            position += n;
+            if (position == CHUNK) {
+                chunk++;
+                position = 0;
+            }
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return position == 0 ? 0 : CHUNK - position;
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long bytes;
+        private int flushes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
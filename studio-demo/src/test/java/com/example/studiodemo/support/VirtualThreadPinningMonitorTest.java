@@ -0,0 +1,56 @@
+package com.example.studiodemo.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 需要 Java 21+ 运行（Java 24 起 synchronized 不再钉住虚拟线程）
+ */
+@EnabledForJreRange(min = JRE.JAVA_21, max = JRE.JAVA_23)
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    void countsVirtualThreadsBlockedInsideSynchronized() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(5), registry);
+        monitor.afterPropertiesSet();
+        try {
+            CompletableFuture.runAsync(this::sleepWhileHoldingLock, new VirtualThreadTaskExecutor("pinned-"))
+                    .get(5, TimeUnit.SECONDS);
+
+            // JFR 流按批次（约 1 秒）投递事件
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (counted(registry) == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(counted(registry) >= 1, "pinned event was not counted");
+        } finally {
+            monitor.destroy();
+        }
+    }
+
+    private void sleepWhileHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static double counted(SimpleMeterRegistry registry) {
+        return registry.get("gateway.virtual-threads.pinned").counter().count();
+    }
+}
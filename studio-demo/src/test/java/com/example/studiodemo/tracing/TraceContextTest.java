@@ -0,0 +1,83 @@
+package com.example.studiodemo.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceContextTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    @Test
+    void continuesIncomingTraceWithOwnSpan() {
+        TraceContext sampled = TraceContext.start("00-" + TRACE_ID + "-" + PARENT_ID + "-01", 0, 4,
+                new MockHttpServletResponse());
+        assertTrue(sampled.isSampled());
+        assertEquals(TRACE_ID, sampled.traceId());
+        assertNotEquals(PARENT_ID, sampled.spanId());
+        assertEquals("00-" + TRACE_ID + "-" + sampled.spanId() + "-01", sampled.traceparent());
+
+        // 沿用上游的不采样决定
+        TraceContext notSampled = TraceContext.start("00-" + TRACE_ID + "-" + PARENT_ID + "-00", 1.0, 4,
+                new MockHttpServletResponse());
+        assertFalse(notSampled.isSampled());
+        assertTrue(notSampled.traceparent().endsWith("-00"));
+    }
+
+    @Test
+    void startsNewTraceForMissingOrInvalidHeader() {
+        Pattern traceparent = Pattern.compile("00-[0-9a-f]{32}-[0-9a-f]{16}-0[01]");
+        for (String header : new String[] {null, "garbage", "00-" + "0".repeat(32) + "-" + PARENT_ID + "-01",
+                "00-" + TRACE_ID.toUpperCase() + "-" + PARENT_ID + "-01"}) {
+            TraceContext trace = TraceContext.start(header, 0, 4, new MockHttpServletResponse());
+            assertFalse(trace.isSampled());
+            assertNotEquals(TRACE_ID, trace.traceId());
+            assertTrue(traceparent.matcher(trace.traceparent()).matches(), trace.traceparent());
+        }
+        assertTrue(TraceContext.start(null, 1.0, 4, new MockHttpServletResponse()).isSampled());
+    }
+
+    @Test
+    void addsServerTimingForSampledRequests() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        TraceContext trace = TraceContext.start(null, 1.0, 1, response);
+        trace.mark(Stage.RECEIVED);
+        trace.mark(Stage.ROUTED);
+        trace.mark(Stage.REWRITTEN);
+        trace.mark(Stage.UPSTREAM_STARTED);
+        TraceContext.bind(trace);
+        try {
+            TraceContext.recordConnect(1_500_000);
+        } finally {
+            TraceContext.unbind();
+        }
+        trace.mark(Stage.UPSTREAM_RESPONDED);
+        trace.upstreamTiming("app;dur=0.250");
+        trace.span("hello", System.nanoTime(), false);
+        trace.span("dropped", System.nanoTime(), true);
+        trace.handled();
+
+        String header = response.getHeader(TraceContext.SERVER_TIMING);
+        List<String> names = Pattern.compile(", ").splitAsStream(header).map(m -> m.substring(0, m.indexOf(';')))
+                .toList();
+        assertEquals(List.of("route", "rewrite", "filters", "connect", "upstream", "response", "step-hello", "total",
+                "upstream-app"), names);
+        assertTrue(header.contains("connect;dur=1.500"), header);
+        assertTrue(header.endsWith("upstream-app;dur=0.250"), header);
+
+        MockHttpServletResponse notSampledResponse = new MockHttpServletResponse();
+        TraceContext notSampled = TraceContext.start(null, 0, 1, notSampledResponse);
+        notSampled.mark(Stage.RECEIVED);
+        notSampled.handled();
+        assertNull(notSampledResponse.getHeader(TraceContext.SERVER_TIMING));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.studiodemo.upstream;
+
+import com.example.studiodemo.config.GatewayProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(OutputCaptureExtension.class)
+class UpstreamConnectionPoolsTest {
+
+    @Test
+    void mergesRouteOverridesWithDefaults() {
+        GatewayProperties.ConnectionPoolDefinition connection = new GatewayProperties.ConnectionPoolDefinition();
+        connection.setMaxConnections(50);
+        connection.setReadTimeout(Duration.ofSeconds(3));
+        GatewayProperties properties = properties(
+                route("slow", "http://slow:8081", connection),
+                route("plain", "http://plain:8081", null));
+        properties.getHttpClient().setConnectTimeout(Duration.ofMillis(300));
+
+        UpstreamConnectionPools pools = new UpstreamConnectionPools(properties, null, UnaryOperator.identity());
+        try {
+            GatewayProperties.ConnectionPoolDefinition slow = pools.pool("slow:8081").getDefinition();
+            assertEquals(50, slow.getMaxConnections());
+            assertEquals(Duration.ofSeconds(3), slow.getReadTimeout());
+            assertEquals(Duration.ofMillis(300), slow.getConnectTimeout());
+            assertEquals(Duration.ofSeconds(30), slow.getIdleTimeout());
+
+            GatewayProperties.ConnectionPoolDefinition plain = pools.pool("plain:8081").getDefinition();
+            assertEquals(200, plain.getMaxConnections());
+            assertEquals(Duration.ofSeconds(10), plain.getReadTimeout());
+            assertEquals(Duration.ofMillis(300), plain.getConnectTimeout());
+        } finally {
+            pools.destroy();
+        }
+    }
+
+    @Test
+    void selectsPoolByHostAndPort() {
+        GatewayProperties properties = properties(
+                route("a", "http://mvc-demo:8081/api", null),
+                route("b", "http://mvc-demo:8081/other", null),
+                route("c", "http://mvc-demo:8082", null));
+
+        UpstreamConnectionPools pools = new UpstreamConnectionPools(properties, null, UnaryOperator.identity());
+        try {
+            assertEquals(List.of("mvc-demo:8081", "mvc-demo:8082"),
+                    pools.snapshots().keySet().stream().sorted().toList());
+            assertSame(pools.pool("mvc-demo:8081"), pools.pool("mvc-demo:8081"));
+            assertNotSame(pools.pool("mvc-demo:8081"), pools.pool("mvc-demo:8082"));
+            assertEquals("mvc-demo:8081",
+                    UpstreamConnectionPools.upstreamKey(URI.create("http://mvc-demo:8081/mvc/demo/hello?name=tom")));
+        } finally {
+            pools.destroy();
+        }
+    }
+
+    @Test
+    void warnsWhenRoutesDefineDifferentPoolsForSameUpstream(CapturedOutput output) {
+        GatewayProperties.ConnectionPoolDefinition first = new GatewayProperties.ConnectionPoolDefinition();
+        first.setMaxConnections(50);
+        GatewayProperties.ConnectionPoolDefinition same = new GatewayProperties.ConnectionPoolDefinition();
+        same.setMaxConnections(50);
+        GatewayProperties.ConnectionPoolDefinition different = new GatewayProperties.ConnectionPoolDefinition();
+        different.setMaxConnections(10);
+
+        GatewayProperties properties = properties(
+                route("first", "http://mvc-demo:8081", first),
+                route("same", "http://mvc-demo:8081", same),
+                route("different", "http://mvc-demo:8081", different));
+        UpstreamConnectionPools pools = new UpstreamConnectionPools(properties, null, UnaryOperator.identity());
+        try {
+            assertEquals(50, pools.pool("mvc-demo:8081").getDefinition().getMaxConnections());
+            assertTrue(output.getOut().contains("Route different sets connection"), output.getOut());
+            assertTrue(output.getOut().contains("shared with route first"), output.getOut());
+            assertFalse(output.getOut().contains("Route same sets connection"), output.getOut());
+        } finally {
+            pools.destroy();
+        }
+    }
+
+    private static GatewayProperties properties(GatewayProperties.RouteDefinition... routes) {
+        GatewayProperties properties = new GatewayProperties();
+        properties.setRoutes(List.of(routes));
+        return properties;
+    }
+
+    private static GatewayProperties.RouteDefinition route(String id, String uri,
+            GatewayProperties.ConnectionPoolDefinition connection) {
+        GatewayProperties.RouteDefinition route = new GatewayProperties.RouteDefinition();
+        route.setId(id);
+        route.setUri(uri);
+        route.setConnection(connection);
+        return route;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.studiodemo.warmup;
+
+import com.example.studiodemo.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "gateway.warm-up.iterations=20")
+class GatewayWarmUpTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void warmUpTrafficIsNotRecorded() {
+        assertNotNull(meterRegistry.find("gateway.warmup.duration").timeGauge());
+
+        for (String name : List.of(GatewayMetrics.ROUTE_REQUESTS, GatewayMetrics.ROUTE_UPSTREAM,
+                GatewayMetrics.ROUTE_OVERHEAD, GatewayMetrics.UPSTREAM_REQUESTS,
+                "gateway.orchestration.requests", "gateway.orchestration.step")) {
+            Collection<Timer> timers = meterRegistry.find(name).timers();
+            assertFalse(timers.isEmpty(), name);
+            for (Timer timer : timers) {
+                assertEquals(0, timer.count(), timer.getId().toString());
+            }
+        }
+        assertNull(meterRegistry.find("http.server.requests").timer());
+    }
+}
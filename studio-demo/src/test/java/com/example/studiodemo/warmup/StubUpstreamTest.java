@@ -0,0 +1,52 @@
+package com.example.studiodemo.warmup;
+
+import com.example.studiodemo.codec.WireFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StubUpstreamTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void answersGetInNegotiatedFormat() throws Exception {
+        try (StubUpstream stub = StubUpstream.start()) {
+            HttpResponse<byte[]> response = client.send(HttpRequest
+                    .newBuilder(stub.uri().resolve("/mvc/demo/hello/tom"))
+                    .header("Accept", "application/x-jackson-smile, application/json;q=0.9")
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            assertEquals(WireFormat.SMILE.mediaType().toString(),
+                    response.headers().firstValue("Content-Type").orElseThrow());
+            JsonNode body = new ObjectMapper(new SmileFactory()).readTree(response.body());
+            assertEquals("200", body.get("code").asText());
+            assertEquals("tom", body.get("data").asText());
+        }
+    }
+
+    @Test
+    void answersBatchItemByItem() throws Exception {
+        ObjectMapper json = new ObjectMapper();
+        try (StubUpstream stub = StubUpstream.start()) {
+            HttpResponse<byte[]> response = client.send(HttpRequest
+                    .newBuilder(stub.uri().resolve("/mvc/demo/hello/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(List.of("a", "b"))))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            JsonNode body = json.readTree(response.body());
+            assertEquals(2, body.size());
+            assertEquals("a", body.get(0).get("data").asText());
+            assertEquals("b", body.get(1).get("data").asText());
+        }
+    }
+}
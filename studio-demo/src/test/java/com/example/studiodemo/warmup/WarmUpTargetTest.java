@@ -0,0 +1,56 @@
+package com.example.studiodemo.warmup;
+
+import com.example.studiodemo.config.GatewayProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WarmUpTargetTest {
+
+    @Test
+    void collectsGetRoutesWithSamplePaths() {
+        GatewayProperties properties = new GatewayProperties();
+        properties.setRoutes(List.of(
+                route("hello-name", null, "GET", "/mvc/demo/hello/{name}"),
+                route("files", "*.example.com", null, "/files/**"),
+                route("submit", null, "POST", "/submit")));
+
+        List<WarmUpTarget> targets = WarmUpTarget.collect(properties, new RequestMappingHandlerMapping(),
+                "com.example", "/gateway");
+
+        assertEquals(List.of("route hello-name", "route files"), targets.stream().map(WarmUpTarget::name).toList());
+        assertNull(targets.get(0).host());
+        assertEquals("/gateway/mvc/demo/hello/warm-up-7", targets.get(0).path(7));
+        assertEquals("warm-up.example.com", targets.get(1).host());
+        assertEquals("/gateway/files/warm-up-0", targets.get(1).path(0));
+    }
+
+    @Test
+    void redirectsUpstreamOnlyWhileStubbed() {
+        WarmUpUpstream upstream = new WarmUpUpstream();
+        URI uri = URI.create("http://localhost:8081/mvc/demo/hello/%E5%BC%A0?lang=zh");
+
+        upstream.redirectTo(URI.create("http://127.0.0.1:12345"));
+        assertEquals(URI.create("http://127.0.0.1:12345/mvc/demo/hello/%E5%BC%A0?lang=zh"), upstream.resolve(uri));
+
+        upstream.restore();
+        assertEquals(uri, upstream.resolve(uri));
+    }
+
+    private static GatewayProperties.RouteDefinition route(String id, String host, String method, String path) {
+        GatewayProperties.PredicateDefinition predicates = new GatewayProperties.PredicateDefinition();
+        predicates.setHost(host);
+        predicates.setMethod(method);
+        predicates.setPath(path);
+        GatewayProperties.RouteDefinition route = new GatewayProperties.RouteDefinition();
+        route.setId(id);
+        route.setUri("http://localhost:8081");
+        route.setPredicates(predicates);
+        return route;
+    }
+}